@@ -0,0 +1,65 @@
+// Carga de leitura do catálogo para comparar os modos de atendimento (threads de plataforma x virtual threads).
+//
+// Uso: ver run.sh, que sobe a aplicação em cada modo e chama este script. Isoladamente:
+//   k6 run -e BASE_URL=http://localhost:8080 -e VUS=1200 -e DURATION=60s -e MODE=virtual catalog.js
+//
+// Cada VU é um cliente fechado (uma requisição por vez, sem pausa): 70% listagens (páginas e filtros variados),
+// 20% detalhe de produto e 10% consulta de cupom. O resumo vai para results/<MODE>.json.
+
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const MODE = __ENV.MODE || 'unknown';
+const PRODUCTS = parseInt(__ENV.PRODUCTS || '10000', 10);
+
+export const options = {
+    scenarios: {
+        catalog: {
+            executor: 'constant-vus',
+            vus: parseInt(__ENV.VUS || '1200', 10),
+            duration: __ENV.DURATION || '60s',
+            gracefulStop: '10s',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    discardResponseBodies: true,
+};
+
+export function setup() {
+    const res = http.get(`${BASE_URL}/api/v1/products?size=1&count=exact`, { responseType: 'text' });
+    const ids = [];
+    if (res.status === 200) {
+        const total = res.json('meta.totalItems') || 0;
+        if (total < PRODUCTS / 2) {
+            throw new Error(`Catálogo com ${total} produtos; rode run.sh (que popula o banco) antes.`);
+        }
+    }
+    const page = http.get(`${BASE_URL}/api/v1/products?size=100&count=none`, { responseType: 'text' });
+    (page.json('data') || []).forEach((p) => ids.push(p.id));
+    return { ids };
+}
+
+const SORTS = ['name', 'price', 'finalPrice'];
+
+export default function (data) {
+    const roll = Math.random();
+    let res;
+    if (roll < 0.7) {
+        const pageNumber = Math.floor(Math.random() * 50);
+        const sort = SORTS[Math.floor(Math.random() * SORTS.length)];
+        const filter = Math.random() < 0.3 ? `&minPrice=${Math.floor(Math.random() * 100)}` : '';
+        res = http.get(`${BASE_URL}/api/v1/products?page=${pageNumber}&size=20&sort=${sort}${filter}`,
+            { tags: { name: 'list' } });
+    } else if (roll < 0.9) {
+        const id = data.ids[Math.floor(Math.random() * data.ids.length)];
+        res = http.get(`${BASE_URL}/api/v1/products/${id}`, { tags: { name: 'detail' } });
+    } else {
+        res = http.get(`${BASE_URL}/api/v1/coupons/BENCH10`, { tags: { name: 'coupon' } });
+    }
+    check(res, { 'status 2xx': (r) => r.status >= 200 && r.status < 300 });
+}
+
+export function handleSummary(summary) {
+    return { [`results/${MODE}.json`]: JSON.stringify(summary, null, 2) };
+}
@@ -0,0 +1,37 @@
+// Latência da listagem com count=exact: a mesma página filtrada, repetida, para comparar o COUNT(*) sequencial
+// com o COUNT(*) em paralelo (app.listing.parallel-count.enabled).
+//
+// Uso: ver parallel_count.sh, que sobe a aplicação com e sem o COUNT em paralelo e chama este script. Isoladamente:
+//   k6 run -e BASE_URL=http://localhost:8080 -e VUS=20 -e DURATION=60s -e MODE=parallel listing_count.js
+//
+// O resumo vai para benchmarks/load/results/count-<MODE>.json (caminho relativo a backend/).
+
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const MODE = __ENV.MODE || 'unknown';
+const SEARCH = __ENV.SEARCH || 'bench';
+
+export const options = {
+    scenarios: {
+        listing: {
+            executor: 'constant-vus',
+            vus: parseInt(__ENV.VUS || '20', 10),
+            duration: __ENV.DURATION || '60s',
+            gracefulStop: '10s',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    discardResponseBodies: true,
+};
+
+export default function () {
+    const res = http.get(`${BASE_URL}/api/v1/products?page=3&size=20&sort=name&count=exact&search=${SEARCH}`,
+        { tags: { name: 'list-exact' } });
+    check(res, { 'status 200': (r) => r.status === 200 });
+}
+
+export function handleSummary(summary) {
+    return { [`benchmarks/load/results/count-${MODE}.json`]: JSON.stringify(summary, null, 2) };
+}
@@ -0,0 +1,78 @@
+#!/usr/bin/env bash
+# Benchmark da listagem com count=exact: COUNT(*) sequencial x em paralelo à consulta da página
+# (app.listing.parallel-count.enabled), com o mesmo banco, a mesma carga k6 e o mesmo pool do Hikari.
+#
+# Requisitos: JDK 21, k6, jq, curl e um Postgres descartável (NÃO usar o banco de produção).
+#   export SPRING_DATASOURCE_URL=jdbc:postgresql://localhost:5432/techchallenge_bench
+#   export SPRING_DATASOURCE_USERNAME=postgres SPRING_DATASOURCE_PASSWORD=...
+#   ./benchmarks/load/parallel_count.sh     # a partir de backend/
+#
+# Variáveis opcionais: VUS (20), DURATION (60s), PRODUCTS (500000), HIKARI_POOL (20), COUNT_THREADS (4).
+# O catálogo só é populado se ainda tiver menos de PRODUCTS produtos "bench produto".
+set -euo pipefail
+
+cd "$(dirname "$0")/../.."
+VUS=${VUS:-20}
+DURATION=${DURATION:-60s}
+PRODUCTS=${PRODUCTS:-500000}
+HIKARI_POOL=${HIKARI_POOL:-20}
+COUNT_THREADS=${COUNT_THREADS:-4}
+PORT=${PORT:-18080}
+BASE_URL="http://localhost:${PORT}"
+RESULTS=benchmarks/load/results
+mkdir -p "$RESULTS"
+
+[ -f target/tech-challenge-0.0.1-SNAPSHOT.jar ] || ./mvnw -q -B package -DskipTests
+
+start_app() {
+    local mode=$1 parallel=$2
+    java -jar target/tech-challenge-0.0.1-SNAPSHOT.jar \
+        --server.port="$PORT" \
+        --spring.datasource.hikari.maximum-pool-size="$HIKARI_POOL" \
+        --app.listing.parallel-count.enabled="$parallel" \
+        --app.listing.parallel-count.threads="$COUNT_THREADS" \
+        --app.trace.enabled=false \
+        > "$RESULTS/count-$mode.log" 2>&1 &
+    APP_PID=$!
+    for _ in $(seq 1 120); do
+        curl -sf "$BASE_URL/actuator/health" > /dev/null && return 0
+        sleep 1
+    done
+    echo "A aplicação não subiu; ver $RESULTS/count-$mode.log" >&2
+    exit 1
+}
+
+stop_app() {
+    kill "$APP_PID" && wait "$APP_PID" || true
+}
+
+seed() {
+    local total
+    total=$(curl -sf "$BASE_URL/api/v1/products?size=1&count=exact&search=bench" | jq '.meta.totalItems // 0')
+    [ "$total" -ge "$PRODUCTS" ] && return 0
+    # Importação em massa (nomes já existentes são apenas reportados).
+    seq 1 "$PRODUCTS" | awk '{ printf "{\"name\":\"bench produto %d\",\"description\":\"carga\",\"stock\":%d,\"price\":%d.90}\n", $1, $1 % 50, 10 + $1 % 490 }' \
+        | curl -sf -X POST -H 'Content-Type: application/x-ndjson' --data-binary @- "$BASE_URL/api/v1/products/import" > /dev/null
+}
+
+for mode in sequential parallel; do
+    parallel=false
+    [ "$mode" = parallel ] && parallel=true
+    start_app "$mode" "$parallel"
+    [ "$mode" = sequential ] && seed
+    # Aquecimento (JIT, pool de conexões) fora da medição.
+    k6 run -q -e BASE_URL="$BASE_URL" -e VUS="$VUS" -e DURATION=15s -e MODE="warmup-$mode" \
+        benchmarks/load/listing_count.js > /dev/null
+    k6 run -e BASE_URL="$BASE_URL" -e VUS="$VUS" -e DURATION="$DURATION" -e MODE="$mode" \
+        benchmarks/load/listing_count.js
+    stop_app
+done
+
+printf '\n%-12s %12s %10s %10s\n' modo 'req/s' 'p50 (ms)' 'p99 (ms)'
+for mode in sequential parallel; do
+    jq -r --arg mode "$mode" '[$mode,
+            (.metrics.http_reqs.values.rate | floor),
+            (.metrics.http_req_duration.values["p(50)"] | . * 10 | round / 10),
+            (.metrics.http_req_duration.values["p(99)"] | . * 10 | round / 10)] | @tsv' \
+        "$RESULTS/count-$mode.json" | awk -F'\t' '{ printf "%-12s %12s %10s %10s\n", $1, $2, $3, $4 }'
+done
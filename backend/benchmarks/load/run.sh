@@ -0,0 +1,79 @@
+#!/usr/bin/env bash
+# Benchmark comparativo dos modos de atendimento: threads de plataforma (Tomcat, pool fixo) x virtual threads
+# (spring.threads.virtual.enabled=true), com o mesmo banco, a mesma carga k6 e o mesmo pool do Hikari.
+#
+# Requisitos: JDK 21, k6, jq, curl e um Postgres descartável (NÃO usar o banco de produção).
+#   export SPRING_DATASOURCE_URL=jdbc:postgresql://localhost:5432/techchallenge_bench
+#   export SPRING_DATASOURCE_USERNAME=postgres SPRING_DATASOURCE_PASSWORD=...
+#   ./benchmarks/load/run.sh            # a partir de backend/
+#
+# Variáveis opcionais: VUS (1200), DURATION (60s), PRODUCTS (10000), HIKARI_POOL (20), TOMCAT_THREADS (200).
+# Com -Djdk.tracePinnedThreads=short, qualquer virtual thread presa à portadora durante I/O aparece em
+# results/<modo>.log.
+set -euo pipefail
+
+cd "$(dirname "$0")/../.."
+VUS=${VUS:-1200}
+DURATION=${DURATION:-60s}
+PRODUCTS=${PRODUCTS:-10000}
+HIKARI_POOL=${HIKARI_POOL:-20}
+TOMCAT_THREADS=${TOMCAT_THREADS:-200}
+PORT=${PORT:-18080}
+BASE_URL="http://localhost:${PORT}"
+RESULTS=benchmarks/load/results
+mkdir -p "$RESULTS"
+
+[ -f target/tech-challenge-0.0.1-SNAPSHOT.jar ] || ./mvnw -q -B package -DskipTests
+
+start_app() {
+    local mode=$1 virtual=$2
+    java -Djdk.tracePinnedThreads=short -jar target/tech-challenge-0.0.1-SNAPSHOT.jar \
+        --server.port="$PORT" \
+        --spring.threads.virtual.enabled="$virtual" \
+        --server.tomcat.threads.max="$TOMCAT_THREADS" \
+        --spring.datasource.hikari.maximum-pool-size="$HIKARI_POOL" \
+        --app.trace.enabled=false \
+        > "$RESULTS/$mode.log" 2>&1 &
+    APP_PID=$!
+    for _ in $(seq 1 120); do
+        curl -sf "$BASE_URL/actuator/health" > /dev/null && return 0
+        sleep 1
+    done
+    echo "A aplicação não subiu; ver $RESULTS/$mode.log" >&2
+    exit 1
+}
+
+stop_app() {
+    kill "$APP_PID" && wait "$APP_PID" || true
+}
+
+seed() {
+    # Produtos via importação em massa (nomes já existentes são apenas reportados) e um cupom para as consultas.
+    seq 1 "$PRODUCTS" | awk '{ printf "{\"name\":\"bench produto %d\",\"description\":\"carga\",\"stock\":%d,\"price\":%d.90}\n", $1, $1 % 50, 10 + $1 % 490 }' \
+        | curl -sf -X POST -H 'Content-Type: application/x-ndjson' --data-binary @- "$BASE_URL/api/v1/products/import" > /dev/null
+    curl -s -X POST -H 'Content-Type: application/json' "$BASE_URL/api/v1/coupons" \
+        -d "{\"code\":\"BENCH10\",\"type\":\"PERCENT\",\"value\":10,\"oneShot\":false,\"validFrom\":\"$(date -u +%Y-%m-%dT%H:%M:%SZ)\",\"validUntil\":\"2099-01-01T00:00:00Z\"}" > /dev/null
+}
+
+for mode in platform virtual; do
+    virtual=false
+    [ "$mode" = virtual ] && virtual=true
+    start_app "$mode" "$virtual"
+    [ "$mode" = platform ] && seed
+    # Aquecimento (JIT, pool de conexões, caches) fora da medição.
+    k6 run -q -e BASE_URL="$BASE_URL" -e VUS=100 -e DURATION=15s -e MODE="warmup-$mode" -e PRODUCTS="$PRODUCTS" \
+        benchmarks/load/catalog.js > /dev/null
+    k6 run -e BASE_URL="$BASE_URL" -e VUS="$VUS" -e DURATION="$DURATION" -e MODE="$mode" -e PRODUCTS="$PRODUCTS" \
+        benchmarks/load/catalog.js
+    stop_app
+done
+
+printf '\n%-10s %12s %10s %10s %10s\n' modo 'req/s' 'p50 (ms)' 'p99 (ms)' 'falhas'
+for mode in platform virtual; do
+    jq -r --arg mode "$mode" '[$mode,
+            (.metrics.http_reqs.values.rate | floor),
+            (.metrics.http_req_duration.values["p(50)"] | . * 10 | round / 10),
+            (.metrics.http_req_duration.values["p(99)"] | . * 10 | round / 10),
+            (.metrics.http_req_failed.values.rate * 100 | . * 100 | round / 100 | tostring + "%")] | @tsv' \
+        "$RESULTS/$mode.json" | awk -F'\t' '{ printf "%-10s %12s %10s %10s %10s\n", $1, $2, $3, $4, $5 }'
+done
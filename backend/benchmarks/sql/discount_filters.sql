@@ -0,0 +1,89 @@
+-- Benchmark dos filtros hasDiscount / withCouponApplied com histórico grande de descontos.
+--
+-- Uso (banco descartável, NÃO rodar em produção):
+--   psql -d techchallenge_bench -f benchmarks/sql/discount_filters.sql
+--
+-- Gera 200 mil produtos e 5 milhões de descontos históricos (removed_at preenchido), com ~10% dos produtos
+-- com um desconto ativo, e compara três formas de responder "produtos com desconto ativo, página 1":
+--   A) LEFT JOIN em todos os descontos + DISTINCT (implementação antiga, que também casava descontos removidos)
+--   B) EXISTS/semi-join somente em descontos ativos, atendido pelo índice único parcial uq_product_discounts_active_product
+--   C) predicado na coluna desnormalizada products.active_discount_type (implementação atual, modelo de leitura)
+
+\timing on
+
+DROP TABLE IF EXISTS bench_product_discounts;
+DROP TABLE IF EXISTS bench_products;
+
+CREATE TABLE bench_products (
+    id bigserial PRIMARY KEY,
+    name varchar(100) NOT NULL,
+    price numeric(10, 2) NOT NULL,
+    active_discount_type varchar(10),
+    deleted_at timestamptz
+);
+
+CREATE TABLE bench_product_discounts (
+    id bigserial PRIMARY KEY,
+    product_id bigint NOT NULL REFERENCES bench_products (id),
+    coupon_id bigint,
+    discount_type varchar(10) NOT NULL,
+    discount_value numeric NOT NULL,
+    applied_at timestamptz NOT NULL,
+    removed_at timestamptz
+);
+
+INSERT INTO bench_products (name, price)
+SELECT 'produto ' || g, round((random() * 1000 + 1)::numeric, 2)
+FROM generate_series(1, 200000) g;
+
+INSERT INTO bench_product_discounts (product_id, discount_type, discount_value, applied_at, removed_at)
+SELECT 1 + (random() * 199999)::bigint, 'PERCENT', 10, now() - interval '30 days', now() - interval '1 day'
+FROM generate_series(1, 5000000);
+
+INSERT INTO bench_product_discounts (product_id, discount_type, discount_value, applied_at)
+SELECT id, 'PERCENT', 10, now() FROM bench_products WHERE id % 10 = 0;
+
+UPDATE bench_products SET active_discount_type = 'PERCENT' WHERE id % 10 = 0;
+
+CREATE INDEX ON bench_product_discounts (product_id);
+CREATE INDEX bench_idx_active_discount ON bench_product_discounts (product_id) WHERE removed_at IS NULL;
+CREATE INDEX ON bench_products (active_discount_type) WHERE deleted_at IS NULL AND active_discount_type IS NOT NULL;
+ANALYZE bench_products;
+ANALYZE bench_product_discounts;
+
+-- A) Antigo: LEFT JOIN + DISTINCT (página + contagem)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT DISTINCT p.* FROM bench_products p
+LEFT JOIN bench_product_discounts d ON d.product_id = p.id
+WHERE p.deleted_at IS NULL AND d.id IS NOT NULL
+ORDER BY p.name LIMIT 10;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(DISTINCT p.id) FROM bench_products p
+LEFT JOIN bench_product_discounts d ON d.product_id = p.id
+WHERE p.deleted_at IS NULL AND d.id IS NOT NULL;
+
+-- B) EXISTS somente em descontos ativos (índice parcial)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT p.* FROM bench_products p
+WHERE p.deleted_at IS NULL
+  AND EXISTS (SELECT 1 FROM bench_product_discounts d WHERE d.product_id = p.id AND d.removed_at IS NULL)
+ORDER BY p.name LIMIT 10;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(*) FROM bench_products p
+WHERE p.deleted_at IS NULL
+  AND EXISTS (SELECT 1 FROM bench_product_discounts d WHERE d.product_id = p.id AND d.removed_at IS NULL);
+
+-- C) Atual: coluna desnormalizada do modelo de leitura
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT p.* FROM bench_products p
+WHERE p.deleted_at IS NULL AND p.active_discount_type IS NOT NULL
+ORDER BY p.name LIMIT 10;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(*) FROM bench_products p
+WHERE p.deleted_at IS NULL AND p.active_discount_type IS NOT NULL;
+
+DROP TABLE bench_product_discounts;
+DROP TABLE bench_products;
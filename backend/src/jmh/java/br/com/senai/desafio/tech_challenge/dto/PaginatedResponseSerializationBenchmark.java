@@ -0,0 +1,73 @@
+package br.com.senai.desafio.tech_challenge.dto;
+
+import br.com.senai.desafio.tech_challenge.model.CouponType;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização Jackson de uma página da listagem, com a mesma configuração de ObjectMapper do Spring.
+ * Metade dos produtos tem desconto ativo para exercitar os campos opcionais.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaginatedResponseSerializationBenchmark {
+
+    @Param({"10", "50", "100"})
+    private int pageSize;
+
+    private ObjectWriter writer;
+    private PaginatedResponseDTO<ProductResponseDTO> page;
+
+    @Setup
+    public void setUp() {
+        writer = Jackson2ObjectMapperBuilder.json().build().writer();
+
+        Instant now = Instant.now();
+        List<ProductResponseDTO> products = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            boolean discounted = i % 2 == 0;
+            BigDecimal price = new BigDecimal("100.00").add(BigDecimal.valueOf(i));
+            products.add(ProductResponseDTO.builder()
+                    .id((long) i + 1)
+                    .name("produto " + i)
+                    .description("Descrição do produto " + i)
+                    .stock(i % 7)
+                    .isOutOfStock(i % 7 == 0)
+                    .price(price)
+                    .finalPrice(discounted ? price.subtract(BigDecimal.TEN) : price)
+                    .discount(discounted ? AppliedDiscountDTO.builder()
+                            .type(CouponType.FIXED)
+                            .value(BigDecimal.TEN)
+                            .appliedAt(now)
+                            .build() : null)
+                    .hasCouponApplied(discounted)
+                    .couponCode(discounted ? "PROMO10" : null)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+        }
+        MetaDTO meta = MetaDTO.builder()
+                .page(0)
+                .limit(pageSize)
+                .totalItems(10_000L)
+                .totalPages(10_000 / pageSize)
+                .build();
+        page = new PaginatedResponseDTO<>(products, meta);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return writer.writeValueAsBytes(page);
+    }
+}
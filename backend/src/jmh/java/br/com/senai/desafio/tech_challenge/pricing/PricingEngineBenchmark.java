@@ -0,0 +1,79 @@
+package br.com.senai.desafio.tech_challenge.pricing;
+
+import br.com.senai.desafio.tech_challenge.model.CouponType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Preço final de uma página de produtos: conta em BigDecimal (referência) contra o ponto fixo, item a item
+ * e em lote. Rodando o org.openjdk.jmh.Main com {@code -prof gc}, a métrica gc.alloc.rate.norm mostra os bytes
+ * alocados por operação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingEngineBenchmark {
+
+    @Param({"100", "1000"})
+    private int products;
+
+    private BigDecimal[] prices;
+    private BigDecimal[] values;
+    private long[] priceCents;
+    private long[] valueHundredths;
+    private CouponType[] types;
+    private long[] finalCents;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        prices = new BigDecimal[products];
+        values = new BigDecimal[products];
+        priceCents = new long[products];
+        valueHundredths = new long[products];
+        types = new CouponType[products];
+        finalCents = new long[products];
+        for (int i = 0; i < products; i++) {
+            priceCents[i] = 100 + random.nextInt(500_000);
+            types[i] = i % 2 == 0 ? CouponType.PERCENT : CouponType.FIXED;
+            valueHundredths[i] = types[i] == CouponType.PERCENT ? 100 + random.nextInt(7_900) : random.nextInt((int) priceCents[i]);
+            prices[i] = BigDecimal.valueOf(priceCents[i], 2);
+            values[i] = BigDecimal.valueOf(valueHundredths[i], 2);
+        }
+    }
+
+    @Benchmark
+    public void bigDecimalReference(Blackhole blackhole) {
+        for (int i = 0; i < products; i++) {
+            blackhole.consume(PricingEngine.referenceFinalPrice(prices[i], types[i], values[i]));
+        }
+    }
+
+    // Fachada em BigDecimal (a usada pelo serviço): converte, calcula em long e devolve escala 2.
+    @Benchmark
+    public void fixedPointBigDecimalFacade(Blackhole blackhole) {
+        for (int i = 0; i < products; i++) {
+            blackhole.consume(PricingEngine.finalPrice(prices[i], types[i], values[i]));
+        }
+    }
+
+    @Benchmark
+    public void fixedPointPerItem(Blackhole blackhole) {
+        for (int i = 0; i < products; i++) {
+            blackhole.consume(PricingEngine.finalPriceCents(priceCents[i], types[i], valueHundredths[i]));
+        }
+    }
+
+    @Benchmark
+    public long[] fixedPointBatch() {
+        PricingEngine.finalPricesCents(priceCents, types, valueHundredths, finalCents);
+        return finalCents;
+    }
+}
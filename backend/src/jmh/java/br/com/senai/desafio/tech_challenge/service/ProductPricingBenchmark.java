@@ -0,0 +1,89 @@
+package br.com.senai.desafio.tech_challenge.service;
+
+import br.com.senai.desafio.tech_challenge.dto.ProductResponseDTO;
+import br.com.senai.desafio.tech_challenge.model.CouponType;
+import br.com.senai.desafio.tech_challenge.model.Product;
+import br.com.senai.desafio.tech_challenge.model.ProductDiscount;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminhos quentes da listagem: cálculo do preço final (BigDecimal), mapeamento entidade -> DTO
+ * e normalização de nomes usada na criação, atualização e importação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductPricingBenchmark {
+
+    private BigDecimal price;
+    private ProductDiscount percentDiscount;
+    private ProductDiscount fixedDiscount;
+    private Product discountedProduct;
+    private Product plainProduct;
+    private String rawName;
+
+    @Setup
+    public void setUp() {
+        price = new BigDecimal("1234.56");
+        percentDiscount = ProductDiscount.builder().type(CouponType.PERCENT).value(new BigDecimal("15")).build();
+        fixedDiscount = ProductDiscount.builder().type(CouponType.FIXED).value(new BigDecimal("100.00")).build();
+
+        Instant now = Instant.now();
+        discountedProduct = Product.builder()
+                .id(42L)
+                .name("cadeira gamer")
+                .description("Cadeira ergonômica com apoio lombar")
+                .stock(10)
+                .price(price)
+                .finalPrice(ProductServiceImpl.calculateFinalPrice(price, percentDiscount))
+                .activeDiscountType(CouponType.PERCENT)
+                .activeDiscountValue(percentDiscount.getValue())
+                .activeDiscountAppliedAt(now)
+                .activeCouponCode("PROMO15")
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        plainProduct = Product.builder()
+                .id(43L)
+                .name("mesa de escritório")
+                .stock(0)
+                .price(price)
+                .finalPrice(price)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        rawName = "  Cadeira   Gamer \t Ergonômica  ";
+    }
+
+    @Benchmark
+    public BigDecimal calculateFinalPricePercent() {
+        return ProductServiceImpl.calculateFinalPrice(price, percentDiscount);
+    }
+
+    @Benchmark
+    public BigDecimal calculateFinalPriceFixed() {
+        return ProductServiceImpl.calculateFinalPrice(price, fixedDiscount);
+    }
+
+    @Benchmark
+    public ProductResponseDTO mapDiscountedProduct() {
+        return ProductServiceImpl.mapToProductResponseDTO(discountedProduct);
+    }
+
+    @Benchmark
+    public ProductResponseDTO mapPlainProduct() {
+        return ProductServiceImpl.mapToProductResponseDTO(plainProduct);
+    }
+
+    @Benchmark
+    public String normalizeName() {
+        return ProductServiceImpl.normalizeName(rawName);
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.senai.desafio.tech_challenge.validator;
+
+import br.com.senai.desafio.tech_challenge.dto.CouponRequestDTO;
+import br.com.senai.desafio.tech_challenge.model.CouponType;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo da validação de cupons: o validador de classe isolado (caminho sem violações, em que o
+ * contexto não é usado) e a validação completa do DTO pelo Hibernate Validator, válida e inválida.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CouponRequestValidatorBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private CouponRequestValidator couponRequestValidator;
+    private CouponRequestDTO validRequest;
+    private CouponRequestDTO invalidRequest;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        couponRequestValidator = new CouponRequestValidator();
+
+        Instant now = Instant.now();
+        validRequest = coupon("PROMO15", new BigDecimal("15"), now, now.plus(Duration.ofDays(30)));
+        invalidRequest = coupon("PROMO95", new BigDecimal("95"), now, now.minus(Duration.ofDays(1)));
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public boolean isValidWithoutViolations() {
+        return couponRequestValidator.isValid(validRequest, null);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CouponRequestDTO>> validateValidRequest() {
+        return validator.validate(validRequest);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CouponRequestDTO>> validateInvalidRequest() {
+        return validator.validate(invalidRequest);
+    }
+
+    private static CouponRequestDTO coupon(String code, BigDecimal value, Instant validFrom, Instant validUntil) {
+        CouponRequestDTO dto = new CouponRequestDTO();
+        dto.setCode(code);
+        dto.setType(CouponType.PERCENT);
+        dto.setValue(value);
+        dto.setOneShot(false);
+        dto.setValidFrom(validFrom);
+        dto.setValidUntil(validUntil);
+        return dto;
+    }
+}
@@ -0,0 +1,42 @@
+package br.com.senai.desafio.tech_challenge.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Carga de caches Caffeine na própria thread de quem pediu, fora do {@code ConcurrentHashMap.compute}.
+ * O {@code Cache.get(key, loader)} síncrono executa o loader (uma consulta JDBC) dentro de um bloco
+ * {@code synchronized} do mapa, o que prende a thread portadora quando a requisição roda em virtual thread.
+ * Aqui o compute só registra um future vazio; a consulta roda depois, e chamadas concorrentes para a mesma
+ * chave continuam esperando uma única carga.
+ */
+final class CacheLoads {
+
+    private CacheLoads() {
+    }
+
+    static <K, V> V getOrLoad(AsyncCache<K, V> cache, K key, Function<K, V> loader) {
+        CompletableFuture<V> ownLoad = new CompletableFuture<>();
+        CompletableFuture<V> cached = cache.get(key, (k, executor) -> ownLoad);
+        if (cached == ownLoad) {
+            try {
+                ownLoad.complete(loader.apply(key));
+            } catch (RuntimeException | Error ex) {
+                // Futures com falha são removidos do cache pelo próprio Caffeine.
+                ownLoad.completeExceptionally(ex);
+                throw ex;
+            }
+        }
+        try {
+            return cached.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package br.com.senai.desafio.tech_challenge.cache;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * Mudança de uma entidade do catálogo, propagada entre as réplicas pelo {@link CatalogInvalidationBus}.
+ * {@link Type#CATALOG} representa uma mudança em massa: todo o estado local deve ser descartado.
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class CatalogChange {
+
+    public enum Type { PRODUCT, COUPON, DISCOUNT, CATALOG }
+
+    Type type;
+    String key;
+
+    public static CatalogChange product(Long productId) {
+        return new CatalogChange(Type.PRODUCT, String.valueOf(productId));
+    }
+
+    public static CatalogChange coupon(String normalizedCode) {
+        return new CatalogChange(Type.COUPON, normalizedCode);
+    }
+
+    public static CatalogChange discount(Long productId) {
+        return new CatalogChange(Type.DISCOUNT, String.valueOf(productId));
+    }
+
+    public static CatalogChange catalog() {
+        return new CatalogChange(Type.CATALOG, "*");
+    }
+
+    public Long productId() {
+        return Long.valueOf(key);
+    }
+
+    // Formato compacto do payload do NOTIFY: "P:12", "C:NATAL25", "D:12", "*:*".
+    String encode() {
+        return (type == Type.CATALOG ? "*" : type.name().substring(0, 1)) + ":" + key;
+    }
+
+    static CatalogChange decode(String value) {
+        String[] parts = value.split(":", 2);
+        return switch (parts[0]) {
+            case "P" -> new CatalogChange(Type.PRODUCT, parts[1]);
+            case "C" -> new CatalogChange(Type.COUPON, parts[1]);
+            case "D" -> new CatalogChange(Type.DISCOUNT, parts[1]);
+            default -> catalog();
+        };
+    }
+}
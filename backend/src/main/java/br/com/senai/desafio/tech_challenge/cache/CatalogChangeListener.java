@@ -0,0 +1,16 @@
+package br.com.senai.desafio.tech_challenge.cache;
+
+/**
+ * Estado local (caches, índices) que precisa ser invalidado quando outra réplica altera o catálogo.
+ */
+public interface CatalogChangeListener {
+
+    void onChange(CatalogChange change);
+
+    // Escrita desta réplica, logo após o commit (a linha dela em catalog_changes já está visível).
+    default void onCommitted(CatalogChange change) {
+    }
+
+    // Chamado após reconectar ao canal de notificações: eventos podem ter sido perdidos, então descarta tudo.
+    void onResync();
+}
@@ -0,0 +1,269 @@
+package br.com.senai.desafio.tech_challenge.cache;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Barramento de invalidação entre réplicas via LISTEN/NOTIFY do Postgres.
+ *
+ * <p>As escritas publicam {@link CatalogChange}s depois do commit; os eventos são acumulados e enviados
+ * em lote a cada {@code app.invalidation.flush-interval}, em um único {@code pg_notify} por lote.
+ * Cada réplica mantém uma conexão dedicada, aberta fora do pool do Hikari, escutando o canal e repassa os eventos das demais réplicas
+ * aos {@link CatalogChangeListener}s locais. Ao reconectar, força um resync completo, pois
+ * notificações emitidas durante a queda são perdidas.</p>
+ *
+ * <p>Todo evento publicado também entra no log do {@link CatalogStamp}, dentro da transação da escrita, e depois
+ * do commit é repassado aos {@link CatalogChangeListener#onCommitted} locais.</p>
+ */
+@Slf4j
+@Component
+public class CatalogInvalidationBus {
+
+    // Limite do payload do NOTIFY é 8000 bytes; deixamos folga para o prefixo do nó.
+    private static final int MAX_PAYLOAD_CHARS = 7000;
+    // O canal entra no LISTEN como identificador sem aspas (que o Postgres passa para minúsculas) e no
+    // pg_notify como texto: só minúsculas, dígitos e "_" garantem que os dois apontem para o mesmo canal.
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+
+    private final DataSource dataSource;
+    private final DataSourceProperties dataSourceProperties;
+    private final CatalogStamp catalogStamp;
+    private final List<CatalogChangeListener> listeners;
+    private final boolean enabled;
+    private final String channel;
+    private final Duration flushInterval;
+    private final Duration reconnectBackoff;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    // Eventos codificados, na ordem de chegada (o mesmo evento repetido no intervalo vai uma vez só).
+    private final Set<String> pending = new LinkedHashSet<>();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(
+            runnable -> daemon(runnable, "catalog-invalidation-flusher"));
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public CatalogInvalidationBus(
+            DataSource dataSource,
+            DataSourceProperties dataSourceProperties,
+            CatalogStamp catalogStamp,
+            List<CatalogChangeListener> listeners,
+            @Value("${app.invalidation.enabled:true}") boolean enabled,
+            @Value("${app.invalidation.channel:catalog_invalidation}") String channel,
+            @Value("${app.invalidation.flush-interval:PT0.05S}") Duration flushInterval,
+            @Value("${app.invalidation.reconnect-backoff:PT2S}") Duration reconnectBackoff) {
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("app.invalidation.channel deve ser um identificador simples (minúsculas, dígitos e '_'): " + channel);
+        }
+        this.dataSource = dataSource;
+        this.dataSourceProperties = dataSourceProperties;
+        this.catalogStamp = catalogStamp;
+        this.listeners = listeners;
+        this.enabled = enabled;
+        this.channel = channel;
+        this.flushInterval = flushInterval;
+        this.reconnectBackoff = reconnectBackoff;
+    }
+
+    // A versão do catálogo (ETag da listagem) avança no mesmo commit da escrita, mesmo sem o barramento ativo:
+    // quem recarregar a listagem logo depois de salvar nunca recebe um 304 com dados antigos. A linha do log é
+    // inserida na transação corrente (sem ela, com commit próprio) e não disputa lock com as demais escritas.
+    public void publish(CatalogChange change) {
+        catalogStamp.record(change);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    committed(change);
+                }
+            });
+        } else {
+            committed(change);
+        }
+    }
+
+    private void committed(CatalogChange change) {
+        for (CatalogChangeListener listener : listeners) {
+            try {
+                listener.onCommitted(change);
+            } catch (RuntimeException ex) {
+                log.warn("Falha ao aplicar a escrita local {} em {}", change, listener.getClass().getSimpleName(), ex);
+            }
+        }
+        if (enabled) {
+            enqueue(change);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        listenerThread = daemon(this::listen, "catalog-invalidation-listener");
+        listenerThread.start();
+        long intervalMillis = flushInterval.toMillis();
+        flusher.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        flush();
+        flusher.shutdownNow();
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    private void enqueue(CatalogChange change) {
+        synchronized (pending) {
+            pending.add(change.encode());
+        }
+    }
+
+    void flush() {
+        List<String> batch;
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            // Um evento de catálogo inteiro torna os demais redundantes: quem o recebe recarrega tudo.
+            batch = pending.contains(CatalogChange.catalog().encode())
+                    ? List.of(CatalogChange.catalog().encode())
+                    : new ArrayList<>(pending);
+            pending.clear();
+        }
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            for (String payload : chunk(batch)) {
+                statement.setString(1, channel);
+                statement.setString(2, nodeId + "|" + payload);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        } catch (SQLException ex) {
+            // As demais réplicas só vão convergir no TTL dos caches ou no próximo resync.
+            log.warn("Falha ao publicar {} invalidações do catálogo", batch.size(), ex);
+        }
+    }
+
+    private List<String> chunk(List<String> batch) {
+        List<String> payloads = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String event : batch) {
+            if (current.length() > 0 && current.length() + event.length() + 1 > MAX_PAYLOAD_CHARS) {
+                payloads.add(current.toString());
+                current.setLength(0);
+            }
+            if (current.length() > 0) {
+                current.append(',');
+            }
+            current.append(event);
+        }
+        payloads.add(current.toString());
+        return payloads;
+    }
+
+    private void listen() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = openListenConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                if (reconnecting) {
+                    log.info("Canal de invalidação '{}' reconectado; descartando o estado local", channel);
+                    listeners.forEach(this::resync);
+                    reconnecting = false;
+                }
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) reconnectBackoff.toMillis());
+                    if (notifications != null) {
+                        Arrays.stream(notifications).forEach(this::dispatch);
+                    }
+                }
+            } catch (SQLException ex) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Conexão do canal de invalidação '{}' perdida; tentando novamente", channel, ex);
+                reconnecting = true;
+                sleep(reconnectBackoff);
+            }
+        }
+    }
+
+    // Conexão própria, direto no driver: fica aberta enquanto a aplicação roda e não deve ocupar uma vaga do pool.
+    // Usa a URL do primário, onde os NOTIFY são emitidos.
+    private Connection openListenConnection() throws SQLException {
+        return DriverManager.getConnection(
+                dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(),
+                dataSourceProperties.determinePassword());
+    }
+
+    private void dispatch(PGNotification notification) {
+        String[] parts = notification.getParameter().split("\\|", 2);
+        if (parts.length != 2 || nodeId.equals(parts[0])) {
+            return; // eventos desta réplica já foram aplicados localmente
+        }
+        for (String event : parts[1].split(",")) {
+            CatalogChange change = CatalogChange.decode(event);
+            for (CatalogChangeListener listener : listeners) {
+                try {
+                    listener.onChange(change);
+                } catch (RuntimeException ex) {
+                    log.warn("Falha ao aplicar invalidação {} em {}", change, listener.getClass().getSimpleName(), ex);
+                }
+            }
+        }
+    }
+
+    private void resync(CatalogChangeListener listener) {
+        try {
+            listener.onResync();
+        } catch (RuntimeException ex) {
+            log.warn("Falha no resync de {}", listener.getClass().getSimpleName(), ex);
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -0,0 +1,396 @@
+package br.com.senai.desafio.tech_challenge.cache;
+
+import br.com.senai.desafio.tech_challenge.dto.CountMode;
+import br.com.senai.desafio.tech_challenge.dto.MetaDTO;
+import br.com.senai.desafio.tech_challenge.dto.PaginatedResponseDTO;
+import br.com.senai.desafio.tech_challenge.dto.ProductResponseDTO;
+import br.com.senai.desafio.tech_challenge.search.SearchQuery;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.StringUtils;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * Foto imutável dos produtos ativos em arrays colunares, indexados pela posição da linha (linhas em ordem de id).
+ * Preços em centavos ({@code long}), flags em {@link BitSet} e índices pré-ordenados por nome, preço e preço final.
+ *
+ * <p>Nunca é alterada depois de criada: {@link #with} e {@link #without} devolvem uma nova foto (copy-on-write),
+ * então quem está lendo a anterior não precisa de lock. Os {@link ProductResponseDTO}s guardados são compartilhados
+ * entre as requisições e tratados como somente leitura.</p>
+ */
+public final class CatalogSnapshot {
+
+    private static final String RELEVANCE_SORT = "relevance";
+    private static final Set<String> TEXT_SORTS = Set.of("name", "description");
+
+    // Mesma semântica de ordenação do Postgres: nulos por último no ASC e primeiro no DESC (via reversed()).
+    // Textos comparam por code point (String.compareTo), a ordem da collation C e da imagem Alpine do Postgres
+    // (musl ignora o locale); com uma collation linguística ("á" junto de "a") o CatalogSnapshotStore deixa
+    // essas ordenações com o banco, ver ordersByText.
+    private static final Map<String, Comparator<ProductResponseDTO>> COMPARATORS = Map.of(
+            "id", Comparator.comparing(ProductResponseDTO::getId),
+            "name", Comparator.comparing(ProductResponseDTO::getName),
+            "description", nullsLast(ProductResponseDTO::getDescription),
+            "stock", Comparator.comparing(ProductResponseDTO::getStock),
+            "price", Comparator.comparing(ProductResponseDTO::getPrice),
+            "finalPrice", Comparator.comparing(ProductResponseDTO::getFinalPrice),
+            "createdAt", nullsLast(ProductResponseDTO::getCreatedAt),
+            "updatedAt", nullsLast(ProductResponseDTO::getUpdatedAt));
+
+    public static final CatalogSnapshot EMPTY = of(List.of());
+
+    private final int size;
+    private final long[] ids;
+    private final long[] priceCents;
+    private final long[] finalPriceCents;
+    private final String[] names;
+    private final String[] descriptions;
+    private final String[][] tokens;
+    private final BitSet outOfStock;
+    private final BitSet withDiscount;
+    private final BitSet withCoupon;
+    private final int[] byName;
+    private final int[] byPrice;
+    private final int[] byFinalPrice;
+    private final ProductResponseDTO[] products;
+
+    // Foto completa: deriva as colunas de todas as linhas e ordena os índices.
+    private CatalogSnapshot(ProductResponseDTO[] products) {
+        this.products = products;
+        this.size = products.length;
+        this.ids = new long[size];
+        this.priceCents = new long[size];
+        this.finalPriceCents = new long[size];
+        this.names = new String[size];
+        this.descriptions = new String[size];
+        this.tokens = new String[size][];
+        this.outOfStock = new BitSet(size);
+        this.withDiscount = new BitSet(size);
+        this.withCoupon = new BitSet(size);
+        for (int row = 0; row < size; row++) {
+            describe(row);
+        }
+        this.byName = sortedRows(nameOrder());
+        this.byPrice = sortedRows(priceOrder());
+        this.byFinalPrice = sortedRows(finalPriceOrder());
+    }
+
+    /**
+     * Foto derivada de {@code source} com a linha {@code row} inserida ({@code delta} 1), substituída (0) ou
+     * removida (-1). As colunas são copiadas deslocando as linhas seguintes, e só a linha nova é derivada (as
+     * demais mantêm os tokens já calculados); nos índices a entrada antiga sai, as linhas deslocadas são
+     * renumeradas e a nova entra pela busca binária, sem reordenar.
+     */
+    private CatalogSnapshot(CatalogSnapshot source, int row, int delta, ProductResponseDTO product) {
+        this.size = source.size + delta;
+        this.products = spliced(source.products, source.size, row, delta);
+        this.ids = spliced(source.ids, source.size, row, delta);
+        this.priceCents = spliced(source.priceCents, source.size, row, delta);
+        this.finalPriceCents = spliced(source.finalPriceCents, source.size, row, delta);
+        this.names = spliced(source.names, source.size, row, delta);
+        this.descriptions = spliced(source.descriptions, source.size, row, delta);
+        this.tokens = spliced(source.tokens, source.size, row, delta);
+        this.outOfStock = spliced(source.outOfStock, row, delta);
+        this.withDiscount = spliced(source.withDiscount, row, delta);
+        this.withCoupon = spliced(source.withCoupon, row, delta);
+        if (delta >= 0) {
+            products[row] = product;
+            describe(row);
+        }
+        this.byName = splicedIndex(source.byName, row, delta, nameOrder());
+        this.byPrice = splicedIndex(source.byPrice, row, delta, priceOrder());
+        this.byFinalPrice = splicedIndex(source.byFinalPrice, row, delta, finalPriceOrder());
+    }
+
+    public static CatalogSnapshot of(Collection<ProductResponseDTO> products) {
+        ProductResponseDTO[] rows = products.toArray(ProductResponseDTO[]::new);
+        Arrays.sort(rows, Comparator.comparing(ProductResponseDTO::getId));
+        return new CatalogSnapshot(rows);
+    }
+
+    // Nova foto com o produto incluído ou substituído.
+    public CatalogSnapshot with(ProductResponseDTO product) {
+        int row = Arrays.binarySearch(ids, product.getId());
+        return row >= 0
+                ? new CatalogSnapshot(this, row, 0, product)
+                : new CatalogSnapshot(this, -row - 1, 1, product);
+    }
+
+    // Nova foto sem o produto (ou a própria foto, se ele não estava nela).
+    public CatalogSnapshot without(long productId) {
+        int row = Arrays.binarySearch(ids, productId);
+        return row >= 0 ? new CatalogSnapshot(this, row, -1, null) : this;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // A ordenação só por relevância com termos de busca depende do ranking do motor de busca: essa fica no banco.
+    public static boolean supports(Sort sort, String search) {
+        boolean onlyRelevance = sort.getOrderFor(RELEVANCE_SORT) != null
+                && sort.stream().allMatch(order -> RELEVANCE_SORT.equals(order.getProperty()));
+        return !onlyRelevance || SearchQuery.tokenize(search).isEmpty();
+    }
+
+    // Ordenações que dependem da collation do banco: nome e descrição, inclusive "relevance" sem termos.
+    public static boolean ordersByText(Sort sort) {
+        return effectiveSort(sort).stream().anyMatch(order -> TEXT_SORTS.contains(order.getProperty()));
+    }
+
+    /**
+     * Mesmo contrato de {@code ProductService.listProducts}. Os totais são sempre exatos: contar na foto custa
+     * o mesmo que filtrar, então {@code estimate} devolve o número exato.
+     */
+    public PaginatedResponseDTO<ProductResponseDTO> listProducts(
+            Pageable pageable, CountMode countMode, String search, BigDecimal minPrice, BigDecimal maxPrice,
+            Boolean hasDiscount, Boolean onlyOutOfStock, Boolean withCouponApplied) {
+
+        Sort sort = effectiveSort(pageable.getSort());
+        Comparator<Integer> comparator = comparator(sort.toList());
+        BitSet matches = filter(search, minPrice, maxPrice, hasDiscount, onlyOutOfStock, withCouponApplied);
+        long total = matches.cardinality();
+        long offset = pageable.getOffset();
+        int pageSize = pageable.getPageSize();
+
+        List<ProductResponseDTO> content = new ArrayList<>((int) Math.max(0, Math.min(pageSize, total - offset)));
+        if (offset < total) {
+            collectPage(sort, comparator, matches, offset, pageSize, content);
+        }
+
+        int totalPages = (int) Math.ceil((double) total / pageSize);
+        MetaDTO.MetaDTOBuilder meta = MetaDTO.builder()
+                .countMode(countMode)
+                .page(pageable.getPageNumber())
+                .limit(pageSize)
+                .hasNext(offset + pageSize < total);
+        if (countMode != CountMode.NONE) {
+            meta.totalItems(total).totalPages(totalPages);
+        }
+        return new PaginatedResponseDTO<>(content, meta.build());
+    }
+
+    private BitSet filter(String search, BigDecimal minPrice, BigDecimal maxPrice,
+                          Boolean hasDiscount, Boolean onlyOutOfStock, Boolean withCouponApplied) {
+        BitSet matches = new BitSet(size);
+        matches.set(0, size);
+        if (hasDiscount != null) {
+            applyFlag(matches, withDiscount, hasDiscount);
+        }
+        if (Boolean.TRUE.equals(onlyOutOfStock)) {
+            matches.and(outOfStock);
+        }
+        if (withCouponApplied != null) {
+            applyFlag(matches, withCoupon, withCouponApplied);
+        }
+
+        // Preço final em centavos: >= mínimo arredondado para cima, <= máximo arredondado para baixo.
+        long min = minPrice != null ? toCents(minPrice, RoundingMode.CEILING) : Long.MIN_VALUE;
+        long max = maxPrice != null ? toCents(maxPrice, RoundingMode.FLOOR) : Long.MAX_VALUE;
+        IntPredicate text = textMatcher(search);
+        for (int row = matches.nextSetBit(0); row >= 0; row = matches.nextSetBit(row + 1)) {
+            if (finalPriceCents[row] < min || finalPriceCents[row] > max || !text.test(row)) {
+                matches.clear(row);
+            }
+        }
+        return matches;
+    }
+
+    private static void applyFlag(BitSet matches, BitSet flag, boolean expected) {
+        if (expected) {
+            matches.and(flag);
+        } else {
+            matches.andNot(flag);
+        }
+    }
+
+    // Semântica de PostgresProductSearchEngine.matching: substring em nome/descrição ou todos os termos como prefixo.
+    private IntPredicate textMatcher(String search) {
+        if (!StringUtils.hasText(search)) {
+            return row -> true;
+        }
+        String substring = search.toLowerCase();
+        List<String> terms = SearchQuery.tokenize(search);
+        return row -> names[row].contains(substring)
+                || descriptions[row].contains(substring)
+                || (!terms.isEmpty() && terms.stream().allMatch(term -> hasTokenWithPrefix(tokens[row], term)));
+    }
+
+    private static boolean hasTokenWithPrefix(String[] rowTokens, String prefix) {
+        for (String token : rowTokens) {
+            if (token.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Mesma regra de ProductServiceImpl.listProducts: sem outra ordenação, "relevance" sem termos vira "name".
+    private static Sort effectiveSort(Sort sort) {
+        if (sort.getOrderFor(RELEVANCE_SORT) == null) {
+            return sort;
+        }
+        Sort remaining = Sort.by(sort.filter(order -> !RELEVANCE_SORT.equals(order.getProperty())).toList());
+        return remaining.isUnsorted() ? Sort.by("name") : remaining;
+    }
+
+    // Ordenação simples por nome, preço, preço final ou id percorre o índice pronto (de trás para frente no DESC),
+    // parando ao completar a página; as demais ordenam só as linhas filtradas.
+    private void collectPage(Sort sort, Comparator<Integer> comparator, BitSet matches, long offset, int pageSize, List<ProductResponseDTO> content) {
+        List<Sort.Order> orders = sort.toList();
+        Sort.Order single = orders.size() == 1 ? orders.get(0) : null;
+        int[] index = single == null ? null : switch (single.getProperty()) {
+            case "name" -> byName;
+            case "price" -> byPrice;
+            case "finalPrice" -> byFinalPrice;
+            default -> null;
+        };
+
+        if (orders.isEmpty() || (single != null && single.getProperty().equals("id") && single.isAscending())) {
+            long skipped = 0;
+            for (int row = matches.nextSetBit(0); row >= 0 && content.size() < pageSize; row = matches.nextSetBit(row + 1)) {
+                if (skipped++ >= offset) {
+                    content.add(products[row]);
+                }
+            }
+        } else if (index != null) {
+            long skipped = 0;
+            for (int i = 0; i < size && content.size() < pageSize; i++) {
+                int row = single.isAscending() ? index[i] : index[size - 1 - i];
+                if (matches.get(row) && skipped++ >= offset) {
+                    content.add(products[row]);
+                }
+            }
+        } else {
+            matches.stream()
+                    .boxed()
+                    .sorted(comparator)
+                    .skip(offset)
+                    .limit(pageSize)
+                    .forEach(row -> content.add(products[row]));
+        }
+    }
+
+    // Também valida as propriedades: uma desconhecida falha mesmo que a página fique vazia, como na consulta ao banco.
+    private Comparator<Integer> comparator(List<Sort.Order> orders) {
+        Comparator<ProductResponseDTO> comparator = (a, b) -> 0;
+        for (Sort.Order order : orders) {
+            Comparator<ProductResponseDTO> next = COMPARATORS.get(order.getProperty());
+            if (next == null) {
+                throw new IllegalArgumentException("Propriedade de ordenação desconhecida: " + order.getProperty());
+            }
+            next = order.isAscending() ? next : next.reversed();
+            comparator = comparator.thenComparing(next);
+        }
+        Comparator<ProductResponseDTO> byProduct = comparator.thenComparing(ProductResponseDTO::getId);
+        return (a, b) -> byProduct.compare(products[a], products[b]);
+    }
+
+    // Colunas derivadas da linha (products[row] já preenchido).
+    private void describe(int row) {
+        ProductResponseDTO product = products[row];
+        ids[row] = product.getId();
+        priceCents[row] = toCents(product.getPrice());
+        finalPriceCents[row] = toCents(product.getFinalPrice());
+        names[row] = product.getName().toLowerCase();
+        descriptions[row] = product.getDescription() != null ? product.getDescription().toLowerCase() : "";
+        tokens[row] = SearchQuery.tokenize(product.getName() + " " + Objects.toString(product.getDescription(), ""))
+                .toArray(String[]::new);
+        outOfStock.set(row, product.getStock() == 0);
+        withDiscount.set(row, product.getDiscount() != null);
+        withCoupon.set(row, product.getCouponCode() != null);
+    }
+
+    // Empates desfeitos pela posição da linha (a ordem de id), para a ordem ser estável entre fotos.
+    private Comparator<Integer> nameOrder() {
+        return (a, b) -> {
+            int byKey = products[a].getName().compareTo(products[b].getName());
+            return byKey != 0 ? byKey : Integer.compare(a, b);
+        };
+    }
+
+    private Comparator<Integer> priceOrder() {
+        return (a, b) -> priceCents[a] != priceCents[b] ? Long.compare(priceCents[a], priceCents[b]) : Integer.compare(a, b);
+    }
+
+    private Comparator<Integer> finalPriceOrder() {
+        return (a, b) -> finalPriceCents[a] != finalPriceCents[b] ? Long.compare(finalPriceCents[a], finalPriceCents[b]) : Integer.compare(a, b);
+    }
+
+    private int[] sortedRows(Comparator<Integer> comparator) {
+        return IntStream.range(0, size).boxed().sorted(comparator).mapToInt(Integer::intValue).toArray();
+    }
+
+    // Cópia de uma coluna (array de qualquer tipo) com a posição row aberta (delta 1), mantida (0) ou removida (-1).
+    @SuppressWarnings("unchecked")
+    private static <A> A spliced(A column, int size, int row, int delta) {
+        A copy = (A) Array.newInstance(column.getClass().getComponentType(), size + delta);
+        System.arraycopy(column, 0, copy, 0, row);
+        int from = delta < 0 ? row + 1 : row;
+        System.arraycopy(column, from, copy, row + Math.max(delta, 0), size - from);
+        return copy;
+    }
+
+    private static BitSet spliced(BitSet column, int row, int delta) {
+        BitSet copy = column.get(0, row);
+        for (int bit = column.nextSetBit(delta < 0 ? row + 1 : row); bit >= 0; bit = column.nextSetBit(bit + 1)) {
+            copy.set(bit + delta);
+        }
+        return copy;
+    }
+
+    // Índice sem a entrada antiga de row (substituída ou removida), com as linhas deslocadas renumeradas e, se a
+    // linha continua na foto, com ela inserida na posição dada pela busca binária (comparator já sobre a foto nova).
+    private static int[] splicedIndex(int[] index, int row, int delta, Comparator<Integer> comparator) {
+        int[] copy = new int[index.length + delta];
+        int kept = 0;
+        for (int entry : index) {
+            if (entry == row && delta <= 0) {
+                continue;
+            }
+            copy[kept++] = entry > row || (entry == row && delta > 0) ? entry + delta : entry;
+        }
+        if (delta >= 0) {
+            int low = 0;
+            int high = kept;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (comparator.compare(copy[middle], row) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            System.arraycopy(copy, low, copy, low + 1, kept - low);
+            copy[low] = row;
+        }
+        return copy;
+    }
+
+    private static <T extends Comparable<? super T>> Comparator<ProductResponseDTO> nullsLast(Function<ProductResponseDTO, T> key) {
+        return Comparator.comparing(key, Comparator.nullsLast(Comparator.naturalOrder()));
+    }
+
+    private static long toCents(BigDecimal value) {
+        return toCents(value, RoundingMode.HALF_UP);
+    }
+
+    // Limites fora da faixa de long viram o extremo correspondente (não casam ou casam com tudo).
+    private static long toCents(BigDecimal value, RoundingMode rounding) {
+        BigDecimal cents = value.movePointRight(2).setScale(0, rounding);
+        if (cents.compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) > 0) {
+            return Long.MAX_VALUE;
+        }
+        if (cents.compareTo(BigDecimal.valueOf(Long.MIN_VALUE)) < 0) {
+            return Long.MIN_VALUE;
+        }
+        return cents.longValue();
+    }
+}
@@ -0,0 +1,214 @@
+package br.com.senai.desafio.tech_challenge.cache;
+
+import br.com.senai.desafio.tech_challenge.model.Product;
+import br.com.senai.desafio.tech_challenge.repository.ProductRepository;
+import br.com.senai.desafio.tech_challenge.service.ProductServiceImpl;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Guarda a {@link CatalogSnapshot} corrente ({@code app.catalog.snapshot.enabled}). Leitores só fazem um
+ * {@code get()}; escritores (serializados entre si) montam uma foto nova e trocam a referência atomicamente.
+ *
+ * <p>A foto sabe a que versão do catálogo ({@link CatalogStamp}) corresponde. Cada escrita, local ou avisada pelo
+ * {@link CatalogInvalidationBus}, pede uma atualização em segundo plano: ela lê o log de alterações e recarrega só
+ * os produtos das linhas que a foto ainda não viu. Se faltar alguma linha (já compactada) ou houver uma mudança em
+ * massa ({@link CatalogChange.Type#CATALOG}), recarrega tudo. A listagem usa a foto apenas se ela cobre a versão
+ * vista pela requisição; senão vai ao banco e pede uma atualização, então um evento perdido no barramento não trava
+ * a foto. Log e dados são sempre lidos do primário, nunca de uma réplica de leitura atrasada.</p>
+ */
+@Slf4j
+@Component
+public class CatalogSnapshotStore implements CatalogChangeListener {
+
+    private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final CatalogStamp catalogStamp;
+    private final TransactionTemplate primaryRead;
+    private final boolean enabled;
+    private final AtomicReference<CatalogSnapshot> current = new AtomicReference<>(CatalogSnapshot.EMPTY);
+    // ReentrantLock e não synchronized: os escritores fazem JDBC e podem rodar em virtual threads.
+    private final ReentrantLock writeLock = new ReentrantLock();
+    // Versão do catálogo coberta pela foto; -1 enquanto a primeira carga não terminou.
+    private volatile long version = -1;
+    // IDs das linhas do log (ainda não compactadas) já refletidas na foto.
+    private Set<Long> seen = Set.of();
+    // Uma thread só, com no máximo uma atualização na fila: rajadas de escrita viram uma leitura do log.
+    private final ExecutorService refresher;
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
+    // O banco ordena texto por code point, como CatalogSnapshot; conferido a cada carga.
+    private volatile boolean codePointCollation;
+
+    public CatalogSnapshotStore(
+            ProductRepository productRepository,
+            JdbcTemplate jdbcTemplate,
+            CatalogStamp catalogStamp,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.catalog.snapshot.enabled:false}") boolean enabled) {
+        this.productRepository = productRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.catalogStamp = catalogStamp;
+        // Sem readOnly: com réplicas de leitura ativas, a transação fica no primário.
+        this.primaryRead = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.refresher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-snapshot-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Foto que já reflete todas as escritas até {@code stamp}, a versão que quem chama já leu na própria transação
+     * (a mesma do ETag da listagem). Vazio antes da primeira carga ou enquanto a foto está atrás dessa versão.
+     */
+    public Optional<CatalogSnapshot> caughtUp(long stamp) {
+        long covered = version;
+        if (covered < 0) {
+            return Optional.empty();
+        }
+        // Depois da versão: a foto lida aqui é no mínimo tão nova quanto ela.
+        CatalogSnapshot snapshot = current.get();
+        if (stamp <= covered) {
+            return Optional.of(snapshot);
+        }
+        requestRefresh();
+        return Optional.empty();
+    }
+
+    /**
+     * Se a foto (ativa) consegue responder essa ordenação com o mesmo resultado do banco: além de
+     * {@link CatalogSnapshot#supports}, nome e descrição só quando a collation do banco também é por code point.
+     */
+    public boolean supports(Sort sort, String search) {
+        return enabled && CatalogSnapshot.supports(sort, search) && (codePointCollation || !CatalogSnapshot.ordersByText(sort));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            primaryRead.executeWithoutResult(status -> load(catalogStamp.log()));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void onCommitted(CatalogChange change) {
+        requestRefresh();
+    }
+
+    @Override
+    public void onChange(CatalogChange change) {
+        requestRefresh();
+    }
+
+    @Override
+    public void onResync() {
+        rebuild();
+    }
+
+    @PreDestroy
+    public void stop() {
+        refresher.shutdownNow();
+    }
+
+    // Aplica as linhas do log que a foto ainda não viu.
+    void refresh() {
+        writeLock.lock();
+        try {
+            if (version < 0) {
+                return; // a primeira carga ainda vai ler o estado atual
+            }
+            primaryRead.executeWithoutResult(status -> {
+                CatalogStamp.Log changeLog = catalogStamp.log();
+                List<CatalogChange> unseen = changeLog.changes().entrySet().stream()
+                        .filter(entry -> !seen.contains(entry.getKey()))
+                        .map(Map.Entry::getValue)
+                        .toList();
+                // Versão além das linhas novas: a compactação apagou alguma que a foto não chegou a ver.
+                if (changeLog.version() != version + unseen.size()
+                        || unseen.stream().anyMatch(change -> change.getType() == CatalogChange.Type.CATALOG)) {
+                    load(changeLog);
+                    return;
+                }
+                Set<Long> productIds = unseen.stream()
+                        .filter(change -> change.getType() == CatalogChange.Type.PRODUCT
+                                || change.getType() == CatalogChange.Type.DISCOUNT)
+                        .map(CatalogChange::productId)
+                        .collect(Collectors.toSet());
+                // O modelo de leitura já traz o desconto resolvido; ausente significa excluído.
+                Map<Long, Product> found = productRepository.findAllById(productIds).stream()
+                        .collect(Collectors.toMap(Product::getId, Function.identity()));
+                CatalogSnapshot snapshot = current.get();
+                for (Long productId : productIds) {
+                    Product product = found.get(productId);
+                    snapshot = product != null
+                            ? snapshot.with(ProductServiceImpl.mapToProductResponseDTO(product))
+                            : snapshot.without(productId);
+                }
+                publish(snapshot, changeLog);
+            });
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // O log é lido antes dos dados: as escritas contadas na versão já estavam commitadas.
+    private void load(CatalogStamp.Log changeLog) {
+        CatalogSnapshot snapshot = CatalogSnapshot.of(productRepository.findAll().stream()
+                .map(ProductServiceImpl::mapToProductResponseDTO)
+                .toList());
+        // Em code point "B" < "a" e "b" < "á"; collations linguísticas invertem as duas comparações.
+        codePointCollation = Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT 'B' < 'a' AND 'b' < 'á'", Boolean.class));
+        publish(snapshot, changeLog);
+        log.info("Catálogo em memória carregado com {} produtos (versão {}, ordenação de texto {})",
+                snapshot.size(), changeLog.version(), codePointCollation ? "em memória" : "no banco");
+    }
+
+    // A foto antes da versão: quem lê a versão nova encontra uma foto pelo menos tão nova quanto ela.
+    private void publish(CatalogSnapshot snapshot, CatalogStamp.Log changeLog) {
+        current.set(snapshot);
+        seen = Set.copyOf(changeLog.changes().keySet());
+        version = changeLog.version();
+    }
+
+    private void requestRefresh() {
+        if (!enabled || version < 0 || !refreshPending.compareAndSet(false, true)) {
+            return;
+        }
+        refresher.execute(() -> {
+            // Antes de ler o log: uma escrita commitada durante a atualização agenda a próxima.
+            refreshPending.set(false);
+            try {
+                refresh();
+            } catch (RuntimeException ex) {
+                log.warn("Falha ao atualizar o catálogo em memória", ex);
+            }
+        });
+    }
+}
@@ -0,0 +1,130 @@
+package br.com.senai.desafio.tech_challenge.cache;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
+
+/**
+ * Versão do catálogo, usada no ETag da listagem e pela {@link CatalogSnapshotStore}. Cada escrita insere a sua
+ * linha em {@code catalog_changes}, na própria transação e sem lock compartilhado com as demais; a versão é a base
+ * em {@code catalog_stamp} mais a quantidade de linhas visíveis. Cada commit acrescenta as suas linhas de uma vez,
+ * então a versão cresce na ordem em que os commits ficam visíveis, no primário e nas réplicas: lida na mesma
+ * transação da listagem, ela nunca fica à frente nem atrás do conteúdo daquela conexão.
+ *
+ * <p>Para a contagem continuar barata, uma compactação periódica apaga as linhas mais antigas que
+ * {@code app.catalog.changes.retention} e soma a quantidade à base na mesma instrução.</p>
+ */
+@Slf4j
+@Component
+public class CatalogStamp {
+
+    // Também usada pela pilha reativa.
+    public static final String VERSION_SQL =
+            "SELECT s.value + (SELECT count(*) FROM catalog_changes) FROM catalog_stamp s WHERE s.id = 1";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readTransaction;
+    private final Duration retention;
+    private final Duration compactInterval;
+    private ScheduledExecutorService compactor;
+
+    public CatalogStamp(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.catalog.changes.retention:PT10S}") Duration retention,
+            @Value("${app.catalog.changes.compact-interval:PT5S}") Duration compactInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.retention = retention;
+        this.compactInterval = compactInterval;
+    }
+
+    public long current() {
+        return jdbcTemplate.queryForObject(VERSION_SQL, Long.class);
+    }
+
+    // Lê a versão e executa a leitura na mesma transação somente leitura: mesma conexão e, com réplicas, mesma réplica.
+    public <T> T readConsistently(LongFunction<T> read) {
+        return readTransaction.execute(status -> read.apply(current()));
+    }
+
+    // Participa da transação corrente (sem ela, commit próprio): a linha só fica visível junto com a escrita.
+    public void record(CatalogChange change) {
+        jdbcTemplate.update("INSERT INTO catalog_changes (change) VALUES (?)", change.encode());
+    }
+
+    // Base e linhas ainda não compactadas, lidas numa única instrução (mesmo snapshot do banco).
+    public Log log() {
+        long[] base = {0};
+        Map<Long, CatalogChange> changes = new HashMap<>();
+        jdbcTemplate.query("SELECT s.value, c.id, c.change FROM catalog_stamp s LEFT JOIN catalog_changes c ON true WHERE s.id = 1",
+                rs -> {
+                    base[0] = rs.getLong(1);
+                    long id = rs.getLong(2);
+                    if (!rs.wasNull()) {
+                        changes.put(id, CatalogChange.decode(rs.getString(3)));
+                    }
+                });
+        return new Log(base[0], changes);
+    }
+
+    // Só a compactação (não as escritas) pega o lock da linha da base; instâncias compactando ao mesmo tempo se
+    // serializam nele, e cada linha apagada é somada uma única vez.
+    public void compact() {
+        jdbcTemplate.update("""
+                WITH gone AS (
+                    DELETE FROM catalog_changes WHERE changed_at < clock_timestamp() - make_interval(secs => ?) RETURNING 1
+                )
+                UPDATE catalog_stamp SET value = value + (SELECT count(*) FROM gone) WHERE id = 1 AND EXISTS (SELECT 1 FROM gone)
+                """, retention.toMillis() / 1000.0);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startCompaction() {
+        compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-changes-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = compactInterval.toMillis();
+        compactor.scheduleWithFixedDelay(() -> {
+            try {
+                compact();
+            } catch (RuntimeException ex) {
+                log.warn("Falha ao compactar o log de alterações do catálogo", ex);
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stopCompaction() {
+        if (compactor != null) {
+            compactor.shutdownNow();
+        }
+    }
+
+    /**
+     * Estado do log num instante: a versão é a base mais as linhas (ID da linha -> alteração) ainda não compactadas.
+     */
+    public record Log(long base, Map<Long, CatalogChange> changes) {
+
+        public long version() {
+            return base + changes.size();
+        }
+    }
+}
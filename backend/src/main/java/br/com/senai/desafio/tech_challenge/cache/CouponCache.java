@@ -0,0 +1,115 @@
+package br.com.senai.desafio.tech_challenge.cache;
+
+import br.com.senai.desafio.tech_challenge.model.Coupon;
+import br.com.senai.desafio.tech_challenge.repository.CouponRepository;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Cache local de cupons ativos, indexado pelo código normalizado. Limitado por tamanho e TTL;
+ * códigos inexistentes também são guardados (por um TTL curto) para que tentativas de adivinhar
+ * códigos não cheguem ao banco. As instâncias cacheadas são destacadas e não devem ser alteradas:
+ * escritas sempre recarregam o cupom pelo repositório e depois invalidam a entrada. Resgates não invalidam
+ * (o cupom mais usado seria o que menos fica no cache): o {@code redemptionCount} guardado pode estar
+ * defasado, e quem precisa dele o lê do repositório (ver {@code CouponServiceImpl.getCouponByCode}).
+ */
+@Component
+public class CouponCache implements CatalogChangeListener, MeterBinder {
+
+    private final CouponRepository couponRepository;
+    private final AsyncCache<String, Optional<Coupon>> cache;
+
+    public CouponCache(
+            CouponRepository couponRepository,
+            @Value("${app.cache.coupons.maximum-size:10000}") long maximumSize,
+            @Value("${app.cache.coupons.ttl:PT10M}") Duration ttl,
+            @Value("${app.cache.coupons.negative-ttl:PT30S}") Duration negativeTtl) {
+        this.couponRepository = couponRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, Optional<Coupon>>() {
+                    @Override
+                    public long expireAfterCreate(String code, Optional<Coupon> coupon, long currentTime) {
+                        return (coupon.isPresent() ? ttl : negativeTtl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String code, Optional<Coupon> coupon, long currentTime, long currentDuration) {
+                        return expireAfterCreate(code, coupon, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String code, Optional<Coupon> coupon, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+    }
+
+    public Optional<Coupon> findByCode(String normalizedCode) {
+        return CacheLoads.getOrLoad(cache, normalizedCode, couponRepository::findByCodeAndDeletedAtIsNull);
+    }
+
+    // Invalida já e de novo após o commit, para não reter uma versão lida por outra thread antes do commit.
+    public void invalidate(String normalizedCode) {
+        cache.synchronous().invalidate(normalizedCode);
+        afterCommit(() -> cache.synchronous().invalidate(normalizedCode));
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    @Override
+    public void onChange(CatalogChange change) {
+        switch (change.getType()) {
+            case COUPON -> cache.synchronous().invalidate(change.getKey());
+            case CATALOG -> cache.synchronous().invalidateAll();
+            default -> {
+            }
+        }
+    }
+
+    @Override
+    public void onResync() {
+        cache.synchronous().invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+
+    public long size() {
+        return cache.synchronous().estimatedSize();
+    }
+
+    // Expõe hits, misses, evictions e tamanho como métricas cache.* com a tag cache=coupons.
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "coupons");
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package br.com.senai.desafio.tech_challenge.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Totais da listagem para o modo {@code count=estimate}: o COUNT(*) de cada combinação de filtros
+ * (normalizada) é reaproveitado por um TTL curto. O valor pode ficar defasado até o TTL expirar,
+ * por isso não é invalidado a cada escrita; quem precisa do número exato usa {@code count=exact}.
+ */
+@Component
+public class ListingCountCache {
+
+    private final AsyncCache<CountKey, Long> cache;
+
+    public ListingCountCache(
+            @Value("${app.cache.listing-counts.maximum-size:1000}") long maximumSize,
+            @Value("${app.cache.listing-counts.ttl:PT30S}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .buildAsync();
+    }
+
+    public long count(CountKey key, Supplier<Long> exactCount) {
+        return CacheLoads.getOrLoad(cache, key, k -> exactCount.get());
+    }
+
+    public record CountKey(String search, BigDecimal minPrice, BigDecimal maxPrice,
+                           Boolean hasDiscount, Boolean onlyOutOfStock, Boolean withCouponApplied) {
+
+        public static CountKey of(String search, BigDecimal minPrice, BigDecimal maxPrice,
+                                  Boolean hasDiscount, Boolean onlyOutOfStock, Boolean withCouponApplied) {
+            return new CountKey(
+                    StringUtils.hasText(search) ? search.trim().toLowerCase(Locale.ROOT) : null,
+                    minPrice != null ? minPrice.stripTrailingZeros() : null,
+                    maxPrice != null ? maxPrice.stripTrailingZeros() : null,
+                    hasDiscount, onlyOutOfStock, withCouponApplied);
+        }
+    }
+}
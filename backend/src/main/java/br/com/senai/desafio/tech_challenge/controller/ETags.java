@@ -0,0 +1,53 @@
+package br.com.senai.desafio.tech_challenge.controller;
+
+import java.util.Arrays;
+
+/**
+ * ETags da API de produtos: fortes no detalhe (id + versão da linha) e fracos na listagem
+ * (carimbo de alterações do catálogo). Compartilhados com a API reativa (perfil reactive).
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String product(Long id, Long version) {
+        return "\"p-" + id + "-" + version + "\"";
+    }
+
+    public static String catalog(long stamp) {
+        return "W/\"c-" + stamp + "\"";
+    }
+
+    // If-None-Match usa comparação fraca: ignora o prefixo W/ e aceita listas e "*".
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        String opaque = stripWeak(etag);
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .anyMatch(candidate -> candidate.equals("*") || stripWeak(candidate).equals(opaque));
+    }
+
+    // Extrai a versão esperada de um If-Match no formato "p-{id}-{versão}"; null quando ausente ou "*".
+    public static Long expectedProductVersion(String ifMatch, Long id) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String prefix = "\"p-" + id + "-";
+        String value = ifMatch.trim();
+        if (!value.startsWith(prefix) || !value.endsWith("\"")) {
+            return -1L; // ETag de outro recurso ou malformado: nunca corresponde
+        }
+        try {
+            return Long.parseLong(value.substring(prefix.length(), value.length() - 1));
+        } catch (NumberFormatException ex) {
+            return -1L;
+        }
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
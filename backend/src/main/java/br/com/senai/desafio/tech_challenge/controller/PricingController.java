@@ -0,0 +1,46 @@
+package br.com.senai.desafio.tech_challenge.controller;
+
+import br.com.senai.desafio.tech_challenge.dto.PriceQuoteRequestDTO;
+import br.com.senai.desafio.tech_challenge.exception.ResourceNotFoundException;
+import br.com.senai.desafio.tech_challenge.exception.UnprocessableEntityException;
+import br.com.senai.desafio.tech_challenge.service.PricingService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/pricing")
+@RequiredArgsConstructor
+public class PricingController {
+
+    private final PricingService pricingService;
+
+    @PostMapping("/quote")
+    public ResponseEntity<?> quote(
+            @Valid @RequestBody PriceQuoteRequestDTO priceQuoteRequestDTO,
+            HttpServletRequest request) {
+        try {
+            return ResponseEntity.ok(pricingService.quote(priceQuoteRequestDTO));
+        } catch (ResourceNotFoundException ex) {
+            return buildErrorResponse(HttpStatus.NOT_FOUND, "Recurso Não Encontrado", ex.getMessage(), request.getRequestURI());
+        } catch (UnprocessableEntityException ex) {
+            return buildErrorResponse(HttpStatus.UNPROCESSABLE_ENTITY, "Entidade Não Processável", ex.getMessage(), request.getRequestURI());
+        }
+    }
+
+    private ResponseEntity<Map<String, Object>> buildErrorResponse(HttpStatus status, String error, String message, String path) {
+        Map<String, Object> errorBody = new HashMap<>();
+        errorBody.put("timestamp", System.currentTimeMillis());
+        errorBody.put("status", status.value());
+        errorBody.put("error", error);
+        errorBody.put("message", message);
+        errorBody.put("path", path);
+        return new ResponseEntity<>(errorBody, status);
+    }
+}
@@ -1,20 +1,32 @@
 package br.com.senai.desafio.tech_challenge.controller;
 
+import br.com.senai.desafio.tech_challenge.cache.CatalogStamp;
 import br.com.senai.desafio.tech_challenge.dto.*;
+import br.com.senai.desafio.tech_challenge.exception.PreconditionFailedException;
 import br.com.senai.desafio.tech_challenge.exception.ResourceConflictException;
 import br.com.senai.desafio.tech_challenge.exception.ResourceNotFoundException;
 import br.com.senai.desafio.tech_challenge.exception.UnprocessableEntityException;
+import br.com.senai.desafio.tech_challenge.service.ProductBulkDiscountService;
+import br.com.senai.desafio.tech_challenge.service.ProductExportService;
+import br.com.senai.desafio.tech_challenge.service.ProductImportService;
 import br.com.senai.desafio.tech_challenge.service.ProductService;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.net.URI;
 import java.util.HashMap;
@@ -26,6 +38,10 @@ import java.util.Map;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final ProductExportService productExportService;
+    private final ProductBulkDiscountService productBulkDiscountService;
+    private final CatalogStamp catalogStamp;
 
     @PostMapping
     public ResponseEntity<?> createProduct(
@@ -44,11 +60,63 @@ public class ProductController {
         }
     }
 
+    // Importação em massa: o corpo (NDJSON ou CSV com cabeçalho) é lido em streaming e o relatório por linha
+    // é escrito na resposta à medida que cada lote é gravado.
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    public void importProducts(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ProductImportService.Format format = MediaType.parseMediaType(request.getContentType()).isCompatibleWith(MediaType.valueOf("text/csv"))
+                ? ProductImportService.Format.CSV
+                : ProductImportService.Format.NDJSON;
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        productImportService.importProducts(request.getInputStream(), format, response.getOutputStream());
+    }
+
+    // Exportação de todo o catálogo ativo em streaming (ndjson ou csv).
+    @GetMapping("/export")
+    public ResponseEntity<?> exportProducts(@RequestParam(defaultValue = "ndjson") String format, HttpServletRequest request) {
+        ProductExportService.Format exportFormat;
+        MediaType contentType;
+        if ("csv".equalsIgnoreCase(format)) {
+            exportFormat = ProductExportService.Format.CSV;
+            contentType = MediaType.valueOf("text/csv");
+        } else if ("ndjson".equalsIgnoreCase(format)) {
+            exportFormat = ProductExportService.Format.NDJSON;
+            contentType = MediaType.valueOf("application/x-ndjson");
+        } else {
+            String message = "Formato de exportação inválido: '" + format + "'. Use 'ndjson' ou 'csv'.";
+            return buildErrorResponse(HttpStatus.UNPROCESSABLE_ENTITY, "Entidade Não Processável", message, request.getRequestURI());
+        }
+
+        StreamingResponseBody body = output -> productExportService.exportProducts(exportFormat, output);
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"products." + format.toLowerCase() + "\"")
+                .body(body);
+    }
+
+    // Revalidação barata: com If-None-Match, só a versão da linha é consultada antes de decidir pelo 304.
     @GetMapping("/{id}")
-    public ResponseEntity<?> getProductById(@PathVariable Long id, HttpServletRequest request) {
+    public ResponseEntity<?> getProductById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpServletRequest request) {
         try {
+            if (ifNoneMatch != null) {
+                String currentETag = ETags.product(id, productService.getProductVersion(id));
+                if (ETags.matches(ifNoneMatch, currentETag)) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                            .eTag(currentETag)
+                            .cacheControl(CacheControl.noCache())
+                            .build();
+                }
+            }
             ProductResponseDTO product = productService.getProductById(id);
-            return ResponseEntity.ok(product);
+            return ResponseEntity.ok()
+                    .eTag(ETags.product(id, product.getVersion()))
+                    .cacheControl(CacheControl.noCache())
+                    .body(product);
         } catch (ResourceNotFoundException ex) {
             return buildErrorResponse(HttpStatus.NOT_FOUND, "Recurso Não Encontrado", ex.getMessage(), request.getRequestURI());
         }
@@ -63,11 +131,40 @@ public class ProductController {
             @RequestParam(required = false) Boolean hasDiscount,
             @RequestParam(required = false) Boolean onlyOutOfStock,
             @RequestParam(required = false) Boolean withCouponApplied,
+            @RequestParam(defaultValue = "offset") String pagination,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "exact") String count,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
             HttpServletRequest request) {
         try {
-            PaginatedResponseDTO<ProductResponseDTO> response = productService.listProducts(
-                    pageable, search, minPrice, maxPrice, hasDiscount, onlyOutOfStock, withCouponApplied);
-            return ResponseEntity.ok(response);
+            // Versão corrente igual à do cliente: nada mudou desde a resposta que ele tem, nem é preciso listar.
+            if (ifNoneMatch != null) {
+                String currentETag = ETags.catalog(catalogStamp.readConsistently(stamp -> stamp));
+                if (ETags.matches(ifNoneMatch, currentETag)) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                            .eTag(currentETag)
+                            .cacheControl(CacheControl.noCache())
+                            .build();
+                }
+            }
+            // A versão do ETag é lida pelo serviço antes da consulta e na mesma transação (mesma réplica): uma escrita
+            // concorrente ou uma réplica atrasada só podem deixar o ETag mais antigo que o corpo.
+            ProductService.Listing listing;
+            // Modo cursor (keyset): opt-in por "pagination=cursor" ou pela presença do token "after".
+            if ("cursor".equalsIgnoreCase(pagination) || after != null) {
+                listing = productService.listProductsByCursor(
+                        after, pageable.getPageSize(), pageable.getSort(),
+                        search, minPrice, maxPrice, hasDiscount, onlyOutOfStock, withCouponApplied);
+            } else {
+                listing = productService.listProducts(
+                        pageable, CountMode.parse(count), search, minPrice, maxPrice, hasDiscount, onlyOutOfStock, withCouponApplied);
+            }
+            return ResponseEntity.ok()
+                    .eTag(ETags.catalog(listing.catalogStamp()))
+                    .cacheControl(CacheControl.noCache())
+                    .body(listing.page());
+        } catch (UnprocessableEntityException ex) {
+            return buildErrorResponse(HttpStatus.UNPROCESSABLE_ENTITY, "Entidade Não Processável", ex.getMessage(), request.getRequestURI());
         } catch (Exception ex) {
             String errorMessage = "Ocorreu um erro ao processar a listagem de produtos.";
             return buildErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Erro Interno", errorMessage, request.getRequestURI());
@@ -98,14 +195,23 @@ public class ProductController {
     public ResponseEntity<?> updateProduct(
             @PathVariable Long id,
             @Valid @RequestBody ProductUpdateDTO productUpdateDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             HttpServletRequest request) {
         try {
-            ProductResponseDTO updatedProduct = productService.updateProduct(id, productUpdateDTO);
-            return ResponseEntity.ok(updatedProduct);
+            ProductResponseDTO updatedProduct = productService.updateProduct(
+                    id, productUpdateDTO, ETags.expectedProductVersion(ifMatch, id));
+            return ResponseEntity.ok()
+                    .eTag(ETags.product(id, updatedProduct.getVersion()))
+                    .body(updatedProduct);
         } catch (ResourceNotFoundException ex) {
             return buildErrorResponse(HttpStatus.NOT_FOUND, "Recurso Não Encontrado", ex.getMessage(), request.getRequestURI());
         } catch (ResourceConflictException ex) {
             return buildErrorResponse(HttpStatus.CONFLICT, "Conflito de Recurso", ex.getMessage(), request.getRequestURI());
+        } catch (PreconditionFailedException ex) {
+            return buildErrorResponse(HttpStatus.PRECONDITION_FAILED, "Pré-condição Falhou", ex.getMessage(), request.getRequestURI());
+        } catch (ObjectOptimisticLockingFailureException ex) {
+            String message = "O produto com ID " + id + " foi alterado por outra requisição. Recarregue e tente novamente.";
+            return buildErrorResponse(HttpStatus.PRECONDITION_FAILED, "Pré-condição Falhou", message, request.getRequestURI());
         }
     }
 
@@ -121,6 +227,10 @@ public class ProductController {
             return buildErrorResponse(HttpStatus.NOT_FOUND, "Recurso Não Encontrado", ex.getMessage(), request.getRequestURI());
         } catch (ResourceConflictException ex) {
             return buildErrorResponse(HttpStatus.CONFLICT, "Conflito de Recurso", ex.getMessage(), request.getRequestURI());
+        } catch (ObjectOptimisticLockingFailureException ex) {
+            // A versão do produto mudou entre a leitura e o commit (outra escrita no mesmo produto).
+            String message = "O produto com ID " + productId + " foi alterado por outra requisição. Tente novamente.";
+            return buildErrorResponse(HttpStatus.CONFLICT, "Conflito de Recurso", message, request.getRequestURI());
         } catch (UnprocessableEntityException ex) {
             return buildErrorResponse(HttpStatus.UNPROCESSABLE_ENTITY, "Entidade Não Processável", ex.getMessage(), request.getRequestURI());
         } catch (Exception ex) {
@@ -129,6 +239,18 @@ public class ProductController {
         }
     }
 
+    // Aplica um desconto a todos os produtos que atendem aos filtros, em instruções set-based por bloco.
+    @PostMapping("/discount/bulk")
+    public ResponseEntity<?> applyBulkDiscount(@Valid @RequestBody BulkDiscountRequestDTO dto, HttpServletRequest request) {
+        try {
+            return ResponseEntity.ok(productBulkDiscountService.applyDiscount(dto));
+        } catch (ResourceNotFoundException ex) {
+            return buildErrorResponse(HttpStatus.NOT_FOUND, "Recurso Não Encontrado", ex.getMessage(), request.getRequestURI());
+        } catch (UnprocessableEntityException ex) {
+            return buildErrorResponse(HttpStatus.UNPROCESSABLE_ENTITY, "Entidade Não Processável", ex.getMessage(), request.getRequestURI());
+        }
+    }
+
     @DeleteMapping("/{id}/discount")
     public ResponseEntity<?> removeDiscount(@PathVariable("id") Long productId, HttpServletRequest request) {
         try {
@@ -136,6 +258,10 @@ public class ProductController {
             return ResponseEntity.noContent().build();
         } catch (ResourceNotFoundException ex) {
             return buildErrorResponse(HttpStatus.NOT_FOUND, "Recurso Não Encontrado", ex.getMessage(), request.getRequestURI());
+        } catch (ObjectOptimisticLockingFailureException ex) {
+            // A versão do produto mudou entre a leitura e o commit (outra escrita no mesmo produto).
+            String message = "O produto com ID " + productId + " foi alterado por outra requisição. Tente novamente.";
+            return buildErrorResponse(HttpStatus.CONFLICT, "Conflito de Recurso", message, request.getRequestURI());
         }
     }
 
@@ -151,6 +277,10 @@ public class ProductController {
             return buildErrorResponse(HttpStatus.NOT_FOUND, "Recurso Não Encontrado", ex.getMessage(), request.getRequestURI());
         } catch (ResourceConflictException ex) {
             return buildErrorResponse(HttpStatus.CONFLICT, "Conflito de Recurso", ex.getMessage(), request.getRequestURI());
+        } catch (ObjectOptimisticLockingFailureException ex) {
+            // A versão do produto mudou entre a leitura e o commit (outra escrita no mesmo produto).
+            String message = "O produto com ID " + productId + " foi alterado por outra requisição. Tente novamente.";
+            return buildErrorResponse(HttpStatus.CONFLICT, "Conflito de Recurso", message, request.getRequestURI());
         } catch (UnprocessableEntityException ex) {
             return buildErrorResponse(HttpStatus.UNPROCESSABLE_ENTITY, "Entidade Não Processável", ex.getMessage(), request.getRequestURI());
         }
@@ -0,0 +1,51 @@
+package br.com.senai.desafio.tech_challenge.datasource;
+
+/**
+ * Marca de escrita da requisição: depois que a requisição usa o primário em uma transação de escrita,
+ * as leituras seguintes da mesma requisição também vão para o primário, para não enxergar uma réplica
+ * atrasada. Fica associada à thread que atende a requisição; threads auxiliares podem se associar à mesma
+ * marca com {@link #attach(ReadYourWrites)}.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<ReadYourWrites> CURRENT = new ThreadLocal<>();
+
+    private volatile boolean wrote;
+
+    private ReadYourWrites() {
+    }
+
+    public static ReadYourWrites start() {
+        ReadYourWrites marker = new ReadYourWrites();
+        CURRENT.set(marker);
+        return marker;
+    }
+
+    public static ReadYourWrites current() {
+        return CURRENT.get();
+    }
+
+    public static void attach(ReadYourWrites marker) {
+        if (marker == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(marker);
+        }
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    static void markWrite() {
+        ReadYourWrites marker = CURRENT.get();
+        if (marker != null) {
+            marker.wrote = true;
+        }
+    }
+
+    static boolean pinnedToPrimary() {
+        ReadYourWrites marker = CURRENT.get();
+        return marker != null && marker.wrote;
+    }
+}
@@ -0,0 +1,89 @@
+package br.com.senai.desafio.tech_challenge.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Liga o roteamento para réplicas de leitura ({@code app.datasource.replicas.enabled}). Substitui o DataSource
+ * do auto-configure: o primário continua vindo de {@code spring.datasource.*} e cada réplica usa as mesmas
+ * credenciais e configurações do Hikari, mudando apenas a URL. O rastreamento de SQL, quando ligado, envolve o
+ * DataSource final como qualquer outro.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replicas.enabled", havingValue = "true")
+public class ReplicaRoutingConfiguration implements DisposableBean {
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Bean
+    @Primary
+    DataSource dataSource(
+            DataSourceProperties properties,
+            Environment environment,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${app.datasource.replicas.urls:}") List<String> replicaUrls,
+            @Value("${app.datasource.replicas.health-check-interval:PT5S}") Duration healthCheckInterval,
+            @Value("${app.datasource.replicas.max-lag:PT5S}") Duration maxLag) {
+        HikariDataSource primary = pool(properties, environment, meterRegistry, properties.determineUrl(), "primary");
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariDataSource replica = pool(properties, environment, meterRegistry, url.trim(), "replica-" + replicas.size());
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+
+        routingDataSource = new ReplicaRoutingDataSource(primary, replicas);
+        routingDataSource.startHealthChecks(healthCheckInterval, maxLag);
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter() {
+        FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(new ReadYourWritesFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+
+    @Override
+    public void destroy() {
+        if (routingDataSource != null) {
+            routingDataSource.close();
+        }
+    }
+
+    private static HikariDataSource pool(
+            DataSourceProperties properties, Environment environment, ObjectProvider<MeterRegistry> meterRegistry,
+            String url, String poolName) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName(poolName);
+        // Os pools não são beans, então as métricas hikaricp.* (tag pool) são ligadas aqui.
+        meterRegistry.ifAvailable(dataSource::setMetricRegistry);
+        return dataSource;
+    }
+}
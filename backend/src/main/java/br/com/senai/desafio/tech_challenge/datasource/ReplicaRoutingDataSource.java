@@ -0,0 +1,201 @@
+package br.com.senai.desafio.tech_challenge.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Roteia as conexões entre o primário e as réplicas de leitura. Transações {@code readOnly} vão para as
+ * réplicas saudáveis em round-robin; todo o resto (escritas, acesso fora de transação, LISTEN/NOTIFY) fica
+ * no primário. Depois de uma escrita, as leituras da mesma requisição também ficam no primário
+ * ({@link ReadYourWrites}).
+ *
+ * <p>Deve ficar atrás de um {@code LazyConnectionDataSourceProxy}: o gerenciador de transações pede a
+ * conexão antes de marcar a transação como somente leitura, e o proxy adia a escolha até a primeira
+ * instrução. Uma réplica é retirada do rodízio quando falha ao entregar uma conexão ou quando a verificação
+ * periódica encontra erro ou atraso de replicação acima do limite, e volta na verificação seguinte que passar.</p>
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+
+    // Réplica em dia (nada recebido por aplicar) conta como atraso zero, mesmo sem transações recentes no primário.
+    private static final String REPLICATION_LAG_SQL = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+            END
+            """;
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private ScheduledExecutorService healthChecker;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicaDataSources) {
+        this.primary = primary;
+        this.replicas = IntStream.range(0, replicaDataSources.size())
+                .mapToObj(i -> new Replica("replica-" + i, replicaDataSources.get(i)))
+                .toList();
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach(replica -> targets.put(replica.key, replica.dataSource));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                ReadYourWrites.markWrite();
+            }
+            return PRIMARY;
+        }
+        if (ReadYourWrites.pinnedToPrimary()) {
+            return PRIMARY;
+        }
+        Replica replica = nextHealthyReplica();
+        return replica != null ? replica.key : PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        DataSource target = determineTargetDataSource();
+        try {
+            return target.getConnection();
+        } catch (SQLException ex) {
+            return fallBackToPrimary(target, ex).getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        DataSource target = determineTargetDataSource();
+        try {
+            return target.getConnection(username, password);
+        } catch (SQLException ex) {
+            return fallBackToPrimary(target, ex).getConnection(username, password);
+        }
+    }
+
+    public void startHealthChecks(Duration interval, Duration maxLag) {
+        if (replicas.isEmpty()) {
+            return;
+        }
+        healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        healthChecker.scheduleWithFixedDelay(() -> checkHealth(maxLag), 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    void checkHealth(Duration maxLag) {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(REPLICATION_LAG_SQL)) {
+                double lagSeconds = rs.next() ? rs.getDouble(1) : 0;
+                if (lagSeconds * 1000 > maxLag.toMillis()) {
+                    markDown(replica, "atraso de replicação de " + lagSeconds + "s");
+                } else {
+                    markUp(replica);
+                }
+            } catch (SQLException | RuntimeException ex) {
+                markDown(replica, ex.getMessage());
+            }
+        }
+    }
+
+    long healthyReplicas() {
+        return replicas.stream().filter(replica -> replica.healthy).count();
+    }
+
+    @Override
+    public void close() {
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+        }
+        replicas.forEach(replica -> closeQuietly(replica.dataSource));
+        closeQuietly(primary);
+    }
+
+    private Replica nextHealthyReplica() {
+        int size = replicas.size();
+        if (size == 0) {
+            return null;
+        }
+        int start = Math.floorMod(nextReplica.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private DataSource fallBackToPrimary(DataSource target, SQLException ex) throws SQLException {
+        Replica replica = replicas.stream().filter(r -> r.dataSource == target).findFirst().orElse(null);
+        if (replica == null) {
+            throw ex;
+        }
+        markDown(replica, ex.getMessage());
+        return primary;
+    }
+
+    private void markDown(Replica replica, String reason) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            log.warn("Réplica {} retirada do rodízio de leitura: {}", replica.key, reason);
+        }
+    }
+
+    private void markUp(Replica replica) {
+        if (!replica.healthy) {
+            replica.healthy = true;
+            log.info("Réplica {} de volta ao rodízio de leitura.", replica.key);
+        }
+    }
+
+    private static void closeQuietly(DataSource dataSource) {
+        if (dataSource instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception ex) {
+                log.debug("Falha ao fechar o pool de conexões.", ex);
+            }
+        }
+    }
+
+    private static final class Replica {
+        private final String key;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        private Replica(String key, DataSource dataSource) {
+            this.key = key;
+            this.dataSource = dataSource;
+        }
+    }
+}
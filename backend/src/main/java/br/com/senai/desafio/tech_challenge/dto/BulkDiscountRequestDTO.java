@@ -0,0 +1,26 @@
+package br.com.senai.desafio.tech_challenge.dto;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Data;
+import java.math.BigDecimal;
+
+// Filtros (os mesmos da listagem) + desconto a aplicar: informar percentage OU couponCode.
+@Data
+public class BulkDiscountRequestDTO {
+    private String search;
+
+    @PositiveOrZero(message = "O preço mínimo não pode ser negativo.")
+    private BigDecimal minPrice;
+
+    @PositiveOrZero(message = "O preço máximo não pode ser negativo.")
+    private BigDecimal maxPrice;
+
+    private Boolean onlyOutOfStock;
+
+    @DecimalMin(value = "1.0", message = "O desconto deve ser de no mínimo 1%.")
+    @DecimalMax(value = "80.0", message = "O desconto não pode exceder 80%.")
+    private BigDecimal percentage;
+
+    private String couponCode;
+}
@@ -0,0 +1,13 @@
+package br.com.senai.desafio.tech_challenge.dto;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BulkDiscountResultDTO {
+    // Produtos que atendem aos filtros
+    private long matched;
+    private long applied;
+    // Já tinham desconto ativo, ficariam abaixo de R$ 0,01 ou excederam o limite de usos do cupom
+    private long skipped;
+}
@@ -0,0 +1,25 @@
+package br.com.senai.desafio.tech_challenge.dto;
+import br.com.senai.desafio.tech_challenge.exception.UnprocessableEntityException;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Locale;
+
+// Como a listagem obtém o total: exact (COUNT(*)), none (sem total, só hasNext) ou estimate (contagem em cache por filtro).
+public enum CountMode {
+    EXACT,
+    NONE,
+    ESTIMATE;
+
+    public static CountMode parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new UnprocessableEntityException("Modo de contagem inválido: '" + value + "'. Use 'exact', 'none' ou 'estimate'.");
+        }
+    }
+
+    @JsonValue
+    public String toValue() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
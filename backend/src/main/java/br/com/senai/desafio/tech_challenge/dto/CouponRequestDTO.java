@@ -25,6 +25,9 @@ public class CouponRequestDTO {
     @NotNull(message = "O campo oneShot é obrigatório.")
     private Boolean oneShot;
 
+    @Positive(message = "O limite de usos deve ser positivo.")
+    private Integer maxUses;
+
     @NotNull(message = "A data de início da validade é obrigatória.")
     private Instant validFrom;
 
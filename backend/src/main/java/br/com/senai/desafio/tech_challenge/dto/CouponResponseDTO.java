@@ -16,6 +16,10 @@ public class CouponResponseDTO {
     private BigDecimal value;
     @JsonProperty("one_shot")
     private boolean oneShot;
+    @JsonProperty("max_uses")
+    private Integer maxUses;
+    @JsonProperty("redemption_count")
+    private int redemptionCount;
     @JsonProperty("valid_from")
     private Instant validFrom;
     @JsonProperty("valid_until")
@@ -18,6 +18,9 @@ public class CouponUpdateDTO {
 
     private Boolean oneShot;
 
+    @Positive(message = "O limite de usos deve ser positivo.")
+    private Integer maxUses;
+
     @FutureOrPresent(message = "A data de início não pode ser no passado.")
     private Instant validFrom;
 
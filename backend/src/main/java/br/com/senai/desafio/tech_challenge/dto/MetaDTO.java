@@ -1,12 +1,17 @@
 package br.com.senai.desafio.tech_challenge.dto;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 import lombok.Builder;
 
 @Data
 @Builder
+@JsonInclude(JsonInclude.Include.NON_NULL) // No modo cursor não há página nem totais
 public class MetaDTO {
-    private int page;
+    private Integer page;
     private int limit;
-    private long totalItems;
-    private int totalPages;
+    private Long totalItems;
+    private Integer totalPages;
+    private String nextCursor;
+    private CountMode countMode;
+    private Boolean hasNext;
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package br.com.senai.desafio.tech_challenge.dto;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PriceQuoteLineDTO {
+    private Long productId;
+    private String name;
+    private BigDecimal price;
+    private BigDecimal finalPrice;
+    // Desconto considerado no preço final: o ativo do produto ou o do cupom simulado
+    private AppliedDiscountDTO discount;
+    // Só com cupom na requisição: se o cupom entrou no preço desta linha e, se não, o motivo
+    private Boolean couponApplied;
+    private String couponRejectionReason;
+}
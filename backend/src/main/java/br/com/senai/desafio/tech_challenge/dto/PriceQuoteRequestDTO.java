@@ -0,0 +1,16 @@
+package br.com.senai.desafio.tech_challenge.dto;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import java.util.List;
+
+// Produtos do carrinho (IDs repetidos contam como itens separados) e, opcionalmente, um cupom para simular.
+@Data
+public class PriceQuoteRequestDTO {
+    @NotEmpty(message = "Informe ao menos um produto.")
+    @Size(max = 5000, message = "A cotação aceita no máximo 5000 produtos.")
+    private List<@NotNull(message = "O ID do produto não pode ser nulo.") Long> productIds;
+
+    private String couponCode;
+}
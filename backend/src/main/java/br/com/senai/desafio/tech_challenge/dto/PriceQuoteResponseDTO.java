@@ -0,0 +1,18 @@
+package br.com.senai.desafio.tech_challenge.dto;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PriceQuoteResponseDTO {
+    private List<PriceQuoteLineDTO> lines;
+    private BigDecimal totalPrice;
+    private BigDecimal totalFinalPrice;
+    private String couponCode;
+    // IDs inexistentes ou excluídos: ficam fora das linhas e dos totais
+    private List<Long> missingProductIds;
+}
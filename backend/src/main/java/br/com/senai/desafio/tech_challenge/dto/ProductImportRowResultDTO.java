@@ -0,0 +1,18 @@
+package br.com.senai.desafio.tech_challenge.dto;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductImportRowResultDTO {
+
+    public enum Status { CREATED, DUPLICATE, INVALID, FAILED }
+
+    private long line;
+    private String name;
+    private Status status;
+    private Long id;
+    private String message;
+}
@@ -1,4 +1,5 @@
 package br.com.senai.desafio.tech_challenge.dto;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
@@ -17,6 +18,9 @@ import java.time.Instant;
 public class ProductResponseDTO {
 
     private Long id;
+    // Vai no header ETag, não no corpo
+    @JsonIgnore
+    private Long version;
     private String name;
     private String description;
     private Integer stock;
@@ -0,0 +1,56 @@
+package br.com.senai.desafio.tech_challenge.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Contadores de negócio do catálogo, expostos junto das métricas do Actuator (/actuator/prometheus).
+ * As tags têm cardinalidade baixa e fixa: nunca usar códigos de cupom ou IDs de produto como tag.
+ */
+@Component
+public class CatalogMetrics {
+
+    private final MeterRegistry registry;
+    private final Counter couponApplications;
+    private final Counter couponDiscountConflicts;
+    private final Counter percentageDiscountConflicts;
+
+    public CatalogMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.couponApplications = Counter.builder("catalog.coupon.applications")
+                .description("Cupons aplicados com sucesso a produtos")
+                .register(registry);
+        this.couponDiscountConflicts = discountConflicts("coupon");
+        this.percentageDiscountConflicts = discountConflicts("percentage");
+    }
+
+    public void couponApplied() {
+        couponApplications.increment();
+    }
+
+    public void couponDiscountConflict() {
+        couponDiscountConflicts.increment();
+    }
+
+    public void percentageDiscountConflict() {
+        percentageDiscountConflicts.increment();
+    }
+
+    // Respostas 409/422, por status e template de rota (ex.: /api/v1/products/{id}/discount/coupon).
+    public void rejection(int status, String uri) {
+        Counter.builder("catalog.http.rejections")
+                .description("Respostas de conflito (409) e entidade não processável (422)")
+                .tag("status", String.valueOf(status))
+                .tag("uri", uri)
+                .register(registry)
+                .increment();
+    }
+
+    private Counter discountConflicts(String source) {
+        return Counter.builder("catalog.discount.conflicts")
+                .description("Tentativas de aplicar desconto a produto que já possui um desconto ativo")
+                .tag("source", source)
+                .register(registry);
+    }
+}
@@ -0,0 +1,30 @@
+package br.com.senai.desafio.tech_challenge.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Conta as respostas 409 e 422 da API. Cobre tanto os erros montados nos controllers quanto as
+ * exceções anotadas com @ResponseStatus, pois roda depois da resolução de exceções.
+ */
+@Component
+@RequiredArgsConstructor
+public class RejectionMetricsInterceptor implements HandlerInterceptor {
+
+    private final CatalogMetrics catalogMetrics;
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        int status = response.getStatus();
+        if (status != HttpStatus.CONFLICT.value() && status != HttpStatus.UNPROCESSABLE_ENTITY.value()) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        catalogMetrics.rejection(status, pattern != null ? pattern.toString() : "UNKNOWN");
+    }
+}
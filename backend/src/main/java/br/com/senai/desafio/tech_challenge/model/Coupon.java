@@ -4,6 +4,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.UpdateTimestamp;
@@ -39,6 +40,16 @@ public class Coupon {
     @Column(name = "one_shot", nullable = false)
     private boolean oneShot;
 
+    // Limite de usos (null = ilimitado); cupons oneShot sempre têm limite 1.
+    @Column(name = "max_uses")
+    private Integer maxUses;
+
+    // Só é alterado pelo UPDATE condicional de CouponRepository.redeem, nunca pelo save da entidade.
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(name = "redemption_count", nullable = false, updatable = false)
+    private int redemptionCount = 0;
+
     @Column(name = "valid_from", nullable = false)
     private Instant validFrom;
 
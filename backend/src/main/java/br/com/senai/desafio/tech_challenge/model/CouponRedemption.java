@@ -0,0 +1,34 @@
+package br.com.senai.desafio.tech_challenge.model;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+// Registro de cada uso de um cupom (livro-razão); o contador em coupons.redemption_count é a fonte da verdade do limite.
+@Entity
+@Table(name = "coupon_redemptions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CouponRedemption {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "coupon_id", nullable = false)
+    private Coupon coupon;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+
+    @CreationTimestamp
+    @Column(name = "redeemed_at", nullable = false, updatable = false)
+    private Instant redeemedAt;
+}
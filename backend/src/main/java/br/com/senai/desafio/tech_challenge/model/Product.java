@@ -4,6 +4,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.UpdateTimestamp;
@@ -64,6 +65,30 @@ public class Product {
     @Column(name = "deleted_at")
     private Instant deletedAt;
 
+    // Versão da linha: controle otimista de concorrência e base do ETag do detalhe do produto.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    // Modelo de leitura da listagem: preço final e desconto ativo desnormalizados,
+    // mantidos pelo ProductServiceImpl a cada escrita de produto ou desconto (ver db/migration/V3__product_read_model.sql).
+    @Column(name = "final_price", precision = 10, scale = 2)
+    private BigDecimal finalPrice;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "active_discount_type")
+    private CouponType activeDiscountType;
+
+    @Column(name = "active_discount_value", precision = 10, scale = 2)
+    private BigDecimal activeDiscountValue;
+
+    @Column(name = "active_discount_applied_at")
+    private Instant activeDiscountAppliedAt;
+
+    @Column(name = "active_coupon_code", length = 20)
+    private String activeCouponCode;
+
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<ProductDiscount> discounts;
 }
@@ -0,0 +1,102 @@
+package br.com.senai.desafio.tech_challenge.pricing;
+
+import br.com.senai.desafio.tech_challenge.model.CouponType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Cálculo do preço final em ponto fixo: preços em centavos e valores de desconto em centésimos
+ * (centavos no FIXED, centésimos de ponto percentual no PERCENT, ex.: 12,5% = 1250), tudo em {@code long}.
+ *
+ * <p>Produz exatamente o mesmo resultado da conta em {@link BigDecimal} ({@link #referenceFinalPrice}):
+ * no PERCENT o valor exato {@code preço × (10000 − desconto) / 10000} é arredondado para centavos com HALF_UP
+ * (metade para longe do zero, inclusive em resultados negativos); no FIXED a subtração já é exata. Os métodos
+ * em {@code long} não alocam; a fachada em {@link BigDecimal} cai na conta de referência quando algum valor tem
+ * mais de duas casas decimais ou não cabe em {@code long}.</p>
+ */
+public final class PricingEngine {
+
+    private static final long HUNDRED_PERCENT = 100_00;
+    private static final BigDecimal ONE_HUNDRED = BigDecimal.valueOf(100);
+
+    private PricingEngine() {
+    }
+
+    /**
+     * @param type                tipo do desconto; {@code null} significa sem desconto
+     * @param discountHundredths  valor do desconto em centésimos (ignorado sem desconto)
+     * @throws ArithmeticException se o resultado intermediário não couber em {@code long}
+     */
+    public static long finalPriceCents(long priceCents, CouponType type, long discountHundredths) {
+        if (type == null) {
+            return priceCents;
+        }
+        if (type == CouponType.FIXED) {
+            return Math.subtractExact(priceCents, discountHundredths);
+        }
+        long scaled = Math.multiplyExact(priceCents, Math.subtractExact(HUNDRED_PERCENT, discountHundredths));
+        return divideHalfUp(scaled, HUNDRED_PERCENT);
+    }
+
+    /**
+     * Versão em lote: {@code finalCents[i]} recebe o preço final de cada posição. Os arrays de entrada são
+     * paralelos; {@code types[i] == null} indica produto sem desconto.
+     */
+    public static void finalPricesCents(long[] priceCents, CouponType[] types, long[] discountHundredths, long[] finalCents) {
+        int count = priceCents.length;
+        if (types.length != count || discountHundredths.length != count || finalCents.length < count) {
+            throw new IllegalArgumentException("Os arrays do lote devem ter o mesmo tamanho.");
+        }
+        for (int i = 0; i < count; i++) {
+            finalCents[i] = finalPriceCents(priceCents[i], types[i], discountHundredths[i]);
+        }
+    }
+
+    // Mesmo valor de referenceFinalPrice; no caminho em ponto fixo o resultado sai sempre em escala 2 (a das colunas).
+    public static BigDecimal finalPrice(BigDecimal price, CouponType type, BigDecimal discountValue) {
+        if (type == null) {
+            return price;
+        }
+        if (!fitsHundredths(price) || !fitsHundredths(discountValue)) {
+            return referenceFinalPrice(price, type, discountValue);
+        }
+        try {
+            return BigDecimal.valueOf(finalPriceCents(toHundredths(price), type, toHundredths(discountValue)), 2);
+        } catch (ArithmeticException ex) {
+            return referenceFinalPrice(price, type, discountValue);
+        }
+    }
+
+    // Valor com até duas casas decimais em centésimos (ex.: 12.5 -> 1250).
+    public static long toHundredths(BigDecimal value) {
+        return value.movePointRight(2).longValueExact();
+    }
+
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    // Conta original em BigDecimal, mantida como referência e para valores fora da faixa do ponto fixo.
+    public static BigDecimal referenceFinalPrice(BigDecimal price, CouponType type, BigDecimal discountValue) {
+        if (type == CouponType.PERCENT) {
+            BigDecimal discountAmount = price.multiply(discountValue.divide(ONE_HUNDRED));
+            return price.subtract(discountAmount).setScale(2, RoundingMode.HALF_UP);
+        }
+        return price.subtract(discountValue);
+    }
+
+    // Até duas casas decimais e com folga para o produto preço × percentual não estourar.
+    private static boolean fitsHundredths(BigDecimal value) {
+        return value.scale() <= 2 && value.precision() - value.scale() <= 15;
+    }
+
+    private static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (Math.abs(remainder) * 2 >= divisor) {
+            quotient += Long.signum(dividend);
+        }
+        return quotient;
+    }
+}
@@ -0,0 +1,8 @@
+package br.com.senai.desafio.tech_challenge.repository;
+
+import br.com.senai.desafio.tech_challenge.model.CouponRedemption;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface CouponRedemptionRepository extends JpaRepository<CouponRedemption, Long> {
+    long countByCouponId(Long couponId);
+}
@@ -2,6 +2,9 @@ package br.com.senai.desafio.tech_challenge.repository;
 
 import br.com.senai.desafio.tech_challenge.model.Coupon;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -10,4 +13,14 @@ public interface CouponRepository extends JpaRepository<Coupon, Long> {
     Optional<Coupon> findByCode(String code);
     Optional<Coupon> findByCodeAndDeletedAtIsNull(String code);
     List<Coupon> findByDeletedAtIsNull();
+
+    // Só o número de usos, para completar um cupom lido do CouponCache; vazio se o cupom foi removido.
+    @Query("SELECT c.redemptionCount FROM Coupon c WHERE c.id = :id AND c.deletedAt IS NULL")
+    Optional<Integer> findActiveRedemptionCountById(@Param("id") Long id);
+
+    // Consome um uso do cupom de forma atômica: retorna 0 se o limite já foi atingido (ou o cupom foi removido).
+    @Modifying
+    @Query("UPDATE Coupon c SET c.redemptionCount = c.redemptionCount + 1 " +
+            "WHERE c.id = :id AND c.deletedAt IS NULL AND (c.maxUses IS NULL OR c.redemptionCount < c.maxUses)")
+    int redeem(@Param("id") Long id);
 }
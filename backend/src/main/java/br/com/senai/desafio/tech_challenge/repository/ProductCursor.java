@@ -0,0 +1,74 @@
+package br.com.senai.desafio.tech_challenge.repository;
+
+import br.com.senai.desafio.tech_challenge.model.Product;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Posição de paginação por keyset (cursor): a chave de ordenação do último item entregue e o seu ID,
+ * usado como desempate. O token é opaco para o cliente (Base64 URL-safe).
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ProductCursor {
+
+    // Propriedades de ordenação suportadas pelo modo cursor.
+    public static final Set<String> SORTABLE_PROPERTIES = Set.of("name", "price", "finalPrice");
+
+    private final String property;
+    private final Sort.Direction direction;
+    private final Comparable<?> value;
+    private final Long id;
+
+    public static ProductCursor after(Sort.Order order, Product lastProduct) {
+        return new ProductCursor(order.getProperty(), order.getDirection(), keyOf(order.getProperty(), lastProduct), lastProduct.getId());
+    }
+
+    public static ProductCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 4);
+            if (parts.length != 4 || !SORTABLE_PROPERTIES.contains(parts[1])) {
+                throw new IllegalArgumentException("Cursor malformado.");
+            }
+            Sort.Direction direction = Sort.Direction.fromString(parts[0]);
+            Long id = Long.valueOf(parts[2]);
+            return new ProductCursor(parts[1], direction, parseValue(parts[1], parts[3]), id);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Cursor de paginação inválido.", ex);
+        }
+    }
+
+    public String encode() {
+        String key = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+        String raw = direction.name() + "|" + property + "|" + id + "|" + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean matches(Sort.Order order) {
+        return property.equals(order.getProperty()) && direction == order.getDirection();
+    }
+
+    private static Comparable<?> keyOf(String property, Product product) {
+        return switch (property) {
+            case "name" -> product.getName();
+            case "price" -> product.getPrice();
+            case "finalPrice" -> product.getFinalPrice();
+            default -> throw new IllegalArgumentException("Ordenação não suportada no modo cursor: " + property);
+        };
+    }
+
+    private static Comparable<?> parseValue(String property, String value) {
+        return switch (property) {
+            case "price", "finalPrice" -> new BigDecimal(value);
+            default -> value;
+        };
+    }
+}
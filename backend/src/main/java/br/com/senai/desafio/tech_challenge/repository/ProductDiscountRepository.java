@@ -5,6 +5,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -15,4 +17,8 @@ public interface ProductDiscountRepository extends JpaRepository<ProductDiscount
     @Query("SELECT pd FROM ProductDiscount pd LEFT JOIN FETCH pd.coupon WHERE pd.product.id = :productId AND pd.removedAt IS NULL")
     Optional<ProductDiscount> findActiveDiscountWithCouponByProductId(@Param("productId") Long productId);
 
+    // Descontos ativos de vários produtos em uma única consulta (cotação de preços).
+    @Query("SELECT pd FROM ProductDiscount pd WHERE pd.product.id IN :productIds AND pd.removedAt IS NULL")
+    List<ProductDiscount> findActiveByProductIds(@Param("productIds") Collection<Long> productIds);
+
 }
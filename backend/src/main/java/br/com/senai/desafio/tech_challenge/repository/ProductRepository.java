@@ -11,7 +11,7 @@ import java.time.Instant;
 import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>, ProductRepositoryCustom {
 
     // Método para buscar um produto pelo nome normalizado.
     Optional<Product> findByName(String name);
@@ -21,6 +21,10 @@ public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpec
     @Query(value = "SELECT * FROM products WHERE id = :id AND deleted_at IS NOT NULL", nativeQuery = true)
     Optional<Product> findInactiveById(Long id);
     @Modifying(clearAutomatically = true)
-    @Query(value = "UPDATE products SET deleted_at = NULL, updated_at = :now WHERE id = :id", nativeQuery = true)
+    @Query(value = "UPDATE products SET deleted_at = NULL, updated_at = :now, version = version + 1 WHERE id = :id", nativeQuery = true)
     int restoreById(@Param("id") Long id, @Param("now") Instant now);
+
+    // Só a versão, para responder If-None-Match sem carregar e mapear o produto.
+    @Query("SELECT p.version FROM Product p WHERE p.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
 }
\ No newline at end of file
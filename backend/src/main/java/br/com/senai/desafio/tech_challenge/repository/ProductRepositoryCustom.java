@@ -0,0 +1,12 @@
+package br.com.senai.desafio.tech_challenge.repository;
+
+import br.com.senai.desafio.tech_challenge.model.Product;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface ProductRepositoryCustom {
+
+    // Página sem COUNT(*): busca limit+1 linhas apenas para saber se existe uma próxima página.
+    Slice<Product> findSlice(Specification<Product> spec, Pageable pageable);
+}
@@ -1,8 +1,6 @@
 package br.com.senai.desafio.tech_challenge.repository;
 import br.com.senai.desafio.tech_challenge.model.Product;
-import br.com.senai.desafio.tech_challenge.model.ProductDiscount;
-import jakarta.persistence.criteria.Join;
-import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -24,33 +22,27 @@ public class ProductSpecification {
                 );
     }
 
+    // Os filtros de preço consideram o preço final (já com desconto), desnormalizado em products.final_price.
     public static Specification<Product> hasMinPrice(BigDecimal minPrice) {
         if (minPrice == null) {
             return null;
         }
-        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("price"), minPrice);
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("finalPrice"), minPrice);
     }
 
     public static Specification<Product> hasMaxPrice(BigDecimal maxPrice) {
         if (maxPrice == null) {
             return null;
         }
-        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("price"), maxPrice);
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("finalPrice"), maxPrice);
     }
 
     public static Specification<Product> hasDiscount(Boolean hasDiscount) {
         if (hasDiscount == null) return null;
 
-        return (root, query, cb) -> {
-            Join<Product, ProductDiscount> discountJoin = root.join("discounts", JoinType.LEFT);
-            query.distinct(true);
-
-            if (hasDiscount) {
-                return cb.isNotNull(discountJoin.get("id"));
-            } else {
-                return cb.isNull(discountJoin.get("id"));
-            }
-        };
+        return (root, query, cb) -> hasDiscount
+                ? cb.isNotNull(root.get("activeDiscountType"))
+                : cb.isNull(root.get("activeDiscountType"));
     }
 
     public static Specification<Product> isOutOfStock(Boolean onlyOutOfStock) {
@@ -63,16 +55,29 @@ public class ProductSpecification {
     public static Specification<Product> withCouponApplied(Boolean withCouponApplied) {
         if (withCouponApplied == null) return null;
 
+        return (root, query, cb) -> withCouponApplied
+                ? cb.isNotNull(root.get("activeCouponCode"))
+                : cb.isNull(root.get("activeCouponCode"));
+    }
+
+    // Predicado de keyset: somente itens posteriores ao cursor na ordem (chave, id).
+    @SuppressWarnings("unchecked")
+    public static Specification<Product> after(ProductCursor cursor) {
+        if (cursor == null) return null;
 
         return (root, query, cb) -> {
-            Join<Product, ProductDiscount> discountJoin = root.join("discounts", JoinType.LEFT);
-            query.distinct(true);
+            Path<Comparable<Object>> key = root.get(cursor.getProperty());
+            Comparable<Object> value = (Comparable<Object>) cursor.getValue();
+            Path<Long> id = root.get("id");
 
-            if (withCouponApplied) {
-                return cb.isNotNull(discountJoin.get("coupon"));
-            } else {
-                return cb.isNull(discountJoin.get("coupon"));
+            if (cursor.getDirection().isAscending()) {
+                return cb.or(
+                        cb.greaterThan(key, value),
+                        cb.and(cb.equal(key, value), cb.greaterThan(id, cursor.getId())));
             }
+            return cb.or(
+                    cb.lessThan(key, value),
+                    cb.and(cb.equal(key, value), cb.lessThan(id, cursor.getId())));
         };
     }
-}
\ No newline at end of file
+}
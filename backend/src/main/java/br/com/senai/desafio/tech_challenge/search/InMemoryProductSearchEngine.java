@@ -0,0 +1,178 @@
+package br.com.senai.desafio.tech_challenge.search;
+
+import br.com.senai.desafio.tech_challenge.cache.CatalogChange;
+import br.com.senai.desafio.tech_challenge.cache.CatalogChangeListener;
+import br.com.senai.desafio.tech_challenge.model.Product;
+import br.com.senai.desafio.tech_challenge.repository.ProductRepository;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+
+/**
+ * Índice invertido em memória (termo -> IDs de produto), para testes e instalações pequenas.
+ * Casa termos por prefixo, exige todos os termos da busca e ranqueia pela quantidade de termos
+ * que casaram exatamente. O índice é reconstruído a partir do banco na inicialização.
+ */
+@Component
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "memory")
+@RequiredArgsConstructor
+public class InMemoryProductSearchEngine implements ProductSearchEngine, CatalogChangeListener {
+
+    private final ProductRepository productRepository;
+
+    private final ConcurrentSkipListMap<String, Set<Long>> postings = new ConcurrentSkipListMap<>();
+    private final Map<Long, List<String>> documents = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (this) {
+            postings.clear();
+            documents.clear();
+            productRepository.findAll().forEach(this::doIndex);
+        }
+    }
+
+    @Override
+    public Specification<Product> matching(String text) {
+        if (!StringUtils.hasText(text)) {
+            return Specification.allOf();
+        }
+        Set<Long> ids = search(text).keySet();
+        return (root, query, cb) -> ids.isEmpty() ? cb.disjunction() : root.get("id").in(ids);
+    }
+
+    @Override
+    public Specification<Product> rankedByRelevance(String text) {
+        if (!StringUtils.hasText(text)) {
+            return null;
+        }
+        // Agrupa os IDs por pontuação para ordenar com um CASE, do mais relevante para o menos.
+        Map<Integer, List<Long>> idsByScore = search(text).entrySet().stream()
+                .collect(Collectors.groupingBy(Map.Entry::getValue, TreeMap::new,
+                        Collectors.mapping(Map.Entry::getKey, Collectors.toList())));
+        if (idsByScore.isEmpty()) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            if (!Long.class.equals(query.getResultType())) {
+                // Com DISTINCT o Postgres exige a expressão de ordenação no SELECT: melhor falhar que perder a ordem.
+                if (query.isDistinct()) {
+                    throw new IllegalStateException("Ordenação por relevância não suporta consultas com DISTINCT.");
+                }
+                CriteriaBuilder.Case<Integer> score = cb.selectCase();
+                idsByScore.forEach((value, ids) -> score.when(root.get("id").in(ids), value));
+                query.orderBy(cb.desc(score.otherwise(0)), cb.asc(root.get("id")));
+            }
+            return null;
+        };
+    }
+
+    @Override
+    public void index(Product product) {
+        afterCommit(() -> {
+            synchronized (this) {
+                doRemove(product.getId());
+                doIndex(product);
+            }
+        });
+    }
+
+    @Override
+    public void remove(Long productId) {
+        afterCommit(() -> {
+            synchronized (this) {
+                doRemove(productId);
+            }
+        });
+    }
+
+    // Escritas feitas por outras réplicas: recarrega o produto do banco (ou remove, se foi inativado).
+    @Override
+    public void onChange(CatalogChange change) {
+        switch (change.getType()) {
+            case PRODUCT -> productRepository.findById(change.productId())
+                    .ifPresentOrElse(this::index, () -> remove(change.productId()));
+            case CATALOG -> rebuild();
+            default -> {
+            }
+        }
+    }
+
+    @Override
+    public void onResync() {
+        rebuild();
+    }
+
+    // IDs que contêm todos os termos da busca (por prefixo), com a pontuação de cada um, do maior para o menor.
+    Map<Long, Integer> search(String text) {
+        List<String> terms = SearchQuery.tokenize(text);
+        if (terms.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Long, Integer> scores = null;
+        for (String term : terms) {
+            Map<Long, Integer> termScores = new HashMap<>();
+            postings.subMap(term, true, term + Character.MAX_VALUE, true).forEach((token, ids) -> {
+                int weight = token.equals(term) ? 2 : 1;
+                ids.forEach(id -> termScores.merge(id, weight, Math::max));
+            });
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                scores.keySet().retainAll(termScores.keySet());
+                scores.replaceAll((id, score) -> score + termScores.get(id));
+            }
+            if (scores.isEmpty()) {
+                return Map.of();
+            }
+        }
+
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+    }
+
+    private void doIndex(Product product) {
+        List<String> tokens = SearchQuery.tokenize(product.getName() + " " + Objects.toString(product.getDescription(), ""));
+        documents.put(product.getId(), tokens);
+        tokens.forEach(token -> postings.computeIfAbsent(token, key -> ConcurrentHashMap.newKeySet()).add(product.getId()));
+    }
+
+    private void doRemove(Long productId) {
+        List<String> tokens = documents.remove(productId);
+        if (tokens == null) {
+            return;
+        }
+        tokens.forEach(token -> postings.computeIfPresent(token, (key, ids) -> {
+            ids.remove(productId);
+            return ids.isEmpty() ? null : ids;
+        }));
+    }
+
+    // Só altera o índice depois que a escrita for confirmada no banco.
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package br.com.senai.desafio.tech_challenge.search;
+
+import br.com.senai.desafio.tech_challenge.model.Product;
+import br.com.senai.desafio.tech_challenge.repository.ProductSpecification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+
+/**
+ * Busca servida por índices GIN do Postgres (ver {@code db/migration/V2__search_indexes.sql}): prefixo via {@code tsvector}
+ * e substring via {@code pg_trgm} sobre {@code lower(name)}/{@code lower(description)}.
+ * As funções SQL usadas aqui são registradas por {@link ProductSearchFunctionContributor}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "postgres", matchIfMissing = true)
+public class PostgresProductSearchEngine implements ProductSearchEngine {
+
+    @Override
+    public Specification<Product> matching(String text) {
+        if (!StringUtils.hasText(text)) {
+            return Specification.allOf();
+        }
+        List<String> tokens = SearchQuery.tokenize(text);
+
+        // O LIKE '%x%' de ProductSpecification.hasText passa a ser atendido pelos índices trigram.
+        Specification<Product> substring = ProductSpecification.hasText(text);
+        if (tokens.isEmpty()) {
+            return substring;
+        }
+        String tsQuery = SearchQuery.toPrefixTsQuery(tokens);
+        return substring.or((root, query, cb) ->
+                cb.isTrue(cb.function(ProductSearchFunctionContributor.MATCH, Boolean.class,
+                        root.get("name"), root.get("description"), cb.literal(tsQuery))));
+    }
+
+    @Override
+    public Specification<Product> rankedByRelevance(String text) {
+        List<String> tokens = SearchQuery.tokenize(text);
+        if (tokens.isEmpty()) {
+            return null;
+        }
+        String tsQuery = SearchQuery.toPrefixTsQuery(tokens);
+        String lowerText = text.toLowerCase();
+
+        return (root, query, cb) -> {
+            if (!Long.class.equals(query.getResultType())) {
+                // Com DISTINCT o Postgres exige a expressão de ordenação no SELECT: melhor falhar que perder a ordem.
+                if (query.isDistinct()) {
+                    throw new IllegalStateException("Ordenação por relevância não suporta consultas com DISTINCT.");
+                }
+                query.orderBy(
+                        cb.desc(cb.function(ProductSearchFunctionContributor.RANK, Double.class,
+                                root.get("name"), root.get("description"), cb.literal(tsQuery), cb.literal(lowerText))),
+                        cb.asc(root.get("id")));
+            }
+            return null;
+        };
+    }
+}
@@ -0,0 +1,24 @@
+package br.com.senai.desafio.tech_challenge.search;
+
+import br.com.senai.desafio.tech_challenge.model.Product;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Backend de busca textual usado pelo parâmetro {@code search} da listagem de produtos.
+ * A implementação ativa é escolhida pela propriedade {@code app.search.engine} ({@code postgres} ou {@code memory}).
+ */
+public interface ProductSearchEngine {
+
+    // Filtro de produtos que casam com o texto. Sem texto, não restringe nada.
+    Specification<Product> matching(String text);
+
+    // Ordenação por relevância (mais relevante primeiro). Só vale com o Pageable sem ordenação, que a substituiria.
+    Specification<Product> rankedByRelevance(String text);
+
+    // Ganchos de manutenção para implementações que mantêm índice próprio.
+    default void index(Product product) {
+    }
+
+    default void remove(Long productId) {
+    }
+}
@@ -0,0 +1,35 @@
+package br.com.senai.desafio.tech_challenge.search;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registra no Hibernate as expressões de busca do Postgres para uso via Criteria API.
+ * A expressão do {@code tsvector} precisa ser idêntica à do índice {@code idx_products_search_tsv}
+ * para que o planner o utilize. Carregado via {@code META-INF/services}.
+ */
+public class ProductSearchFunctionContributor implements FunctionContributor {
+
+    static final String MATCH = "product_search_match";
+    static final String RANK = "product_search_rank";
+
+    private static final String DOCUMENT = "to_tsvector('simple', coalesce(?1, '') || ' ' || coalesce(?2, ''))";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicTypeRegistry types = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+
+        functionContributions.getFunctionRegistry().registerPattern(
+                MATCH,
+                "(" + DOCUMENT + " @@ to_tsquery('simple', ?3))",
+                types.resolve(StandardBasicTypes.BOOLEAN));
+
+        // Relevância: peso do full-text somado à similaridade trigram com o nome.
+        functionContributions.getFunctionRegistry().registerPattern(
+                RANK,
+                "(ts_rank(" + DOCUMENT + ", to_tsquery('simple', ?3)) + similarity(lower(?1), ?4))",
+                types.resolve(StandardBasicTypes.DOUBLE));
+    }
+}
@@ -0,0 +1,34 @@
+package br.com.senai.desafio.tech_challenge.search;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Normalização compartilhada entre os motores de busca: quebra o texto em termos minúsculos
+ * (letras e dígitos) e monta a consulta de prefixo do Postgres. Também usada pela API reativa (perfil reactive).
+ */
+public final class SearchQuery {
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private SearchQuery() {
+    }
+
+    public static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        return Arrays.stream(NON_WORD.split(text.toLowerCase(Locale.ROOT)))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    // Ex.: "Café esp" -> "café:* & esp:*" (todos os termos, cada um como prefixo).
+    public static String toPrefixTsQuery(List<String> tokens) {
+        return tokens.stream().map(token -> token + ":*").collect(Collectors.joining(" & "));
+    }
+}
@@ -1,9 +1,13 @@
 package br.com.senai.desafio.tech_challenge.service;
+import br.com.senai.desafio.tech_challenge.cache.CatalogChange;
+import br.com.senai.desafio.tech_challenge.cache.CatalogInvalidationBus;
+import br.com.senai.desafio.tech_challenge.cache.CouponCache;
 import br.com.senai.desafio.tech_challenge.dto.CouponRequestDTO;
 import br.com.senai.desafio.tech_challenge.dto.CouponResponseDTO;
 import br.com.senai.desafio.tech_challenge.dto.CouponUpdateDTO;
 import br.com.senai.desafio.tech_challenge.exception.ResourceConflictException;
 import br.com.senai.desafio.tech_challenge.exception.ResourceNotFoundException;
+import br.com.senai.desafio.tech_challenge.exception.UnprocessableEntityException;
 import br.com.senai.desafio.tech_challenge.model.Coupon;
 import br.com.senai.desafio.tech_challenge.repository.CouponRepository;
 import lombok.RequiredArgsConstructor;
@@ -19,6 +23,8 @@ import java.util.stream.Collectors;
 public class CouponServiceImpl implements CouponService {
 
     private final CouponRepository couponRepository;
+    private final CouponCache couponCache;
+    private final CatalogInvalidationBus invalidationBus;
     private static final List<String> RESERVED_CODES = Arrays.asList("ADMIN", "AUTH", "NULL", "UNDEFINED");
 
     @Override
@@ -38,42 +44,55 @@ public class CouponServiceImpl implements CouponService {
                 .type(couponRequestDTO.getType())
                 .value(couponRequestDTO.getValue())
                 .oneShot(couponRequestDTO.getOneShot())
+                .maxUses(couponRequestDTO.getOneShot() ? Integer.valueOf(1) : couponRequestDTO.getMaxUses())
                 .validFrom(couponRequestDTO.getValidFrom())
                 .validUntil(couponRequestDTO.getValidUntil())
                 .build();
 
         Coupon savedCoupon = couponRepository.save(coupon);
+        couponCache.invalidate(normalizedCode); // descarta um eventual "não encontrado" cacheado
+        invalidationBus.publish(CatalogChange.coupon(normalizedCode));
         return mapToCouponResponseDTO(savedCoupon);
     }
 
+    // Existência (e "não encontrado") resolvida pelo CouponCache; só o redemptionCount, que muda a cada resgate
+    // sem invalidar o cache, é lido do banco. A instância cacheada não é alterada: o número vai direto no DTO.
     @Override
     public CouponResponseDTO getCouponByCode(String code) {
         String normalizedCode = normalizeCode(code);
-        Coupon coupon = couponRepository.findByCodeAndDeletedAtIsNull(normalizedCode)
+        Coupon coupon = couponCache.findByCode(normalizedCode)
+                .orElseThrow(() -> new ResourceNotFoundException("Cupom com o código '" + code + "' não encontrado."));
+        int redemptionCount = couponRepository.findActiveRedemptionCountById(coupon.getId())
                 .orElseThrow(() -> new ResourceNotFoundException("Cupom com o código '" + code + "' não encontrado."));
-        return mapToCouponResponseDTO(coupon);
+        CouponResponseDTO response = mapToCouponResponseDTO(coupon);
+        response.setRedemptionCount(redemptionCount);
+        return response;
     }
 
     private String normalizeCode(String code) {
         return code.trim().toUpperCase();
     }
 
-    private CouponResponseDTO mapToCouponResponseDTO(Coupon coupon) {
+    // Compartilhado com a API reativa (perfil reactive).
+    public static CouponResponseDTO mapToCouponResponseDTO(Coupon coupon) {
         return CouponResponseDTO.builder()
                 .id(coupon.getId())
                 .code(coupon.getCode())
                 .type(coupon.getType())
                 .value(coupon.getValue())
                 .oneShot(coupon.isOneShot())
+                .maxUses(coupon.getMaxUses())
+                .redemptionCount(coupon.getRedemptionCount())
                 .validFrom(coupon.getValidFrom())
                 .validUntil(coupon.getValidUntil())
                 .createdAt(coupon.getCreatedAt())
                 .build();
     }
     @Override
+    @Transactional(readOnly = true)
     public List<CouponResponseDTO> listAllCoupons() {
         return couponRepository.findByDeletedAtIsNull().stream()
-                .map(this::mapToCouponResponseDTO)
+                .map(CouponServiceImpl::mapToCouponResponseDTO)
                 .collect(Collectors.toList());
     }
 
@@ -91,9 +110,20 @@ public class CouponServiceImpl implements CouponService {
         if (couponUpdateDTO.getValue() != null) {
             couponToUpdate.setValue(couponUpdateDTO.getValue());
         }
+        // O limite anterior se perdeu quando o cupom virou oneShot (maxUses = 1): ao desativar, o novo vem junto.
+        if (Boolean.FALSE.equals(couponUpdateDTO.getOneShot()) && couponToUpdate.isOneShot()
+                && couponUpdateDTO.getMaxUses() == null) {
+            throw new UnprocessableEntityException("Informe maxUses ao desativar o oneShot do cupom.");
+        }
+        if (couponUpdateDTO.getMaxUses() != null) {
+            couponToUpdate.setMaxUses(couponUpdateDTO.getMaxUses());
+        }
         if (couponUpdateDTO.getOneShot() != null) {
             couponToUpdate.setOneShot(couponUpdateDTO.getOneShot());
         }
+        if (couponToUpdate.isOneShot()) {
+            couponToUpdate.setMaxUses(1);
+        }
         if (couponUpdateDTO.getValidFrom() != null) {
             couponToUpdate.setValidFrom(couponUpdateDTO.getValidFrom());
         }
@@ -102,6 +132,8 @@ public class CouponServiceImpl implements CouponService {
         }
 
         Coupon updatedCoupon = couponRepository.save(couponToUpdate);
+        couponCache.invalidate(normalizedCode);
+        invalidationBus.publish(CatalogChange.coupon(normalizedCode));
         return mapToCouponResponseDTO(updatedCoupon);
     }
     @Override
@@ -113,5 +145,7 @@ public class CouponServiceImpl implements CouponService {
 
         coupon.setDeletedAt(java.time.Instant.now());
         couponRepository.save(coupon);
+        couponCache.invalidate(normalizedCode);
+        invalidationBus.publish(CatalogChange.coupon(normalizedCode));
     }
 }
\ No newline at end of file
@@ -0,0 +1,101 @@
+package br.com.senai.desafio.tech_challenge.service;
+
+import br.com.senai.desafio.tech_challenge.datasource.ReadYourWrites;
+import br.com.senai.desafio.tech_challenge.trace.SqlTrace;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Supplier;
+
+/**
+ * Executor limitado para consultas auxiliares de leitura (ex.: o COUNT(*) da listagem) que rodam em paralelo
+ * à consulta principal, cada uma com sua própria conexão do pool. O número de threads deve ficar bem abaixo do
+ * tamanho do pool do Hikari; com a fila cheia a tarefa roda na própria thread da requisição (CallerRunsPolicy),
+ * voltando ao comportamento sequencial em vez de disputar mais conexões. Cada consulta roda em uma transação
+ * somente leitura própria, para seguir o mesmo roteamento (réplica) da consulta principal.
+ */
+@Component
+public class ParallelQueryExecutor {
+
+    private final boolean enabled;
+    private final AsyncTaskExecutor executor;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ParallelQueryExecutor(
+            PlatformTransactionManager transactionManager,
+            @Value("${app.listing.parallel-count.enabled:false}") boolean enabled,
+            @Value("${app.listing.parallel-count.threads:4}") int threads,
+            @Value("${app.listing.parallel-count.queue-capacity:50}") int queueCapacity,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.enabled = enabled;
+        this.executor = virtualThreads
+                ? virtualThreadExecutor(threads)
+                : platformThreadExecutor(threads, queueCapacity);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(() -> readOnlyTransaction.execute(status -> query.get()), executor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor instanceof ThreadPoolTaskExecutor pool) {
+            pool.shutdown();
+        } else if (executor instanceof SimpleAsyncTaskExecutor simple) {
+            simple.close();
+        }
+    }
+
+    private static ThreadPoolTaskExecutor platformThreadExecutor(int threads, int queueCapacity) {
+        ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+        pool.setCorePoolSize(threads);
+        pool.setMaxPoolSize(threads);
+        pool.setQueueCapacity(queueCapacity);
+        pool.setThreadNamePrefix("listing-count-");
+        pool.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        pool.setTaskDecorator(ParallelQueryExecutor::propagateRequestContext);
+        pool.initialize();
+        return pool;
+    }
+
+    // Com virtual threads não há pool a dimensionar: uma thread por consulta, limitada pelo mesmo número de
+    // consultas simultâneas (acima disso quem submete espera), para não disputar todo o pool do Hikari.
+    private static SimpleAsyncTaskExecutor virtualThreadExecutor(int maxConcurrentQueries) {
+        SimpleAsyncTaskExecutor virtual = new SimpleAsyncTaskExecutor("listing-count-");
+        virtual.setVirtualThreads(true);
+        virtual.setConcurrencyLimit(maxConcurrentQueries);
+        virtual.setTaskDecorator(ParallelQueryExecutor::propagateRequestContext);
+        return virtual;
+    }
+
+    // Mantém o rastreamento de SQL da requisição (Server-Timing) e a fixação no primário após escrita
+    // (read-your-writes) nas consultas feitas pela thread auxiliar.
+    private static Runnable propagateRequestContext(Runnable task) {
+        SqlTrace trace = SqlTrace.current();
+        ReadYourWrites readYourWrites = ReadYourWrites.current();
+        return () -> {
+            SqlTrace.attach(trace);
+            ReadYourWrites.attach(readYourWrites);
+            try {
+                task.run();
+            } finally {
+                SqlTrace.clear();
+                ReadYourWrites.clear();
+            }
+        };
+    }
+}
@@ -0,0 +1,8 @@
+package br.com.senai.desafio.tech_challenge.service;
+
+import br.com.senai.desafio.tech_challenge.dto.PriceQuoteRequestDTO;
+import br.com.senai.desafio.tech_challenge.dto.PriceQuoteResponseDTO;
+
+public interface PricingService {
+    PriceQuoteResponseDTO quote(PriceQuoteRequestDTO request);
+}
@@ -0,0 +1,170 @@
+package br.com.senai.desafio.tech_challenge.service;
+
+import br.com.senai.desafio.tech_challenge.cache.CouponCache;
+import br.com.senai.desafio.tech_challenge.dto.AppliedDiscountDTO;
+import br.com.senai.desafio.tech_challenge.dto.PriceQuoteLineDTO;
+import br.com.senai.desafio.tech_challenge.dto.PriceQuoteRequestDTO;
+import br.com.senai.desafio.tech_challenge.dto.PriceQuoteResponseDTO;
+import br.com.senai.desafio.tech_challenge.exception.ResourceNotFoundException;
+import br.com.senai.desafio.tech_challenge.exception.UnprocessableEntityException;
+import br.com.senai.desafio.tech_challenge.model.Coupon;
+import br.com.senai.desafio.tech_challenge.model.CouponType;
+import br.com.senai.desafio.tech_challenge.model.Product;
+import br.com.senai.desafio.tech_challenge.model.ProductDiscount;
+import br.com.senai.desafio.tech_challenge.pricing.PricingEngine;
+import br.com.senai.desafio.tech_challenge.repository.CouponRepository;
+import br.com.senai.desafio.tech_challenge.repository.ProductDiscountRepository;
+import br.com.senai.desafio.tech_challenge.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Cotação de preços de um carrinho sem nenhuma escrita: uma consulta para os produtos, uma para os descontos
+ * ativos e o cálculo em lote do {@link PricingEngine}, com as mesmas regras de {@code calculateFinalPrice}.
+ * Com cupom, simula o {@code applyCoupon}: janela de validade checada uma vez, produtos com desconto ativo
+ * mantêm o desconto atual e o preço final não pode ficar abaixo de R$ 0,01. Cupom que já atingiu o limite de
+ * usos é recusado em todas as linhas; o contador é lido do banco, pois o do {@link CouponCache} pode estar atrasado.
+ */
+@Service
+@RequiredArgsConstructor
+public class PricingServiceImpl implements PricingService {
+
+    private static final long MIN_FINAL_PRICE_CENTS = 1;
+
+    private final ProductRepository productRepository;
+    private final ProductDiscountRepository productDiscountRepository;
+    private final CouponCache couponCache;
+    private final CouponRepository couponRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public PriceQuoteResponseDTO quote(PriceQuoteRequestDTO request) {
+        Coupon coupon = resolveCoupon(request.getCouponCode());
+        boolean couponExhausted = coupon != null && isExhausted(coupon);
+
+        Set<Long> uniqueIds = new LinkedHashSet<>(request.getProductIds());
+        Map<Long, Product> products = productRepository.findAllById(uniqueIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        Map<Long, ProductDiscount> activeDiscounts = products.isEmpty()
+                ? Map.of()
+                : productDiscountRepository.findActiveByProductIds(products.keySet()).stream()
+                        .collect(Collectors.toMap(discount -> discount.getProduct().getId(), Function.identity()));
+
+        List<Product> lineProducts = request.getProductIds().stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .toList();
+        int count = lineProducts.size();
+        long[] priceCents = new long[count];
+        CouponType[] discountTypes = new CouponType[count];
+        long[] discountValues = new long[count];
+        for (int i = 0; i < count; i++) {
+            Product product = lineProducts.get(i);
+            priceCents[i] = PricingEngine.toHundredths(product.getPrice());
+            ProductDiscount discount = activeDiscounts.get(product.getId());
+            if (discount != null) {
+                discountTypes[i] = discount.getType();
+                discountValues[i] = PricingEngine.toHundredths(discount.getValue());
+            }
+        }
+        long[] finalCents = new long[count];
+        PricingEngine.finalPricesCents(priceCents, discountTypes, discountValues, finalCents);
+
+        long[] couponCents = null;
+        if (coupon != null && !couponExhausted) {
+            CouponType[] couponTypes = new CouponType[count];
+            long[] couponValues = new long[count];
+            Arrays.fill(couponTypes, coupon.getType());
+            Arrays.fill(couponValues, PricingEngine.toHundredths(coupon.getValue()));
+            couponCents = new long[count];
+            PricingEngine.finalPricesCents(priceCents, couponTypes, couponValues, couponCents);
+        }
+
+        List<PriceQuoteLineDTO> lines = new ArrayList<>(count);
+        long totalPriceCents = 0;
+        long totalFinalCents = 0;
+        for (int i = 0; i < count; i++) {
+            Product product = lineProducts.get(i);
+            ProductDiscount discount = activeDiscounts.get(product.getId());
+            PriceQuoteLineDTO.PriceQuoteLineDTOBuilder line = PriceQuoteLineDTO.builder()
+                    .productId(product.getId())
+                    .name(product.getName())
+                    .price(product.getPrice());
+            long lineFinalCents = finalCents[i];
+            if (discount != null) {
+                line.discount(toDiscountDTO(discount));
+            }
+
+            if (coupon != null) {
+                if (couponExhausted) {
+                    line.couponApplied(false).couponRejectionReason("Este cupom já atingiu o limite de usos.");
+                } else if (discount != null) {
+                    line.couponApplied(false).couponRejectionReason("Este produto já possui um desconto ativo.");
+                } else if (couponCents[i] < MIN_FINAL_PRICE_CENTS) {
+                    line.couponApplied(false).couponRejectionReason("A aplicação deste cupom resulta num preço final inválido (menor que R$ 0,01).");
+                } else {
+                    lineFinalCents = couponCents[i];
+                    line.couponApplied(true).discount(AppliedDiscountDTO.builder()
+                            .type(coupon.getType())
+                            .value(coupon.getValue())
+                            .build());
+                }
+            }
+
+            lines.add(line.finalPrice(PricingEngine.fromCents(lineFinalCents)).build());
+            totalPriceCents = Math.addExact(totalPriceCents, priceCents[i]);
+            totalFinalCents = Math.addExact(totalFinalCents, lineFinalCents);
+        }
+
+        List<Long> missingProductIds = uniqueIds.stream()
+                .filter(id -> !products.containsKey(id))
+                .toList();
+        return PriceQuoteResponseDTO.builder()
+                .lines(lines)
+                .totalPrice(PricingEngine.fromCents(totalPriceCents))
+                .totalFinalPrice(PricingEngine.fromCents(totalFinalCents))
+                .couponCode(coupon != null ? coupon.getCode() : null)
+                .missingProductIds(missingProductIds.isEmpty() ? null : missingProductIds)
+                .build();
+    }
+
+    // Mesmas verificações e mensagens de applyCoupon, feitas uma vez para o carrinho inteiro.
+    private Coupon resolveCoupon(String couponCode) {
+        if (!StringUtils.hasText(couponCode)) {
+            return null;
+        }
+        String normalizedCode = couponCode.trim().toUpperCase();
+        Coupon coupon = couponCache.findByCode(normalizedCode)
+                .orElseThrow(() -> new ResourceNotFoundException("Cupom com código '" + couponCode + "' não encontrado."));
+        Instant now = Instant.now();
+        if (now.isBefore(coupon.getValidFrom()) || now.isAfter(coupon.getValidUntil())) {
+            throw new UnprocessableEntityException("Este cupom não é válido na data de hoje.");
+        }
+        return coupon;
+    }
+
+    // Cupom sem limite dispensa a leitura; com limite, vale o contador corrente, não o da entrada do cache.
+    private boolean isExhausted(Coupon coupon) {
+        if (coupon.getMaxUses() == null) {
+            return false;
+        }
+        Coupon current = couponRepository.findByCodeAndDeletedAtIsNull(coupon.getCode())
+                .orElseThrow(() -> new ResourceNotFoundException("Cupom com código '" + coupon.getCode() + "' não encontrado."));
+        return current.getMaxUses() != null && current.getRedemptionCount() >= current.getMaxUses();
+    }
+
+    private static AppliedDiscountDTO toDiscountDTO(ProductDiscount discount) {
+        return AppliedDiscountDTO.builder()
+                .type(discount.getType())
+                .value(discount.getValue())
+                .appliedAt(discount.getAppliedAt())
+                .build();
+    }
+}
@@ -0,0 +1,8 @@
+package br.com.senai.desafio.tech_challenge.service;
+
+import br.com.senai.desafio.tech_challenge.dto.BulkDiscountRequestDTO;
+import br.com.senai.desafio.tech_challenge.dto.BulkDiscountResultDTO;
+
+public interface ProductBulkDiscountService {
+    BulkDiscountResultDTO applyDiscount(BulkDiscountRequestDTO request);
+}
@@ -0,0 +1,235 @@
+package br.com.senai.desafio.tech_challenge.service;
+
+import br.com.senai.desafio.tech_challenge.cache.CatalogChange;
+import br.com.senai.desafio.tech_challenge.cache.CatalogInvalidationBus;
+import br.com.senai.desafio.tech_challenge.cache.CouponCache;
+import br.com.senai.desafio.tech_challenge.dto.BulkDiscountRequestDTO;
+import br.com.senai.desafio.tech_challenge.dto.BulkDiscountResultDTO;
+import br.com.senai.desafio.tech_challenge.exception.ResourceNotFoundException;
+import br.com.senai.desafio.tech_challenge.exception.UnprocessableEntityException;
+import br.com.senai.desafio.tech_challenge.model.Coupon;
+import br.com.senai.desafio.tech_challenge.model.CouponType;
+import br.com.senai.desafio.tech_challenge.model.Product;
+import br.com.senai.desafio.tech_challenge.repository.ProductSpecification;
+import br.com.senai.desafio.tech_challenge.search.ProductSearchEngine;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Aplicação de um desconto (percentual ou cupom) a todos os produtos que atendem aos filtros da listagem.
+ * Os IDs são percorridos por keyset em blocos de {@code app.bulk-discount.chunk-size}; cada bloco é aplicado,
+ * em sua própria transação, por uma única instrução (INSERT ... SELECT com CTEs) que ignora produtos com
+ * desconto ativo, aplica a regra do preço final mínimo de R$ 0,01, atualiza o modelo de leitura e, para
+ * cupons, consome os usos respeitando o limite. Cada bloco com produtos alterados publica uma mudança de catálogo
+ * dentro da própria transação.
+ */
+@Service
+public class ProductBulkDiscountServiceImpl implements ProductBulkDiscountService {
+
+    private static final String APPLY_CHUNK_SQL = """
+            WITH spec AS (
+                SELECT CAST(? AS varchar) AS discount_type, CAST(? AS numeric) AS discount_value,
+                       CAST(? AS bigint) AS coupon_id, CAST(? AS varchar) AS coupon_code
+            ), locked AS (
+                -- O FOR UPDATE serializa com resgates concorrentes.
+                SELECT c.max_uses, c.redemption_count
+                FROM coupons c JOIN spec s ON c.id = s.coupon_id
+                WHERE c.deleted_at IS NULL
+                FOR UPDATE OF c
+            ), remaining AS (
+                -- Usos restantes (NULL = ilimitado): sem cupom ou sem max_uses não há limite; cupom removido não tem usos.
+                SELECT CASE
+                           WHEN s.coupon_id IS NULL THEN NULL
+                           WHEN NOT EXISTS (SELECT 1 FROM locked) THEN 0
+                           ELSE (SELECT CASE WHEN l.max_uses IS NULL THEN NULL
+                                             ELSE GREATEST(l.max_uses - l.redemption_count, 0) END
+                                 FROM locked l)
+                       END AS uses
+                FROM spec s
+            ), candidates AS (
+                SELECT id, final_price FROM (
+                    SELECT p.id,
+                           CASE s.discount_type
+                               WHEN 'PERCENT' THEN round(p.price - p.price * s.discount_value / 100, 2)
+                               ELSE p.price - s.discount_value
+                           END AS final_price
+                    FROM products p CROSS JOIN spec s
+                    WHERE p.id = ANY (?) AND p.deleted_at IS NULL
+                      AND NOT EXISTS (SELECT 1 FROM product_discounts d WHERE d.product_id = p.id AND d.removed_at IS NULL)
+                ) priced
+                WHERE final_price >= 0.01
+                ORDER BY id
+                LIMIT (SELECT uses FROM remaining)
+            ), inserted AS (
+                INSERT INTO product_discounts (product_id, coupon_id, discount_type, discount_value, applied_at)
+                SELECT c.id, s.coupon_id, s.discount_type, s.discount_value, now()
+                FROM candidates c CROSS JOIN spec s
+                ON CONFLICT (product_id) WHERE removed_at IS NULL DO NOTHING
+                RETURNING product_id, applied_at
+            ), updated AS (
+                -- Recalcula o preço final na própria linha em vez de juntar com candidates: o planejador estima uma
+                -- linha por CTE e juntaria as duas num nested loop quadrático (25 milhões de comparações por bloco).
+                UPDATE products p
+                SET final_price = CASE s.discount_type
+                                      WHEN 'PERCENT' THEN round(p.price - p.price * s.discount_value / 100, 2)
+                                      ELSE p.price - s.discount_value
+                                  END,
+                    active_discount_type = s.discount_type,
+                    active_discount_value = s.discount_value, active_discount_applied_at = i.applied_at,
+                    active_coupon_code = s.coupon_code, updated_at = now(), version = p.version + 1
+                FROM inserted i CROSS JOIN spec s
+                WHERE p.id = i.product_id
+                RETURNING p.id
+            ), redeemed AS (
+                UPDATE coupons SET redemption_count = redemption_count + (SELECT count(*) FROM inserted)
+                WHERE id = (SELECT coupon_id FROM spec)
+                RETURNING id
+            ), ledger AS (
+                INSERT INTO coupon_redemptions (coupon_id, product_id, redeemed_at)
+                SELECT s.coupon_id, i.product_id, now()
+                FROM inserted i CROSS JOIN spec s
+                WHERE s.coupon_id IS NOT NULL
+                RETURNING id
+            )
+            SELECT count(*) FROM updated
+            """;
+
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductSearchEngine productSearchEngine;
+    private final CouponCache couponCache;
+    private final CatalogInvalidationBus invalidationBus;
+    private final int chunkSize;
+
+    public ProductBulkDiscountServiceImpl(
+            EntityManager entityManager,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ProductSearchEngine productSearchEngine,
+            CouponCache couponCache,
+            CatalogInvalidationBus invalidationBus,
+            @Value("${app.bulk-discount.chunk-size:5000}") int chunkSize) {
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.productSearchEngine = productSearchEngine;
+        this.couponCache = couponCache;
+        this.invalidationBus = invalidationBus;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public BulkDiscountResultDTO applyDiscount(BulkDiscountRequestDTO request) {
+        DiscountSpec discount = resolveDiscount(request);
+        Specification<Product> filter = productSearchEngine.matching(request.getSearch())
+                .and(ProductSpecification.hasMinPrice(request.getMinPrice()))
+                .and(ProductSpecification.hasMaxPrice(request.getMaxPrice()))
+                .and(ProductSpecification.isOutOfStock(request.getOnlyOutOfStock()));
+
+        long matched = 0;
+        long applied = 0;
+        Long lastId = null;
+        while (true) {
+            Long after = lastId;
+            ChunkResult chunk = transactionTemplate.execute(status -> applyChunk(filter, after, discount));
+            matched += chunk.size();
+            applied += chunk.applied();
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+            lastId = chunk.lastId();
+        }
+
+        return BulkDiscountResultDTO.builder()
+                .matched(matched)
+                .applied(applied)
+                .skipped(matched - applied)
+                .build();
+    }
+
+    private ChunkResult applyChunk(Specification<Product> filter, Long after, DiscountSpec discount) {
+        List<Long> ids = findIds(filter, after);
+        if (ids.isEmpty()) {
+            return new ChunkResult(0, 0, after);
+        }
+        Long applied = jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(APPLY_CHUNK_SQL);
+            statement.setString(1, discount.type().name());
+            statement.setBigDecimal(2, discount.value());
+            if (discount.couponId() != null) {
+                statement.setLong(3, discount.couponId());
+            } else {
+                statement.setNull(3, Types.BIGINT);
+            }
+            statement.setString(4, discount.couponCode());
+            statement.setArray(5, connection.createArrayOf("bigint", ids.toArray()));
+            return statement;
+        }, resultSet -> resultSet.next() ? resultSet.getLong(1) : 0L);
+        if (applied != null && applied > 0) {
+            if (discount.couponCode() != null) {
+                couponCache.invalidate(discount.couponCode()); // redemption_count mudou
+            }
+            // Na transação do bloco: a versão do catálogo avança no mesmo commit dos descontos, e as demais
+            // réplicas são avisadas bloco a bloco, sem esperar o fim de toda a aplicação.
+            invalidationBus.publish(CatalogChange.catalog());
+        }
+        return new ChunkResult(ids.size(), applied != null ? applied : 0, ids.get(ids.size() - 1));
+    }
+
+    private List<Long> findIds(Specification<Product> filter, Long after) {
+        Specification<Product> chunkFilter = after == null
+                ? filter
+                : filter.and((root, query, cb) -> cb.greaterThan(root.get("id"), after));
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Product> root = query.from(Product.class);
+        query.select(root.get("id"));
+        Predicate predicate = chunkFilter.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.asc(root.get("id")));
+        return entityManager.createQuery(query).setMaxResults(chunkSize).getResultList();
+    }
+
+    private DiscountSpec resolveDiscount(BulkDiscountRequestDTO request) {
+        boolean hasPercentage = request.getPercentage() != null;
+        boolean hasCoupon = request.getCouponCode() != null && !request.getCouponCode().isBlank();
+        if (hasPercentage == hasCoupon) {
+            throw new UnprocessableEntityException("Informe exatamente um tipo de desconto: 'percentage' ou 'couponCode'.");
+        }
+        if (hasPercentage) {
+            return new DiscountSpec(CouponType.PERCENT, request.getPercentage(), null, null);
+        }
+
+        String normalizedCode = request.getCouponCode().trim().toUpperCase();
+        Coupon coupon = couponCache.findByCode(normalizedCode)
+                .orElseThrow(() -> new ResourceNotFoundException("Cupom com código '" + request.getCouponCode() + "' não encontrado."));
+        Instant now = Instant.now();
+        if (now.isBefore(coupon.getValidFrom()) || now.isAfter(coupon.getValidUntil())) {
+            throw new UnprocessableEntityException("Este cupom não é válido na data de hoje.");
+        }
+        return new DiscountSpec(coupon.getType(), coupon.getValue(), coupon.getId(), coupon.getCode());
+    }
+
+    private record DiscountSpec(CouponType type, BigDecimal value, Long couponId, String couponCode) {
+    }
+
+    private record ChunkResult(int size, long applied, Long lastId) {
+    }
+}
@@ -0,0 +1,12 @@
+package br.com.senai.desafio.tech_challenge.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ProductExportService {
+
+    enum Format { NDJSON, CSV }
+
+    // Escreve todo o catálogo ativo no stream, sem carregar o catálogo inteiro em memória.
+    void exportProducts(Format format, OutputStream output) throws IOException;
+}
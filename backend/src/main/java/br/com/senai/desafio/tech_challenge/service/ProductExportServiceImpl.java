@@ -0,0 +1,169 @@
+package br.com.senai.desafio.tech_challenge.service;
+
+import br.com.senai.desafio.tech_challenge.dto.ProductResponseDTO;
+import br.com.senai.desafio.tech_challenge.model.Product;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Exportação do catálogo ativo em NDJSON ou CSV. Lê os produtos por um cursor do servidor
+ * (ScrollableResults FORWARD_ONLY com fetch size, dentro de uma transação somente leitura) e limpa o
+ * contexto de persistência periodicamente, mantendo a memória constante. Os descontos já vêm
+ * desnormalizados na linha do produto, sem consultas por item.
+ */
+@Service
+public class ProductExportServiceImpl implements ProductExportService {
+
+    private static final String CSV_HEADER = "id,name,description,stock,price,final_price,discount_type,discount_value,coupon_code,created_at,updated_at";
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+    private final int clearEvery;
+
+    public ProductExportServiceImpl(
+            EntityManager entityManager,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            @Value("${app.export.fetch-size:1000}") int fetchSize,
+            @Value("${app.export.clear-every:1000}") int clearEvery) {
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+        this.clearEvery = clearEvery;
+    }
+
+    @Override
+    public void exportProducts(Format format, OutputStream output) throws IOException {
+        RowWriter writer = format == Format.CSV ? new CsvRowWriter(output) : new NdjsonRowWriter(output);
+        readOnlyTransaction.executeWithoutResult(status -> {
+            Session session = entityManager.unwrap(Session.class);
+            try (ScrollableResults<Product> rows = session
+                    .createSelectionQuery("FROM Product p ORDER BY p.id", Product.class)
+                    .setFetchSize(fetchSize)
+                    .setReadOnly(true)
+                    .setCacheMode(CacheMode.IGNORE)
+                    .scroll(ScrollMode.FORWARD_ONLY)) {
+                long count = 0;
+                while (rows.next()) {
+                    writer.write(ProductServiceImpl.mapToProductResponseDTO(rows.get()));
+                    if (++count % clearEvery == 0) {
+                        session.clear();
+                        writer.flush();
+                    }
+                }
+                writer.close();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    private interface RowWriter {
+        void write(ProductResponseDTO product) throws IOException;
+
+        void flush() throws IOException;
+
+        void close() throws IOException;
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator json;
+        private boolean empty = true;
+
+        private NdjsonRowWriter(OutputStream output) throws IOException {
+            this.json = objectMapper.getFactory().createGenerator(output);
+            this.json.setRootValueSeparator(new SerializedString("\n"));
+        }
+
+        @Override
+        public void write(ProductResponseDTO product) throws IOException {
+            json.writeObject(product);
+            empty = false;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            json.flush();
+        }
+
+        // Catálogo vazio gera um corpo vazio, não uma linha em branco.
+        @Override
+        public void close() throws IOException {
+            if (!empty) {
+                json.writeRaw('\n');
+            }
+            json.close();
+        }
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer out;
+
+        private CsvRowWriter(OutputStream output) throws IOException {
+            this.out = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            this.out.write(CSV_HEADER);
+            this.out.write('\n');
+        }
+
+        @Override
+        public void write(ProductResponseDTO product) throws IOException {
+            String line = Stream.of(
+                            product.getId(),
+                            product.getName(),
+                            product.getDescription(),
+                            product.getStock(),
+                            product.getPrice(),
+                            product.getFinalPrice(),
+                            product.getDiscount() != null ? product.getDiscount().getType() : null,
+                            product.getDiscount() != null ? product.getDiscount().getValue() : null,
+                            product.getCouponCode(),
+                            product.getCreatedAt(),
+                            product.getUpdatedAt())
+                    .map(CsvRowWriter::escape)
+                    .collect(Collectors.joining(","));
+            out.write(line);
+            out.write('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+
+        private static String escape(Object value) {
+            if (value == null) {
+                return "";
+            }
+            String text = Objects.toString(value);
+            if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+                return "\"" + text.replace("\"", "\"\"") + "\"";
+            }
+            return text;
+        }
+    }
+}
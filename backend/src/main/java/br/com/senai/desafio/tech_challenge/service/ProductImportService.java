@@ -0,0 +1,13 @@
+package br.com.senai.desafio.tech_challenge.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface ProductImportService {
+
+    enum Format { NDJSON, CSV }
+
+    // Lê os produtos do corpo da requisição em streaming e escreve o relatório linha a linha na resposta.
+    void importProducts(InputStream input, Format format, OutputStream output) throws IOException;
+}
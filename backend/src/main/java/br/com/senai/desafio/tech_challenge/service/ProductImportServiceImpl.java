@@ -0,0 +1,341 @@
+package br.com.senai.desafio.tech_challenge.service;
+
+import br.com.senai.desafio.tech_challenge.cache.CatalogChange;
+import br.com.senai.desafio.tech_challenge.cache.CatalogInvalidationBus;
+import br.com.senai.desafio.tech_challenge.dto.ProductImportRowResultDTO;
+import br.com.senai.desafio.tech_challenge.dto.ProductImportRowResultDTO.Status;
+import br.com.senai.desafio.tech_challenge.dto.ProductRequestDTO;
+import br.com.senai.desafio.tech_challenge.model.Product;
+import br.com.senai.desafio.tech_challenge.search.ProductSearchEngine;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Importação em massa de produtos (NDJSON ou CSV). O corpo é lido em streaming e processado em lotes de
+ * {@code app.import.batch-size} linhas: duplicados são detectados no próprio lote e contra o banco com uma
+ * única consulta por lote, os IDs são reservados em bloco na sequence de {@code products.id} e as linhas
+ * são gravadas com JDBC batch (reescrito em INSERT multi-valores pelo driver).
+ */
+@Slf4j
+@Service
+public class ProductImportServiceImpl implements ProductImportService {
+
+    private static final String INSERT_SQL = "INSERT INTO products (id, name, description, stock, price, final_price, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ProductSearchEngine productSearchEngine;
+    private final CatalogInvalidationBus invalidationBus;
+    private final int batchSize;
+
+    public ProductImportServiceImpl(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper,
+            Validator validator,
+            ProductSearchEngine productSearchEngine,
+            CatalogInvalidationBus invalidationBus,
+            @Value("${app.import.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.productSearchEngine = productSearchEngine;
+        this.invalidationBus = invalidationBus;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void importProducts(InputStream input, Format format, OutputStream output) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        RowParser parser = format == Format.CSV ? new CsvRowParser(reader.readLine()) : new NdjsonRowParser();
+        EnumMap<Status, Long> totals = new EnumMap<>(Status.class);
+        Arrays.stream(Status.values()).forEach(status -> totals.put(status, 0L));
+
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(output)) {
+            json.writeStartObject();
+            json.writeArrayFieldStart("rows");
+
+            List<PendingRow> batch = new ArrayList<>(batchSize);
+            long lineNumber = format == Format.CSV ? 1 : 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                PendingRow row = parse(parser, line, lineNumber);
+                if (row.result != null) {
+                    write(json, row.result, totals);
+                    continue;
+                }
+                batch.add(row);
+                if (batch.size() == batchSize) {
+                    flush(batch, json, totals);
+                }
+            }
+            flush(batch, json, totals);
+
+            json.writeEndArray();
+            for (Map.Entry<Status, Long> total : totals.entrySet()) {
+                json.writeNumberField(total.getKey().name().toLowerCase(), total.getValue());
+            }
+            json.writeEndObject();
+        }
+
+        if (totals.get(Status.CREATED) > 0) {
+            invalidationBus.publish(CatalogChange.catalog());
+        }
+    }
+
+    private PendingRow parse(RowParser parser, String line, long lineNumber) {
+        ProductRequestDTO dto;
+        try {
+            dto = parser.parse(line);
+        } catch (IOException | IllegalArgumentException ex) {
+            return PendingRow.rejected(lineNumber, null, Status.INVALID, "Linha mal formada: " + ex.getMessage());
+        }
+        if (dto == null) {
+            // Uma linha NDJSON com o literal null.
+            return PendingRow.rejected(lineNumber, null, Status.INVALID, "Linha mal formada: esperado um objeto JSON.");
+        }
+
+        Set<ConstraintViolation<ProductRequestDTO>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            String message = violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining(" "));
+            return PendingRow.rejected(lineNumber, dto.getName(), Status.INVALID, message);
+        }
+        return new PendingRow(lineNumber, dto, ProductServiceImpl.normalizeName(dto.getName()), null);
+    }
+
+    private void flush(List<PendingRow> batch, JsonGenerator json, EnumMap<Status, Long> totals) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        // Duplicados dentro do próprio lote: vale a primeira ocorrência.
+        Set<String> seen = new HashSet<>();
+        List<PendingRow> candidates = new ArrayList<>(batch.size());
+        for (PendingRow row : batch) {
+            if (seen.add(row.normalizedName)) {
+                candidates.add(row);
+            } else {
+                row.result = rowResult(row, Status.DUPLICATE, null, "Nome repetido no arquivo de importação.");
+            }
+        }
+
+        try {
+            List<Product> created = transactionTemplate.execute(status -> insert(candidates));
+            // Só marca como criadas depois do commit do lote.
+            candidates.stream().filter(row -> row.result == null)
+                    .forEach(row -> row.result = rowResult(row, Status.CREATED, row.id, null));
+            if (created != null) {
+                created.forEach(productSearchEngine::index);
+            }
+        } catch (DataAccessException ex) {
+            log.warn("Falha ao gravar lote de importação com {} produtos", candidates.size(), ex);
+            candidates.stream().filter(row -> row.result == null)
+                    .forEach(row -> row.result = rowResult(row, Status.FAILED, null, "Falha ao gravar o lote; tente importar a linha novamente."));
+        }
+
+        for (PendingRow row : batch) {
+            write(json, row.result, totals);
+        }
+        json.flush();
+        batch.clear();
+    }
+
+    private List<Product> insert(List<PendingRow> candidates) {
+        Set<String> existing = findExistingNames(candidates.stream().map(row -> row.normalizedName).collect(Collectors.toList()));
+        List<PendingRow> toInsert = new ArrayList<>(candidates.size());
+        for (PendingRow row : candidates) {
+            if (existing.contains(row.normalizedName)) {
+                row.result = rowResult(row, Status.DUPLICATE, null, "Já existe um produto com o nome '" + row.dto.getName() + "'.");
+            } else {
+                toInsert.add(row);
+            }
+        }
+        if (toInsert.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> ids = reserveIds(toInsert.size());
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Product> products = new ArrayList<>(toInsert.size());
+        for (int i = 0; i < toInsert.size(); i++) {
+            PendingRow row = toInsert.get(i);
+            ProductRequestDTO dto = row.dto;
+            row.id = ids.get(i);
+            products.add(Product.builder()
+                    .id(row.id)
+                    .name(row.normalizedName)
+                    .description(dto.getDescription())
+                    .stock(dto.getStock())
+                    .price(dto.getPrice())
+                    .finalPrice(dto.getPrice())
+                    .build());
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, products, products.size(), (statement, product) -> {
+            statement.setLong(1, product.getId());
+            statement.setString(2, product.getName());
+            statement.setString(3, product.getDescription());
+            statement.setInt(4, product.getStock());
+            statement.setBigDecimal(5, product.getPrice());
+            statement.setBigDecimal(6, product.getFinalPrice());
+            statement.setTimestamp(7, now);
+            statement.setTimestamp(8, now);
+        });
+        return products;
+    }
+
+    // Considera também produtos inativos: o nome continua único na tabela.
+    private Set<String> findExistingNames(List<String> names) {
+        return new HashSet<>(jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement("SELECT name FROM products WHERE name = ANY (?)");
+            Array array = connection.createArrayOf("varchar", names.toArray());
+            statement.setArray(1, array);
+            return statement;
+        }, (rs, rowNum) -> rs.getString(1)));
+    }
+
+    // Reserva um bloco de IDs com uma única ida ao banco.
+    private List<Long> reserveIds(int count) {
+        return jdbcTemplate.queryForList(
+                "SELECT nextval(pg_get_serial_sequence('products', 'id')) FROM generate_series(1, ?)", Long.class, count);
+    }
+
+    private void write(JsonGenerator json, ProductImportRowResultDTO result, EnumMap<Status, Long> totals) throws IOException {
+        json.writeObject(result);
+        totals.merge(result.getStatus(), 1L, Long::sum);
+    }
+
+    private static ProductImportRowResultDTO rowResult(PendingRow row, Status status, Long id, String message) {
+        return ProductImportRowResultDTO.builder()
+                .line(row.lineNumber)
+                .name(row.dto.getName())
+                .status(status)
+                .id(id)
+                .message(message)
+                .build();
+    }
+
+    private static final class PendingRow {
+        private final long lineNumber;
+        private final ProductRequestDTO dto;
+        private final String normalizedName;
+        private Long id;
+        private ProductImportRowResultDTO result;
+
+        private PendingRow(long lineNumber, ProductRequestDTO dto, String normalizedName, ProductImportRowResultDTO result) {
+            this.lineNumber = lineNumber;
+            this.dto = dto;
+            this.normalizedName = normalizedName;
+            this.result = result;
+        }
+
+        private static PendingRow rejected(long lineNumber, String name, Status status, String message) {
+            return new PendingRow(lineNumber, null, null, ProductImportRowResultDTO.builder()
+                    .line(lineNumber).name(name).status(status).message(message).build());
+        }
+    }
+
+    private interface RowParser {
+        ProductRequestDTO parse(String line) throws IOException;
+    }
+
+    private final class NdjsonRowParser implements RowParser {
+        @Override
+        public ProductRequestDTO parse(String line) throws JsonProcessingException {
+            return objectMapper.readValue(line, ProductRequestDTO.class);
+        }
+    }
+
+    /**
+     * CSV com cabeçalho (colunas name, description, stock, price, em qualquer ordem). Suporta campos entre
+     * aspas com aspas duplicadas como escape; não suporta quebras de linha dentro de campos.
+     */
+    private static final class CsvRowParser implements RowParser {
+        private final Map<String, Integer> columns = new HashMap<>();
+
+        private CsvRowParser(String header) {
+            if (header == null) {
+                return;
+            }
+            List<String> names = split(header);
+            for (int i = 0; i < names.size(); i++) {
+                columns.put(names.get(i).trim().toLowerCase(), i);
+            }
+        }
+
+        @Override
+        public ProductRequestDTO parse(String line) {
+            List<String> fields = split(line);
+            ProductRequestDTO dto = new ProductRequestDTO();
+            dto.setName(field(fields, "name"));
+            dto.setDescription(field(fields, "description"));
+            String stock = field(fields, "stock");
+            dto.setStock(stock == null ? null : Integer.valueOf(stock.trim()));
+            String price = field(fields, "price");
+            dto.setPrice(price == null ? null : new BigDecimal(price.trim()));
+            return dto;
+        }
+
+        private String field(List<String> fields, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= fields.size() || fields.get(index).isEmpty()) {
+                return null;
+            }
+            return fields.get(index);
+        }
+
+        private static List<String> split(String line) {
+            List<String> fields = new ArrayList<>();
+            StringBuilder current = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        current.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(current.toString());
+                    current.setLength(0);
+                } else {
+                    current.append(c);
+                }
+            }
+            fields.add(current.toString());
+            return fields;
+        }
+    }
+}
@@ -3,21 +3,35 @@ package br.com.senai.desafio.tech_challenge.service;
 import br.com.senai.desafio.tech_challenge.dto.*;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import java.math.BigDecimal;
 
 public interface ProductService {
     ProductResponseDTO createProduct(ProductRequestDTO productRequestDTO);
     ProductResponseDTO getProductById(Long id);
-    PaginatedResponseDTO<ProductResponseDTO> listProducts(
-            Pageable pageable, String search, BigDecimal minPrice, BigDecimal maxPrice,
+    long getProductVersion(Long id);
+    Listing listProducts(
+            Pageable pageable, CountMode countMode, String search, BigDecimal minPrice, BigDecimal maxPrice,
+            Boolean hasDiscount, Boolean onlyOutOfStock, Boolean withCouponApplied
+    );
+    Listing listProductsByCursor(
+            String after, int limit, Sort sort, String search, BigDecimal minPrice, BigDecimal maxPrice,
             Boolean hasDiscount, Boolean onlyOutOfStock, Boolean withCouponApplied
     );
     void deleteProduct(Long id);
     ProductResponseDTO restoreProduct(Long id);
-    ProductResponseDTO updateProduct(Long id, ProductUpdateDTO productUpdateDTO);
+    default ProductResponseDTO updateProduct(Long id, ProductUpdateDTO productUpdateDTO) {
+        return updateProduct(id, productUpdateDTO, null);
+    }
+    // expectedVersion vem do If-Match; null quando o cliente não exige uma versão
+    ProductResponseDTO updateProduct(Long id, ProductUpdateDTO productUpdateDTO, Long expectedVersion);
     ProductResponseDTO applyCoupon(Long productId, ApplyCouponDTO applyCouponDTO);
     void removeDiscount(Long productId);
     ProductResponseDTO applyPercentageDiscount(Long productId, ApplyPercentageDiscountDTO dto);
 
+    // Página da listagem e a versão do catálogo lida antes dela, na mesma transação (ETag da resposta).
+    record Listing(long catalogStamp, PaginatedResponseDTO<ProductResponseDTO> page) {
+    }
+
 
 }
\ No newline at end of file
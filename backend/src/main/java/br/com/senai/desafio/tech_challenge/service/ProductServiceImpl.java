@@ -1,29 +1,49 @@
 package br.com.senai.desafio.tech_challenge.service;
 
+import br.com.senai.desafio.tech_challenge.cache.CatalogChange;
+import br.com.senai.desafio.tech_challenge.cache.CatalogInvalidationBus;
+import br.com.senai.desafio.tech_challenge.cache.CatalogSnapshot;
+import br.com.senai.desafio.tech_challenge.cache.CatalogSnapshotStore;
+import br.com.senai.desafio.tech_challenge.cache.CatalogStamp;
+import br.com.senai.desafio.tech_challenge.cache.CouponCache;
+import br.com.senai.desafio.tech_challenge.cache.ListingCountCache;
 import br.com.senai.desafio.tech_challenge.dto.*;
+import br.com.senai.desafio.tech_challenge.exception.PreconditionFailedException;
 import br.com.senai.desafio.tech_challenge.exception.ResourceConflictException;
 import br.com.senai.desafio.tech_challenge.exception.ResourceNotFoundException;
 import br.com.senai.desafio.tech_challenge.exception.UnprocessableEntityException;
+import br.com.senai.desafio.tech_challenge.metrics.CatalogMetrics;
 import br.com.senai.desafio.tech_challenge.model.Coupon;
+import br.com.senai.desafio.tech_challenge.model.CouponRedemption;
 import br.com.senai.desafio.tech_challenge.model.CouponType;
 import br.com.senai.desafio.tech_challenge.model.Product;
 import br.com.senai.desafio.tech_challenge.model.ProductDiscount;
+import br.com.senai.desafio.tech_challenge.pricing.PricingEngine;
+import br.com.senai.desafio.tech_challenge.repository.CouponRedemptionRepository;
 import br.com.senai.desafio.tech_challenge.repository.CouponRepository;
+import br.com.senai.desafio.tech_challenge.repository.ProductCursor;
 import br.com.senai.desafio.tech_challenge.repository.ProductDiscountRepository;
 import br.com.senai.desafio.tech_challenge.repository.ProductRepository;
 import br.com.senai.desafio.tech_challenge.repository.ProductSpecification;
+import br.com.senai.desafio.tech_challenge.search.ProductSearchEngine;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,8 +51,26 @@ import java.util.stream.Collectors;
 public class ProductServiceImpl implements ProductService {
 
     private final ProductRepository productRepository;
+    private final CouponCache couponCache;
     private final CouponRepository couponRepository;
+    private final CouponRedemptionRepository couponRedemptionRepository;
     private final ProductDiscountRepository productDiscountRepository;
+    private final ProductSearchEngine productSearchEngine;
+    private final CatalogInvalidationBus invalidationBus;
+    private final CatalogMetrics catalogMetrics;
+    private final ListingCountCache listingCountCache;
+    private final ParallelQueryExecutor parallelQueryExecutor;
+    private final CatalogSnapshotStore catalogSnapshots;
+    private final CatalogStamp catalogStamp;
+
+    // Pseudo-propriedade de ordenação: "sort=relevance" ordena pela relevância da busca textual.
+    private static final String RELEVANCE_SORT = "relevance";
+
+    // Menor preço final aceito ao aplicar um desconto.
+    private static final BigDecimal MIN_FINAL_PRICE = new BigDecimal("0.01");
+
+    // Índice único parcial em product_discounts(product_id) WHERE removed_at IS NULL (db/migration/V4__single_active_discount.sql).
+    private static final String ACTIVE_DISCOUNT_CONSTRAINT = "uq_product_discounts_active_product";
 
     @Override
     public ProductResponseDTO createProduct(ProductRequestDTO productRequestDTO) {
@@ -48,9 +86,12 @@ public class ProductServiceImpl implements ProductService {
                 .price(productRequestDTO.getPrice())
                 .stock(productRequestDTO.getStock())
                 .build();
+        applyReadModel(newProduct, null);
 
         try {
             Product savedProduct = productRepository.save(newProduct);
+            productSearchEngine.index(savedProduct);
+            invalidationBus.publish(CatalogChange.product(savedProduct.getId()));
             return mapToProductResponseDTO(savedProduct);
 
         } catch (DataIntegrityViolationException e) {
@@ -60,6 +101,7 @@ public class ProductServiceImpl implements ProductService {
 
 
     @Override
+    @Transactional(readOnly = true)
     public ProductResponseDTO getProductById(Long id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Produto com ID " + id + " não encontrado."));
@@ -67,30 +109,132 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
-    public PaginatedResponseDTO<ProductResponseDTO> listProducts(
-            Pageable pageable, String search, BigDecimal minPrice, BigDecimal maxPrice,
+    @Transactional(readOnly = true)
+    public long getProductVersion(Long id) {
+        return productRepository.findVersionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Produto com ID " + id + " não encontrado."));
+    }
+
+    @Override
+    public Listing listProducts(
+            Pageable pageable, CountMode countMode, String search, BigDecimal minPrice, BigDecimal maxPrice,
             Boolean hasDiscount, Boolean onlyOutOfStock, Boolean withCouponApplied) {
 
-        Specification<Product> spec =
-                ProductSpecification.hasText(search)
-                        .and(ProductSpecification.hasMinPrice(minPrice))
-                        .and(ProductSpecification.hasMaxPrice(maxPrice))
-                        .and(ProductSpecification.hasDiscount(hasDiscount))
-                        .and(ProductSpecification.isOutOfStock(onlyOutOfStock))
-                        .and(ProductSpecification.withCouponApplied(withCouponApplied));
-
-        Page<Product> productPage = productRepository.findAll(spec, pageable);
-
-        var productDTOs = productPage.getContent().stream()
-                .map(this::mapToProductResponseDTO)
-                .collect(Collectors.toList());
-        MetaDTO meta = MetaDTO.builder()
-                .page(productPage.getNumber())
-                .limit(productPage.getSize())
-                .totalItems(productPage.getTotalElements())
-                .totalPages(productPage.getTotalPages())
-                .build();
-        return new PaginatedResponseDTO<>(productDTOs, meta);
+        // A relevância é aplicada pela Specification, e qualquer outra chave no Pageable substituiria essa ordenação.
+        if (pageable.getSort().getOrderFor(RELEVANCE_SORT) != null && pageable.getSort().stream().count() > 1) {
+            throw new UnprocessableEntityException("A ordenação por relevância não pode ser combinada com outras ordenações.");
+        }
+
+        boolean snapshotEligible = catalogSnapshots.supports(pageable.getSort(), search);
+        Specification<Product> filter = buildSpecification(search, minPrice, maxPrice, hasDiscount, onlyOutOfStock, withCouponApplied);
+        Specification<Product> rankedSpec = filter;
+        Pageable rankedPageable = pageable;
+        if (pageable.getSort().getOrderFor(RELEVANCE_SORT) != null) {
+            // Sem termos de busca não há ranking: ordena por nome.
+            Specification<Product> ranking = productSearchEngine.rankedByRelevance(search);
+            rankedSpec = rankedSpec.and(ranking);
+            rankedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                    ranking == null ? Sort.by("name") : Sort.unsorted());
+        }
+        Specification<Product> spec = rankedSpec;
+        Pageable query = rankedPageable;
+
+        // O COUNT(*) paralelo é submetido antes de a requisição pegar a própria conexão e aguardado depois de
+        // devolvê-la: uma requisição nunca espera a contagem segurando uma conexão, então o pool cheio de listagens
+        // não trava. Consultas que a foto em memória pode responder não pagam a contagem antecipada.
+        CompletableFuture<Long> total = countMode == CountMode.EXACT && parallelQueryExecutor.isEnabled() && !snapshotEligible
+                ? parallelQueryExecutor.submit(() -> productRepository.count(filter))
+                : null;
+
+        Listing listing = catalogStamp.readConsistently(stamp -> {
+            // Com o catálogo em memória ativo e em dia, a listagem não vai ao banco (exceto a ordenação por relevância da busca).
+            if (snapshotEligible) {
+                Optional<CatalogSnapshot> snapshot = catalogSnapshots.caughtUp(stamp);
+                if (snapshot.isPresent()) {
+                    return new Listing(stamp, snapshot.get().listProducts(
+                            pageable, countMode, search, minPrice, maxPrice, hasDiscount, onlyOutOfStock, withCouponApplied));
+                }
+            }
+
+            Slice<Product> productSlice;
+            MetaDTO.MetaDTOBuilder meta = MetaDTO.builder().countMode(countMode);
+            switch (countMode) {
+                case NONE -> productSlice = productRepository.findSlice(spec, query);
+                case ESTIMATE -> {
+                    productSlice = productRepository.findSlice(spec, query);
+                    long totalItems = listingCountCache.count(
+                            ListingCountCache.CountKey.of(search, minPrice, maxPrice, hasDiscount, onlyOutOfStock, withCouponApplied),
+                            () -> productRepository.count(filter));
+                    meta.totalItems(totalItems).totalPages((int) Math.ceil((double) totalItems / query.getPageSize()));
+                }
+                default -> {
+                    if (total != null) {
+                        productSlice = productRepository.findSlice(spec, query); // totais preenchidos fora da transação
+                    } else {
+                        Page<Product> productPage = productRepository.findAll(spec, query);
+                        meta.totalItems(productPage.getTotalElements()).totalPages(productPage.getTotalPages());
+                        productSlice = productPage;
+                    }
+                }
+            }
+
+            var productDTOs = productSlice.getContent().stream()
+                    .map(ProductServiceImpl::mapToProductResponseDTO)
+                    .collect(Collectors.toList());
+            meta.page(productSlice.getNumber())
+                    .limit(productSlice.getSize())
+                    .hasNext(productSlice.hasNext());
+            return new Listing(stamp, new PaginatedResponseDTO<>(productDTOs, meta.build()));
+        });
+
+        if (total != null) {
+            long totalItems = join(total);
+            listing.page().getMeta().setTotalItems(totalItems);
+            listing.page().getMeta().setTotalPages((int) Math.ceil((double) totalItems / query.getPageSize()));
+        }
+        return listing;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    @Override
+    public Listing listProductsByCursor(
+            String after, int limit, Sort sort, String search, BigDecimal minPrice, BigDecimal maxPrice,
+            Boolean hasDiscount, Boolean onlyOutOfStock, Boolean withCouponApplied) {
+
+        Sort.Order order = resolveKeysetOrder(sort);
+        ProductCursor cursor = decodeCursor(after, order);
+
+        Specification<Product> spec = buildSpecification(search, minPrice, maxPrice, hasDiscount, onlyOutOfStock, withCouponApplied)
+                .and(ProductSpecification.after(cursor));
+        Sort keysetSort = Sort.by(order, new Sort.Order(order.getDirection(), "id"));
+
+        return catalogStamp.readConsistently(stamp -> {
+            // Busca um item a mais que o limite apenas para saber se existe uma próxima página, sem COUNT(*).
+            List<Product> rows = productRepository.findBy(spec, query -> query.sortBy(keysetSort).limit(limit + 1).all());
+            boolean hasNext = rows.size() > limit;
+            List<Product> content = hasNext ? rows.subList(0, limit) : rows;
+
+            var productDTOs = content.stream()
+                    .map(ProductServiceImpl::mapToProductResponseDTO)
+                    .collect(Collectors.toList());
+            MetaDTO meta = MetaDTO.builder()
+                    .limit(limit)
+                    .countMode(CountMode.NONE)
+                    .hasNext(hasNext)
+                    .nextCursor(hasNext ? ProductCursor.after(order, content.get(content.size() - 1)).encode() : null)
+                    .build();
+            return new Listing(stamp, new PaginatedResponseDTO<>(productDTOs, meta));
+        });
     }
 
     @Override
@@ -100,6 +244,8 @@ public class ProductServiceImpl implements ProductService {
             throw new ResourceNotFoundException("Produto com ID " + id + " não encontrado para exclusão.");
         }
         productRepository.deleteById(id);
+        productSearchEngine.remove(id);
+        invalidationBus.publish(CatalogChange.product(id));
     }
 
     @Override
@@ -114,14 +260,22 @@ public class ProductServiceImpl implements ProductService {
         if (rowsAffected == 0) {
             throw new ResourceNotFoundException("Falha ao restaurar o produto com ID " + id + ". Nenhuma linha foi afetada.");
         }
-        return getProductById(id);
+        Product restoredProduct = productRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Produto com ID " + id + " não encontrado."));
+        productSearchEngine.index(restoredProduct);
+        invalidationBus.publish(CatalogChange.product(id));
+        return mapToProductResponseDTO(restoredProduct);
     }
 
     @Override
     @Transactional
-    public ProductResponseDTO updateProduct(Long id, ProductUpdateDTO productUpdateDTO) {
+    public ProductResponseDTO updateProduct(Long id, ProductUpdateDTO productUpdateDTO, Long expectedVersion) {
         Product productToUpdate = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Produto com ID " + id + " não encontrado para atualização."));
+        // Alterações concorrentes entre esta leitura e o flush são barradas pelo @Version.
+        if (expectedVersion != null && !expectedVersion.equals(productToUpdate.getVersion())) {
+            throw new PreconditionFailedException("O produto com ID " + id + " foi alterado por outra requisição. Recarregue e tente novamente.");
+        }
 
         if (productUpdateDTO.getName() != null) {
             String normalizedName = normalizeName(productUpdateDTO.getName());
@@ -143,9 +297,13 @@ public class ProductServiceImpl implements ProductService {
 
         if (productUpdateDTO.getPrice() != null) {
             productToUpdate.setPrice(productUpdateDTO.getPrice());
+            refreshFinalPrice(productToUpdate);
         }
 
-        Product updatedProduct = productRepository.save(productToUpdate);
+        // Flush imediato para a resposta (e o ETag) já refletir a versão incrementada.
+        Product updatedProduct = productRepository.saveAndFlush(productToUpdate);
+        productSearchEngine.index(updatedProduct);
+        invalidationBus.publish(CatalogChange.product(id));
         return mapToProductResponseDTO(updatedProduct);
     }
 
@@ -155,12 +313,8 @@ public class ProductServiceImpl implements ProductService {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Produto com ID " + productId + " não encontrado."));
 
-        productDiscountRepository.findByProductIdAndRemovedAtIsNull(productId).ifPresent(discount -> {
-            throw new ResourceConflictException("Este produto já possui um desconto ativo.");
-        });
-
         String normalizedCode = applyCouponDTO.getCode().trim().toUpperCase();
-        Coupon coupon = couponRepository.findByCode(normalizedCode)
+        Coupon coupon = couponCache.findByCode(normalizedCode)
                 .orElseThrow(() -> new ResourceNotFoundException("Cupom com código '" + applyCouponDTO.getCode() + "' não encontrado."));
 
         Instant now = Instant.now();
@@ -175,12 +329,22 @@ public class ProductServiceImpl implements ProductService {
                 .value(coupon.getValue())
                 .build();
 
-        if (calculateFinalPrice(product.getPrice(), newDiscount).compareTo(new BigDecimal("0.01")) < 0) {
+        if (calculateFinalPrice(product.getPrice(), newDiscount).compareTo(MIN_FINAL_PRICE) < 0) {
             throw new UnprocessableEntityException("A aplicação deste cupom resulta num preço final inválido (menor que R$ 0,01).");
         }
 
-        productDiscountRepository.save(newDiscount);
-        return mapToProductResponseDTO(product, newDiscount);
+        insertActiveDiscount(newDiscount, catalogMetrics::couponDiscountConflict);
+
+        // Consome o uso por último: o UPDATE condicional trava a linha do cupom até o commit,
+        // então quanto mais perto do fim da transação, menor a contenção entre aplicações simultâneas.
+        if (couponRepository.redeem(coupon.getId()) == 0) {
+            throw new UnprocessableEntityException("Este cupom já atingiu o limite de usos.");
+        }
+        couponRedemptionRepository.save(CouponRedemption.builder().coupon(coupon).product(product).build());
+        applyReadModel(product, newDiscount);
+        invalidationBus.publish(CatalogChange.discount(productId));
+        catalogMetrics.couponApplied();
+        return mapToProductResponseDTO(product);
     }
 
     @Override
@@ -189,10 +353,6 @@ public class ProductServiceImpl implements ProductService {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Produto com ID " + productId + " não encontrado."));
 
-        productDiscountRepository.findByProductIdAndRemovedAtIsNull(productId).ifPresent(discount -> {
-            throw new ResourceConflictException("Este produto já possui um desconto ativo.");
-        });
-
         ProductDiscount newDiscount = ProductDiscount.builder()
                 .product(product)
                 .type(CouponType.PERCENT)
@@ -200,12 +360,14 @@ public class ProductServiceImpl implements ProductService {
                 .coupon(null)
                 .build();
 
-        if (calculateFinalPrice(product.getPrice(), newDiscount).compareTo(new BigDecimal("0.01")) < 0) {
+        if (calculateFinalPrice(product.getPrice(), newDiscount).compareTo(MIN_FINAL_PRICE) < 0) {
             throw new UnprocessableEntityException("A aplicação deste desconto resulta num preço final inválido (menor que R$ 0,01).");
         }
 
-        productDiscountRepository.save(newDiscount);
-        return mapToProductResponseDTO(product, newDiscount);
+        insertActiveDiscount(newDiscount, catalogMetrics::percentageDiscountConflict);
+        applyReadModel(product, newDiscount);
+        invalidationBus.publish(CatalogChange.discount(productId));
+        return mapToProductResponseDTO(product);
     }
 
     @Override
@@ -216,58 +378,128 @@ public class ProductServiceImpl implements ProductService {
 
         activeDiscount.setRemovedAt(Instant.now());
         productDiscountRepository.save(activeDiscount);
+        applyReadModel(activeDiscount.getProduct(), null);
+        invalidationBus.publish(CatalogChange.discount(productId));
     }
 
-    private BigDecimal calculateFinalPrice(BigDecimal originalPrice, ProductDiscount discount) {
-        if (discount.getType() == CouponType.PERCENT) {
-            BigDecimal discountFactor = discount.getValue().divide(new BigDecimal("100"));
-            BigDecimal discountAmount = originalPrice.multiply(discountFactor);
-            return originalPrice.subtract(discountAmount).setScale(2, RoundingMode.HALF_UP);
+    // Inserção otimista: o índice único parcial garante no máximo um desconto ativo por produto,
+    // sem a consulta prévia (e sem a janela de corrida entre a consulta e o insert).
+    private void insertActiveDiscount(ProductDiscount discount, Runnable onConflict) {
+        try {
+            productDiscountRepository.saveAndFlush(discount);
+        } catch (DataIntegrityViolationException ex) {
+            if (!isActiveDiscountConflict(ex)) {
+                throw ex;
+            }
+            onConflict.run();
+            throw new ResourceConflictException("Este produto já possui um desconto ativo.");
+        }
+    }
+
+    private static boolean isActiveDiscountConflict(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return ACTIVE_DISCOUNT_CONSTRAINT.equalsIgnoreCase(violation.getConstraintName());
+            }
+        }
+        return false;
+    }
+
+    static BigDecimal calculateFinalPrice(BigDecimal originalPrice, ProductDiscount discount) {
+        return PricingEngine.finalPrice(originalPrice, discount.getType(), discount.getValue());
+    }
+
+    // Mantém as colunas desnormalizadas do modelo de leitura da listagem (preço final e desconto ativo) em dia.
+    private void applyReadModel(Product product, ProductDiscount activeDiscount) {
+        if (activeDiscount == null) {
+            product.setActiveDiscountType(null);
+            product.setActiveDiscountValue(null);
+            product.setActiveDiscountAppliedAt(null);
+            product.setActiveCouponCode(null);
         } else {
-            return originalPrice.subtract(discount.getValue());
+            product.setActiveDiscountType(activeDiscount.getType());
+            product.setActiveDiscountValue(activeDiscount.getValue());
+            product.setActiveDiscountAppliedAt(activeDiscount.getAppliedAt());
+            product.setActiveCouponCode(activeDiscount.getCoupon() != null ? activeDiscount.getCoupon().getCode() : null);
         }
+        refreshFinalPrice(product);
     }
 
-    private ProductResponseDTO mapToProductResponseDTO(Product product, ProductDiscount activeDiscount) {
-        BigDecimal finalPrice = product.getPrice();
-        AppliedDiscountDTO discountDTO = null;
-        String couponCode = null;
+    private void refreshFinalPrice(Product product) {
+        if (product.getActiveDiscountType() == null) {
+            product.setFinalPrice(product.getPrice());
+            return;
+        }
+        product.setFinalPrice(PricingEngine.finalPrice(
+                product.getPrice(), product.getActiveDiscountType(), product.getActiveDiscountValue()));
+    }
 
-        if (activeDiscount != null) {
-            finalPrice = calculateFinalPrice(product.getPrice(), activeDiscount);
+    // Sem dependências de estado: também usado pela exportação do catálogo (ProductExportServiceImpl)
+    // e pela API reativa, que precisa devolver exatamente o mesmo JSON.
+    public static ProductResponseDTO mapToProductResponseDTO(Product product) {
+        AppliedDiscountDTO discountDTO = null;
+        if (product.getActiveDiscountType() != null) {
             discountDTO = AppliedDiscountDTO.builder()
-                    .type(activeDiscount.getType())
-                    .value(activeDiscount.getValue())
-                    .appliedAt(activeDiscount.getAppliedAt())
+                    .type(product.getActiveDiscountType())
+                    .value(product.getActiveDiscountValue())
+                    .appliedAt(product.getActiveDiscountAppliedAt())
                     .build();
-
-            if (activeDiscount.getCoupon() != null) {
-                couponCode = activeDiscount.getCoupon().getCode();
-            }
         }
 
         return ProductResponseDTO.builder()
                 .id(product.getId())
+                .version(product.getVersion())
                 .name(product.getName())
                 .description(product.getDescription())
                 .stock(product.getStock())
                 .price(product.getPrice())
-                .finalPrice(finalPrice)
+                .finalPrice(product.getFinalPrice() != null ? product.getFinalPrice() : product.getPrice())
                 .isOutOfStock(product.getStock() == 0)
-                .hasCouponApplied(activeDiscount != null && activeDiscount.getCoupon() != null)
-                .couponCode(couponCode)
+                .hasCouponApplied(product.getActiveCouponCode() != null)
+                .couponCode(product.getActiveCouponCode())
                 .discount(discountDTO)
                 .createdAt(product.getCreatedAt())
                 .updatedAt(product.getUpdatedAt())
                 .build();
     }
 
-    private ProductResponseDTO mapToProductResponseDTO(Product product) {
-        Optional<ProductDiscount> activeDiscount = productDiscountRepository.findActiveDiscountWithCouponByProductId(product.getId());
-        return mapToProductResponseDTO(product, activeDiscount.orElse(null));
+    private Specification<Product> buildSpecification(
+            String search, BigDecimal minPrice, BigDecimal maxPrice,
+            Boolean hasDiscount, Boolean onlyOutOfStock, Boolean withCouponApplied) {
+        return productSearchEngine.matching(search)
+                .and(ProductSpecification.hasMinPrice(minPrice))
+                .and(ProductSpecification.hasMaxPrice(maxPrice))
+                .and(ProductSpecification.hasDiscount(hasDiscount))
+                .and(ProductSpecification.isOutOfStock(onlyOutOfStock))
+                .and(ProductSpecification.withCouponApplied(withCouponApplied));
+    }
+
+    private Sort.Order resolveKeysetOrder(Sort sort) {
+        Sort.Order order = sort.stream().findFirst().orElse(Sort.Order.asc("name"));
+        if (!ProductCursor.SORTABLE_PROPERTIES.contains(order.getProperty())) {
+            throw new UnprocessableEntityException("A paginação por cursor suporta apenas ordenação por " + ProductCursor.SORTABLE_PROPERTIES + ".");
+        }
+        return order;
+    }
+
+    private ProductCursor decodeCursor(String after, Sort.Order order) {
+        if (after == null || after.isBlank()) {
+            return null;
+        }
+        ProductCursor cursor;
+        try {
+            cursor = ProductCursor.decode(after);
+        } catch (IllegalArgumentException ex) {
+            throw new UnprocessableEntityException(ex.getMessage());
+        }
+        if (!cursor.matches(order)) {
+            throw new UnprocessableEntityException("O cursor informado foi gerado para outra ordenação.");
+        }
+        return cursor;
     }
 
-    private String normalizeName(String name) {
+    // Compartilhado com a importação em massa (ProductImportServiceImpl).
+    static String normalizeName(String name) {
         if (name == null) {
             return null;
         }
@@ -0,0 +1,123 @@
+package br.com.senai.desafio.tech_challenge.trace;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Registro das instruções SQL executadas durante uma requisição. Fica associado à thread que atende a
+ * requisição; threads auxiliares podem se associar ao mesmo trace com {@link #attach(SqlTrace)}.
+ * Apenas as primeiras {@code maxStatements} instruções são guardadas, mas todas entram nos totais.
+ */
+public final class SqlTrace {
+
+    private static final ThreadLocal<SqlTrace> CURRENT = new ThreadLocal<>();
+
+    private final int maxStatements;
+    private final List<StatementTrace> statements = new ArrayList<>();
+    private int statementCount;
+    private long dbNanos;
+    private long serializationStartNanos;
+
+    private SqlTrace(int maxStatements) {
+        this.maxStatements = maxStatements;
+    }
+
+    public static SqlTrace start(int maxStatements) {
+        SqlTrace trace = new SqlTrace(maxStatements);
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    public static SqlTrace current() {
+        return CURRENT.get();
+    }
+
+    public static void attach(SqlTrace trace) {
+        if (trace == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(trace);
+        }
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    synchronized StatementTrace record(String sql, long durationNanos, List<Object> parameters) {
+        StatementTrace statement = new StatementTrace(sql, durationNanos, Collections.unmodifiableList(parameters));
+        statementCount++;
+        dbNanos += durationNanos;
+        if (statements.size() < maxStatements) {
+            statements.add(statement);
+        }
+        return statement;
+    }
+
+    void markSerializationStart() {
+        if (serializationStartNanos == 0) {
+            serializationStartNanos = System.nanoTime();
+        }
+    }
+
+    long serializationStartNanos() {
+        return serializationStartNanos;
+    }
+
+    public synchronized int statementCount() {
+        return statementCount;
+    }
+
+    public synchronized long dbNanos() {
+        return dbNanos;
+    }
+
+    public synchronized List<StatementTrace> statements() {
+        return List.copyOf(statements);
+    }
+
+    public static final class StatementTrace {
+        private final String sql;
+        private final long durationNanos;
+        private final List<Object> parameters;
+        private volatile long rows = -1;
+
+        private StatementTrace(String sql, long durationNanos, List<Object> parameters) {
+            this.sql = sql;
+            this.durationNanos = durationNanos;
+            this.parameters = parameters;
+        }
+
+        void rows(long rows) {
+            this.rows = rows;
+        }
+
+        void addRow() {
+            rows = rows < 0 ? 1 : rows + 1;
+        }
+
+        public String sql() {
+            return sql;
+        }
+
+        public long durationNanos() {
+            return durationNanos;
+        }
+
+        // Valores dos "?" na ordem das posições (em lote, os da última linha). Ficam fora do toString e dos logs.
+        public List<Object> parameters() {
+            return parameters;
+        }
+
+        // -1 quando o driver não informa (ex.: execute() genérico)
+        public long rows() {
+            return rows;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.2fms rows=%s %s", durationNanos / 1_000_000.0, rows < 0 ? "?" : rows, sql);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package br.com.senai.desafio.tech_challenge.trace;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Liga o rastreamento de SQL por requisição ({@code app.trace.enabled}): envolve o DataSource da aplicação
+ * com o {@link TracingDataSource} e registra o {@link SqlTraceFilter}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.trace.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlTraceConfiguration {
+
+    @Bean
+    static BeanPostProcessor tracingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof TracingDataSource)) {
+                    return new TracingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    FilterRegistrationBean<SqlTraceFilter> sqlTraceFilter(
+            @Value("${app.trace.slow-request-threshold:PT0.5S}") Duration slowRequestThreshold,
+            @Value("${app.trace.max-statements:100}") int maxStatements) {
+        FilterRegistrationBean<SqlTraceFilter> registration =
+                new FilterRegistrationBean<>(new SqlTraceFilter(slowRequestThreshold, maxStatements));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,134 @@
+package br.com.senai.desafio.tech_challenge.trace;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Abre um {@link SqlTrace} por requisição da API, devolve o header {@code Server-Timing}
+ * (tempo de banco, número de instruções, serialização e total) e registra em WARN as requisições
+ * acima do limite configurado, com a lista de instruções. A resposta é mantida em buffer para que o
+ * header possa ser escrito depois da serialização; por isso os endpoints em streaming ficam de fora.
+ * Respostas comprometidas antes do fim da cadeia ({@code sendError}, {@code sendRedirect}) recebem o
+ * header nesse momento, com os tempos medidos até ali, e o mantêm no despacho de erro do container.
+ */
+@Slf4j
+public class SqlTraceFilter extends OncePerRequestFilter {
+
+    private static final String SERVER_TIMING = "Server-Timing";
+
+    private final Duration slowRequestThreshold;
+    private final int maxStatements;
+
+    public SqlTraceFilter(Duration slowRequestThreshold, int maxStatements) {
+        this.slowRequestThreshold = slowRequestThreshold;
+        this.maxStatements = maxStatements;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return !path.startsWith("/api/") || path.endsWith("/import") || path.endsWith("/export");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlTrace trace = SqlTrace.start(maxStatements);
+        long start = System.nanoTime();
+        TimedResponseWrapper responseWrapper = new TimedResponseWrapper(response, trace, start);
+        try {
+            filterChain.doFilter(request, responseWrapper);
+        } finally {
+            SqlTrace.clear();
+            long end = System.nanoTime();
+            long serializationNanos = serializationNanos(trace, end);
+            long totalNanos = end - start;
+
+            // Depois de um sendError o container ignora o header; vale o que foi escrito antes do erro.
+            if (!responseWrapper.isCommitted()) {
+                responseWrapper.setHeader(SERVER_TIMING, serverTiming(trace, serializationNanos, totalNanos));
+            }
+            responseWrapper.copyBodyToResponse();
+
+            if (totalNanos >= slowRequestThreshold.toNanos()) {
+                logSlowRequest(request, responseWrapper.getStatus(), trace, totalNanos, serializationNanos);
+            }
+        }
+    }
+
+    private void logSlowRequest(HttpServletRequest request, int status, SqlTrace trace, long totalNanos, long serializationNanos) {
+        log.atWarn()
+                .addKeyValue("method", request.getMethod())
+                .addKeyValue("path", request.getRequestURI())
+                .addKeyValue("query", request.getQueryString())
+                .addKeyValue("status", status)
+                .addKeyValue("totalMs", millis(totalNanos))
+                .addKeyValue("dbMs", millis(trace.dbNanos()))
+                .addKeyValue("serializationMs", millis(serializationNanos))
+                .addKeyValue("statementCount", trace.statementCount())
+                .addKeyValue("statements", trace.statements().stream().map(Object::toString).toList())
+                .log("Requisição lenta: {} {} levou {} ms com {} instruções SQL",
+                        request.getMethod(), request.getRequestURI(), Math.round(millis(totalNanos)), trace.statementCount());
+    }
+
+    private static String serverTiming(SqlTrace trace, long serializationNanos, long totalNanos) {
+        return String.format(Locale.ROOT, "db;dur=%.2f, db-statements;desc=\"%d\", ser;dur=%.2f, total;dur=%.2f",
+                millis(trace.dbNanos()), trace.statementCount(), millis(serializationNanos), millis(totalNanos));
+    }
+
+    private static long serializationNanos(SqlTrace trace, long end) {
+        return trace.serializationStartNanos() > 0 ? end - trace.serializationStartNanos() : 0;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    // Erros enviados pelo Spring MVC (404 sem handler, 405, 400 de conversão) e redirecionamentos comprometem a
+    // resposta ainda dentro da cadeia, antes do bloco finally do filtro.
+    private static final class TimedResponseWrapper extends ContentCachingResponseWrapper {
+
+        private final SqlTrace trace;
+        private final long start;
+
+        private TimedResponseWrapper(HttpServletResponse response, SqlTrace trace, long start) {
+            super(response);
+            this.trace = trace;
+            this.start = start;
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeServerTiming();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeServerTiming();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeServerTiming();
+            super.sendRedirect(location);
+        }
+
+        private void writeServerTiming() {
+            if (!isCommitted()) {
+                long now = System.nanoTime();
+                setHeader(SERVER_TIMING, serverTiming(trace, serializationNanos(trace, now), now - start));
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package br.com.senai.desafio.tech_challenge.trace;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Proxy do DataSource que cronometra cada instrução executada e conta as linhas retornadas ou afetadas,
+ * registrando-as no {@link SqlTrace} da thread atual. Fora de uma requisição rastreada apenas delega.
+ */
+public class TracingDataSource extends DelegatingDataSource {
+
+    public TracingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection(username, password)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(TracingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getTargetException();
+        }
+    }
+
+    private record ConnectionHandler(Connection target) implements InvocationHandler {
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = TracingDataSource.invoke(target, method, args);
+            return switch (method.getName()) {
+                case "prepareStatement", "prepareCall" ->
+                        proxy(method.getReturnType(), new StatementHandler((Statement) result, (String) args[0], new TreeMap<>()));
+                case "createStatement" -> proxy(Statement.class, new StatementHandler((Statement) result, null, new TreeMap<>()));
+                default -> result;
+            };
+        }
+    }
+
+    // Os parâmetros (posição -> valor) só são guardados enquanto há um trace na thread.
+    private record StatementHandler(Statement target, String preparedSql, Map<Integer, Object> parameters) implements InvocationHandler {
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            SqlTrace trace = SqlTrace.current();
+            if (trace == null) {
+                return TracingDataSource.invoke(target, method, args);
+            }
+            if (method.getDeclaringClass() == PreparedStatement.class && args != null && args.length > 0
+                    && args[0] instanceof Integer index && method.getName().startsWith("set")) {
+                parameters.put(index, "setNull".equals(method.getName()) || args.length < 2 ? null : args[1]);
+            } else if ("clearParameters".equals(method.getName())) {
+                parameters.clear();
+            }
+            if (!method.getName().startsWith("execute")) {
+                return TracingDataSource.invoke(target, method, args);
+            }
+
+            long start = System.nanoTime();
+            Object result = TracingDataSource.invoke(target, method, args);
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+            SqlTrace.StatementTrace statement = trace.record(sql != null ? sql : "<batch>", System.nanoTime() - start,
+                    new ArrayList<>(parameters.values()));
+
+            if (result instanceof ResultSet resultSet) {
+                statement.rows(0);
+                return proxy(ResultSet.class, new ResultSetHandler(resultSet, statement));
+            }
+            if (result instanceof Integer count) {
+                statement.rows(count);
+            } else if (result instanceof Long count) {
+                statement.rows(count);
+            } else if (result instanceof int[] counts) {
+                statement.rows(Arrays.stream(counts).filter(count -> count > 0).sum());
+            } else if (result instanceof long[] counts) {
+                statement.rows(Arrays.stream(counts).filter(count -> count > 0).sum());
+            }
+            return result;
+        }
+    }
+
+    private record ResultSetHandler(ResultSet target, SqlTrace.StatementTrace statement) implements InvocationHandler {
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = TracingDataSource.invoke(target, method, args);
+            if ("next".equals(method.getName()) && Boolean.TRUE.equals(result)) {
+                statement.addRow();
+            }
+            return result;
+        }
+    }
+}
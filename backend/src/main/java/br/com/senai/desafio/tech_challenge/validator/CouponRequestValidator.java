@@ -26,7 +26,15 @@ public class CouponRequestValidator implements ConstraintValidator<ValidCouponRe
             }
         }
 
-        // 2. Validação das datas
+        // 2. Cupom de uso único não pode ter limite maior que 1
+        if (Boolean.TRUE.equals(dto.getOneShot()) && dto.getMaxUses() != null && dto.getMaxUses() != 1) {
+            context.disableDefaultConstraintViolation();
+            context.buildConstraintViolationWithTemplate("Cupons de uso único (oneShot) só podem ter limite de 1 uso.")
+                    .addPropertyNode("maxUses").addConstraintViolation();
+            isValid = false;
+        }
+
+        // 3. Validação das datas
         if (dto.getValidFrom() != null && dto.getValidUntil() != null) {
             if (dto.getValidUntil().isBefore(dto.getValidFrom())) {
                 context.disableDefaultConstraintViolation();
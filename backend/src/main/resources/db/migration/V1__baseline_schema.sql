@@ -0,0 +1,58 @@
+-- Esquema base das entidades JPA (o Hibernate apenas valida: spring.jpa.hibernate.ddl-auto=validate).
+-- Idempotente: bancos criados antes do Flyway pelo ddl-auto=update recebem o baseline na versão 0
+-- (spring.flyway.baseline-on-migrate) e esta migração só completa o que faltar.
+
+CREATE TABLE IF NOT EXISTS products (
+    id                         bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name                       varchar(100)   NOT NULL,
+    description                varchar(300),
+    stock                      integer        NOT NULL,
+    price                      numeric(10, 2) NOT NULL,
+    created_at                 timestamp(6) with time zone NOT NULL,
+    updated_at                 timestamp(6) with time zone NOT NULL,
+    deleted_at                 timestamp(6) with time zone
+);
+
+CREATE TABLE IF NOT EXISTS coupons (
+    id                         bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    code                       varchar(20)    NOT NULL,
+    coupon_type                varchar(255)   NOT NULL CHECK (coupon_type IN ('FIXED', 'PERCENT')),
+    discount_value             numeric(10, 2) NOT NULL,
+    one_shot                   boolean        NOT NULL,
+    valid_from                 timestamp(6) with time zone NOT NULL,
+    valid_until                timestamp(6) with time zone NOT NULL,
+    created_at                 timestamp(6) with time zone NOT NULL,
+    updated_at                 timestamp(6) with time zone NOT NULL,
+    deleted_at                 timestamp(6) with time zone
+);
+
+CREATE TABLE IF NOT EXISTS product_discounts (
+    id                         bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    product_id                 bigint         NOT NULL REFERENCES products (id),
+    coupon_id                  bigint         REFERENCES coupons (id),
+    discount_type              varchar(255)   NOT NULL CHECK (discount_type IN ('FIXED', 'PERCENT')),
+    discount_value             numeric(38, 2) NOT NULL,
+    applied_at                 timestamp(6) with time zone NOT NULL,
+    removed_at                 timestamp(6) with time zone
+);
+
+CREATE TABLE IF NOT EXISTS coupon_redemptions (
+    id                         bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    coupon_id                  bigint         NOT NULL REFERENCES coupons (id),
+    product_id                 bigint         NOT NULL REFERENCES products (id),
+    redeemed_at                timestamp(6) with time zone NOT NULL
+);
+
+-- Colunas acrescentadas depois da primeira versão do esquema.
+ALTER TABLE products ADD COLUMN IF NOT EXISTS version bigint DEFAULT 0 NOT NULL;
+ALTER TABLE products ADD COLUMN IF NOT EXISTS final_price numeric(10, 2);
+ALTER TABLE products ADD COLUMN IF NOT EXISTS active_discount_type varchar(255)
+    CHECK (active_discount_type IN ('FIXED', 'PERCENT'));
+ALTER TABLE products ADD COLUMN IF NOT EXISTS active_discount_value numeric(10, 2);
+ALTER TABLE products ADD COLUMN IF NOT EXISTS active_discount_applied_at timestamp(6) with time zone;
+ALTER TABLE products ADD COLUMN IF NOT EXISTS active_coupon_code varchar(20);
+
+ALTER TABLE coupons ADD COLUMN IF NOT EXISTS max_uses integer;
+ALTER TABLE coupons ADD COLUMN IF NOT EXISTS redemption_count integer DEFAULT 0 NOT NULL;
+
+ALTER TABLE product_discounts ADD COLUMN IF NOT EXISTS version bigint DEFAULT 0 NOT NULL;
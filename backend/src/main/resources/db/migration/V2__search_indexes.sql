@@ -0,0 +1,12 @@
+-- Índices da busca textual de produtos (PostgresProductSearchEngine).
+-- Migração idempotente (IF NOT EXISTS): segura em bancos criados antes do Flyway.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Substring (LIKE '%x%') em nome e descrição.
+CREATE INDEX IF NOT EXISTS idx_products_name_trgm ON products USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_products_description_trgm ON products USING gin (lower(description) gin_trgm_ops);
+
+-- Prefixo/full-text. A expressão deve ser a mesma registrada em ProductSearchFunctionContributor.
+CREATE INDEX IF NOT EXISTS idx_products_search_tsv ON products
+    USING gin (to_tsvector('simple', coalesce(name, '') || ' ' || coalesce(description, '')));
@@ -0,0 +1,27 @@
+-- Modelo de leitura da listagem de produtos: colunas desnormalizadas em products
+-- (final_price, active_discount_*, active_coupon_code). Migração idempotente.
+
+-- Preenche linhas anteriores ao modelo de leitura (ou importadas fora da API).
+UPDATE products p
+SET final_price = CASE d.discount_type
+        WHEN 'PERCENT' THEN round(p.price - p.price * d.discount_value / 100, 2)
+        ELSE p.price - d.discount_value
+    END,
+    active_discount_type = d.discount_type,
+    active_discount_value = d.discount_value,
+    active_discount_applied_at = d.applied_at,
+    active_coupon_code = c.code
+FROM product_discounts d
+LEFT JOIN coupons c ON c.id = d.coupon_id
+WHERE d.product_id = p.id
+  AND d.removed_at IS NULL
+  AND p.final_price IS NULL;
+
+UPDATE products SET final_price = price WHERE final_price IS NULL;
+
+-- Filtros e ordenação da listagem, restritos às linhas ativas (mesmo predicado do @Where).
+CREATE INDEX IF NOT EXISTS idx_products_final_price ON products (final_price, id) WHERE deleted_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_products_active_discount ON products (active_discount_type)
+    WHERE deleted_at IS NULL AND active_discount_type IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_products_active_coupon ON products (active_coupon_code)
+    WHERE deleted_at IS NULL AND active_coupon_code IS NOT NULL;
@@ -0,0 +1,17 @@
+-- Índices de product_discounts. Migração idempotente.
+
+-- Invariante "no máximo um desconto ativo por produto", garantida pelo banco: o serviço insere de forma
+-- otimista e traduz a violação deste índice em 409. O índice também atende as consultas que olham apenas
+-- o desconto ativo (findByProductIdAndRemovedAtIsNull e o backfill do modelo de leitura), substituindo o
+-- antigo idx_product_discounts_active_product.
+
+-- Encerra duplicatas criadas pela antiga verificação check-then-insert, mantendo o desconto mais recente.
+UPDATE product_discounts d
+SET removed_at = NOW()
+WHERE d.removed_at IS NULL
+  AND EXISTS (SELECT 1 FROM product_discounts n
+              WHERE n.product_id = d.product_id AND n.removed_at IS NULL AND n.id > d.id);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_product_discounts_active_product ON product_discounts (product_id)
+    WHERE removed_at IS NULL;
+DROP INDEX IF EXISTS idx_product_discounts_active_product;
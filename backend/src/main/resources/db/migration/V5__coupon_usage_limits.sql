@@ -0,0 +1,6 @@
+-- Limite de usos e livro-razão de cupons. Migração idempotente.
+
+-- Cupons de uso único criados antes do limite explícito.
+UPDATE coupons SET max_uses = 1 WHERE one_shot AND max_uses IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_coupon_redemptions_coupon ON coupon_redemptions (coupon_id);
@@ -0,0 +1,5 @@
+-- Carimbo de alterações do catálogo (ETag da listagem). Migração idempotente.
+CREATE SEQUENCE IF NOT EXISTS catalog_change_seq;
+
+-- last_value só é definido após o primeiro nextval; garante um valor inicial estável.
+SELECT nextval('catalog_change_seq') WHERE NOT (SELECT is_called FROM catalog_change_seq);
@@ -0,0 +1,33 @@
+-- Índices dos caminhos de acesso das consultas dos repositórios (conferidos por SchemaIndexIntegrationTest).
+
+-- Unicidade com nomes estáveis. Bancos criados pelo ddl-auto=update têm as mesmas restrições com nomes
+-- gerados pelo Hibernate (uk...); elas são removidas para não manter dois índices iguais em cada escrita.
+DO $$
+DECLARE
+    constraint_row record;
+BEGIN
+    FOR constraint_row IN
+        SELECT c.conrelid::regclass AS table_name, c.conname
+        FROM pg_constraint c
+        WHERE c.contype = 'u'
+          AND c.conrelid IN ('products'::regclass, 'coupons'::regclass)
+          AND c.conname LIKE 'uk%'
+    LOOP
+        EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I', constraint_row.table_name, constraint_row.conname);
+    END LOOP;
+END $$;
+
+-- O nome é gravado normalizado (trim, espaços colapsados, minúsculas) por ProductServiceImpl.normalizeName;
+-- o índice também atende findByName e a ordenação padrão da listagem (sort=name).
+CREATE UNIQUE INDEX IF NOT EXISTS uq_products_name ON products (name);
+-- O código é gravado em maiúsculas (CouponServiceImpl.normalizeCode); atende findByCodeAndDeletedAtIsNull.
+CREATE UNIQUE INDEX IF NOT EXISTS uq_coupons_code ON coupons (code);
+
+-- Linhas ativas (mesmo predicado do @Where): ordenações da listagem com o id como desempate do keyset.
+CREATE INDEX IF NOT EXISTS idx_products_active_name ON products (name, id) WHERE deleted_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_products_active_price ON products (price, id) WHERE deleted_at IS NULL;
+
+-- Histórico de descontos por produto (Product.discounts) e chave estrangeira para cupons.
+CREATE INDEX IF NOT EXISTS idx_product_discounts_product ON product_discounts (product_id, applied_at);
+CREATE INDEX IF NOT EXISTS idx_product_discounts_coupon ON product_discounts (coupon_id) WHERE coupon_id IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_coupon_redemptions_product ON coupon_redemptions (product_id);
@@ -0,0 +1,13 @@
+-- Carimbo do catálogo em uma linha comum, no lugar da sequence. Migração idempotente.
+-- Em réplicas físicas a sequence aparece adiantada (o WAL a registra em blocos de valores), então o carimbo
+-- lido na réplica não acompanhava os dados dela. Uma linha replica na mesma ordem dos commits.
+CREATE TABLE IF NOT EXISTS catalog_stamp (
+    id    smallint PRIMARY KEY CHECK (id = 1),
+    value bigint   NOT NULL
+);
+
+INSERT INTO catalog_stamp (id, value)
+SELECT 1, last_value FROM catalog_change_seq
+ON CONFLICT (id) DO NOTHING;
+
+-- catalog_change_seq fica até todas as instâncias usarem a tabela (nós antigos ainda a incrementam no deploy).
@@ -0,0 +1,14 @@
+-- Log de alterações do catálogo no lugar do incremento de catalog_stamp. Migração idempotente.
+-- Com o UPDATE na linha única, toda escrita do catálogo (em todas as instâncias) esperava o lock dessa linha até o
+-- commit da anterior. Agora cada escrita insere a própria linha, sem lock compartilhado, e a versão do catálogo é
+-- catalog_stamp.value (a base) mais a quantidade de linhas visíveis: cresce de um em um, na ordem em que os
+-- commits ficam visíveis, no primário e nas réplicas. A compactação apaga as linhas antigas e soma a quantidade à
+-- base na mesma instrução, sem mudar a versão.
+CREATE TABLE IF NOT EXISTS catalog_changes (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    change     varchar(40) NOT NULL,
+    -- Hora da inserção, não do início da transação: uma transação longa não gera linhas já vencidas.
+    changed_at timestamp(6) with time zone NOT NULL DEFAULT clock_timestamp()
+);
+
+CREATE INDEX IF NOT EXISTS idx_catalog_changes_changed_at ON catalog_changes (changed_at);
@@ -0,0 +1,73 @@
+package br.com.senai.desafio.tech_challenge.reactive;
+
+import br.com.senai.desafio.tech_challenge.dto.CountMode;
+import br.com.senai.desafio.tech_challenge.dto.MetaDTO;
+import br.com.senai.desafio.tech_challenge.dto.PaginatedResponseDTO;
+import br.com.senai.desafio.tech_challenge.dto.ProductResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PaginatedJsonStreamTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    @DisplayName("O streaming deve produzir os mesmos bytes que o Jackson para o PaginatedResponseDTO inteiro")
+    void write_shouldMatchServletSerialization() throws Exception {
+        List<ProductResponseDTO> rows = List.of(product(1L, "Café"), product(2L, "Chá"), product(3L, "Suco"));
+        AtomicInteger readRows = new AtomicInteger();
+
+        String streamed = stream(Flux.fromIterable(rows), 2, (read, last) -> {
+            readRows.set(read);
+            return Mono.just(meta(read > 2, last.getName()));
+        });
+
+        PaginatedResponseDTO<ProductResponseDTO> page = new PaginatedResponseDTO<>(rows.subList(0, 2), meta(true, "Chá"));
+        assertEquals(objectMapper.writeValueAsString(page), streamed);
+        assertEquals(3, readRows.get());
+    }
+
+    @Test
+    @DisplayName("Uma página vazia deve produzir data vazio, como na API servlet")
+    void write_shouldMatchServletSerializationForEmptyPage() throws Exception {
+        String streamed = stream(Flux.empty(), 10, (read, last) -> Mono.just(meta(false, null)));
+
+        PaginatedResponseDTO<ProductResponseDTO> page = new PaginatedResponseDTO<>(List.of(), meta(false, null));
+        assertEquals(objectMapper.writeValueAsString(page), streamed);
+    }
+
+    private String stream(Flux<ProductResponseDTO> rows, int limit,
+                          BiFunction<Integer, ProductResponseDTO, Mono<MetaDTO>> meta) {
+        return DataBufferUtils.join(PaginatedJsonStream.write(objectMapper, DefaultDataBufferFactory.sharedInstance,
+                        rows, row -> row, limit, meta))
+                .map(buffer -> buffer.toString(StandardCharsets.UTF_8))
+                .block();
+    }
+
+    private static MetaDTO meta(boolean hasNext, String nextCursor) {
+        return MetaDTO.builder().limit(2).countMode(CountMode.NONE).hasNext(hasNext).nextCursor(nextCursor).build();
+    }
+
+    private static ProductResponseDTO product(Long id, String name) {
+        return ProductResponseDTO.builder()
+                .id(id)
+                .name(name)
+                .stock(5)
+                .price(new BigDecimal("10.00"))
+                .finalPrice(new BigDecimal("9.50"))
+                .build();
+    }
+}
@@ -0,0 +1,74 @@
+package br.com.senai.desafio.tech_challenge.reactive;
+
+import br.com.senai.desafio.tech_challenge.dto.MetaDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Escreve um {@code PaginatedResponseDTO} em streaming, item a item, com os mesmos bytes que o Jackson produz
+ * para o objeto inteiro na API servlet: {@code {"data":[...],"meta":{...}}}. Como {@code meta} vem depois de
+ * {@code data}, ela pode ser calculada ao fim da página (ex.: {@code hasNext}). Cada item só é lido do banco e
+ * serializado quando o cliente pede mais bytes, então páginas grandes respeitam back-pressure.
+ */
+final class PaginatedJsonStream {
+
+    private static final byte[] OPEN = "{\"data\":[".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SEPARATOR = ",".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] META = "],\"meta\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] CLOSE = "}".getBytes(StandardCharsets.UTF_8);
+
+    private PaginatedJsonStream() {
+    }
+
+    /**
+     * @param rows       até {@code limit + 1} linhas: a excedente não é escrita, só indica que existe próxima página
+     * @param toResponse converte cada linha no item da resposta
+     * @param meta       recebe a quantidade de linhas lidas (incluindo a excedente) e a última linha escrita
+     */
+    static <T> Flux<DataBuffer> write(ObjectMapper objectMapper, DataBufferFactory buffers, Flux<T> rows,
+                                      Function<T, ?> toResponse, int limit, BiFunction<Integer, T, Mono<MetaDTO>> meta) {
+        return Flux.defer(() -> {
+            int[] read = {0};
+            List<T> last = new ArrayList<>(1);
+            Flux<DataBuffer> data = rows
+                    .doOnNext(row -> read[0]++)
+                    .index()
+                    .filter(indexed -> indexed.getT1() < limit)
+                    .map(indexed -> {
+                        last.clear();
+                        last.add(indexed.getT2());
+                        byte[] json = toJson(objectMapper, toResponse.apply(indexed.getT2()));
+                        DataBuffer buffer = buffers.allocateBuffer(json.length + 1);
+                        if (indexed.getT1() > 0) {
+                            buffer.write(SEPARATOR);
+                        }
+                        return buffer.write(json);
+                    });
+            Mono<DataBuffer> tail = Mono.defer(() -> meta.apply(read[0], last.isEmpty() ? null : last.get(0)))
+                    .map(metaDTO -> {
+                        byte[] json = toJson(objectMapper, metaDTO);
+                        return buffers.allocateBuffer(META.length + json.length + CLOSE.length)
+                                .write(META).write(json).write(CLOSE);
+                    });
+            return Flux.concat(Mono.fromSupplier(() -> buffers.wrap(OPEN)), data, tail);
+        });
+    }
+
+    private static byte[] toJson(ObjectMapper objectMapper, Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Falha ao serializar a resposta.", ex);
+        }
+    }
+}
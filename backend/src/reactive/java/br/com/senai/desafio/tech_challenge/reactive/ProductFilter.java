@@ -0,0 +1,74 @@
+package br.com.senai.desafio.tech_challenge.reactive;
+
+import br.com.senai.desafio.tech_challenge.repository.ProductCursor;
+import br.com.senai.desafio.tech_challenge.search.SearchQuery;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Filtros da listagem traduzidos para SQL, com a mesma semântica de {@code ProductSpecification} e de
+ * {@code PostgresProductSearchEngine.matching} (substring via LIKE em {@code lower(...)}, ou prefixo via
+ * {@code tsvector}), mais o {@code deleted_at IS NULL} que o {@code @Where} da entidade aplica.
+ */
+record ProductFilter(String search, BigDecimal minPrice, BigDecimal maxPrice,
+                     Boolean hasDiscount, Boolean onlyOutOfStock, Boolean withCouponApplied) {
+
+    // Mesma expressão do índice idx_products_search_tsv e de ProductSearchFunctionContributor.
+    static final String DOCUMENT = "to_tsvector('simple', coalesce(name, '') || ' ' || coalesce(description, ''))";
+
+    Sql toSql() {
+        return toSql(null);
+    }
+
+    Sql toSql(ProductCursor cursor) {
+        List<String> clauses = new ArrayList<>();
+        Map<String, Object> bindings = new LinkedHashMap<>();
+        clauses.add("deleted_at IS NULL");
+
+        if (StringUtils.hasText(search)) {
+            bindings.put("searchLike", "%" + search.toLowerCase() + "%");
+            String substring = "lower(name) LIKE :searchLike OR lower(description) LIKE :searchLike";
+            List<String> tokens = SearchQuery.tokenize(search);
+            if (tokens.isEmpty()) {
+                clauses.add("(" + substring + ")");
+            } else {
+                bindings.put("searchTsQuery", SearchQuery.toPrefixTsQuery(tokens));
+                clauses.add("(" + substring + " OR " + DOCUMENT + " @@ to_tsquery('simple', :searchTsQuery))");
+            }
+        }
+        if (minPrice != null) {
+            clauses.add("final_price >= :minPrice");
+            bindings.put("minPrice", minPrice);
+        }
+        if (maxPrice != null) {
+            clauses.add("final_price <= :maxPrice");
+            bindings.put("maxPrice", maxPrice);
+        }
+        if (hasDiscount != null) {
+            clauses.add(hasDiscount ? "active_discount_type IS NOT NULL" : "active_discount_type IS NULL");
+        }
+        if (Boolean.TRUE.equals(onlyOutOfStock)) {
+            clauses.add("stock = 0");
+        }
+        if (withCouponApplied != null) {
+            clauses.add(withCouponApplied ? "active_coupon_code IS NOT NULL" : "active_coupon_code IS NULL");
+        }
+        if (cursor != null) {
+            // Predicado de keyset de ProductSpecification.after: itens posteriores ao cursor na ordem (chave, id).
+            String column = ProductSort.column(cursor.getProperty());
+            String op = cursor.getDirection().isAscending() ? ">" : "<";
+            clauses.add("(" + column + " " + op + " :cursorKey OR (" + column + " = :cursorKey AND id " + op + " :cursorId))");
+            bindings.put("cursorKey", cursor.getValue());
+            bindings.put("cursorId", cursor.getId());
+        }
+        return new Sql(String.join(" AND ", clauses), bindings);
+    }
+
+    record Sql(String where, Map<String, Object> bindings) {
+    }
+}
@@ -0,0 +1,66 @@
+package br.com.senai.desafio.tech_challenge.reactive;
+
+import br.com.senai.desafio.tech_challenge.exception.UnprocessableEntityException;
+import br.com.senai.desafio.tech_challenge.search.SearchQuery;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ordenação da listagem em SQL. Aceita as mesmas propriedades da entidade {@code Product} que a API servlet e a
+ * pseudo-propriedade {@code relevance} (ts_rank + similaridade trigram, como em {@code PostgresProductSearchEngine}).
+ */
+final class ProductSort {
+
+    static final String RELEVANCE = "relevance";
+
+    private static final Map<String, String> COLUMNS = Map.of(
+            "id", "id",
+            "name", "name",
+            "description", "description",
+            "stock", "stock",
+            "price", "price",
+            "finalPrice", "final_price",
+            "createdAt", "created_at",
+            "updatedAt", "updated_at");
+
+    private ProductSort() {
+    }
+
+    static String column(String property) {
+        String column = COLUMNS.get(property);
+        if (column == null) {
+            throw new IllegalArgumentException("Propriedade de ordenação desconhecida: " + property);
+        }
+        return column;
+    }
+
+    // Mesma regra de ProductServiceImpl.listProducts: "relevance" não se combina com outras ordenações (422) e,
+    // sem termos de busca, cai na ordenação por nome.
+    static String orderBy(Sort sort, String search, Map<String, Object> bindings) {
+        if (sort.getOrderFor(RELEVANCE) != null && sort.stream().count() > 1) {
+            throw new UnprocessableEntityException("A ordenação por relevância não pode ser combinada com outras ordenações.");
+        }
+        List<String> terms = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            if (!RELEVANCE.equals(order.getProperty())) {
+                terms.add(column(order.getProperty()) + (order.isAscending() ? " ASC" : " DESC"));
+            }
+        }
+        if (terms.isEmpty() && sort.getOrderFor(RELEVANCE) != null) {
+            List<String> tokens = SearchQuery.tokenize(search);
+            if (tokens.isEmpty()) {
+                terms.add("name ASC");
+            } else {
+                bindings.put("rankTsQuery", SearchQuery.toPrefixTsQuery(tokens));
+                bindings.put("rankText", search.toLowerCase());
+                terms.add("(ts_rank(" + ProductFilter.DOCUMENT + ", to_tsquery('simple', :rankTsQuery)) "
+                        + "+ similarity(lower(name), :rankText)) DESC");
+                terms.add("id ASC");
+            }
+        }
+        return terms.isEmpty() ? "" : " ORDER BY " + String.join(", ", terms);
+    }
+}
@@ -0,0 +1,28 @@
+package br.com.senai.desafio.tech_challenge.reactive;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * API reativa de leitura do catálogo (WebFlux + R2DBC), empacotada pelo perfil Maven {@code reactive}:
+ * {@code ./mvnw -Preactive package} gera {@code target/tech-challenge-reactive-*.jar}.
+ *
+ * <p>Serve {@code GET /api/v1/products}, {@code /api/v1/products/{id}} e {@code /api/v1/coupons/{code}} sobre o
+ * mesmo esquema da aplicação servlet, que continua dona das escritas e das migrações. Lê apenas
+ * {@code reactive.properties} e só varre este pacote; os beans daqui ficam restritos ao perfil Spring
+ * {@code reactive} para não entrarem na aplicação servlet quando as duas estão no mesmo classpath.</p>
+ */
+@Profile("reactive")
+@SpringBootApplication
+public class ReactiveCatalogApplication {
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveCatalogApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .profiles("reactive")
+                .properties("spring.config.name=reactive")
+                .run(args);
+    }
+}
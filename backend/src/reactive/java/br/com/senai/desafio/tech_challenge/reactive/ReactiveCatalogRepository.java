@@ -0,0 +1,126 @@
+package br.com.senai.desafio.tech_challenge.reactive;
+
+import br.com.senai.desafio.tech_challenge.cache.CatalogStamp;
+import br.com.senai.desafio.tech_challenge.model.Coupon;
+import br.com.senai.desafio.tech_challenge.model.CouponType;
+import br.com.senai.desafio.tech_challenge.model.Product;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Consultas de leitura do catálogo via R2DBC. As linhas viram as mesmas classes de modelo da aplicação servlet
+ * (usadas aqui como objetos simples, sem JPA), para passarem pelos mesmos mapeadores de resposta.
+ */
+@Profile("reactive")
+@Repository
+class ReactiveCatalogRepository {
+
+    private final DatabaseClient databaseClient;
+    private final int fetchSize;
+
+    ReactiveCatalogRepository(DatabaseClient databaseClient, @Value("${app.reactive.fetch-size:256}") int fetchSize) {
+        this.databaseClient = databaseClient;
+        this.fetchSize = fetchSize;
+    }
+
+    // As linhas chegam conforme a demanda de quem consome (o cliente HTTP), em lotes de fetchSize.
+    Flux<Product> findProducts(ProductFilter.Sql filter, Sort sort, String search, long offset, int limit) {
+        Map<String, Object> bindings = new LinkedHashMap<>(filter.bindings());
+        String sql = "SELECT * FROM products WHERE " + filter.where()
+                + ProductSort.orderBy(sort, search, bindings)
+                + " LIMIT :limit OFFSET :offset";
+        bindings.put("limit", limit);
+        bindings.put("offset", offset);
+        return bind(databaseClient.sql(sql), bindings)
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map(ReactiveCatalogRepository::toProduct)
+                .all();
+    }
+
+    Mono<Long> countProducts(ProductFilter.Sql filter) {
+        return bind(databaseClient.sql("SELECT count(*) FROM products WHERE " + filter.where()), filter.bindings())
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    Mono<Product> findProductById(Long id) {
+        return databaseClient.sql("SELECT * FROM products WHERE id = :id AND deleted_at IS NULL")
+                .bind("id", id)
+                .map(ReactiveCatalogRepository::toProduct)
+                .one();
+    }
+
+    Mono<Long> findProductVersion(Long id) {
+        return databaseClient.sql("SELECT version FROM products WHERE id = :id AND deleted_at IS NULL")
+                .bind("id", id)
+                .map(row -> row.get("version", Long.class))
+                .one();
+    }
+
+    Mono<Coupon> findCouponByCode(String normalizedCode) {
+        return databaseClient.sql("SELECT * FROM coupons WHERE code = :code AND deleted_at IS NULL")
+                .bind("code", normalizedCode)
+                .map(ReactiveCatalogRepository::toCoupon)
+                .one();
+    }
+
+    // Mesma versão de CatalogStamp (ETag da listagem).
+    Mono<Long> catalogStamp() {
+        return databaseClient.sql(CatalogStamp.VERSION_SQL)
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec, Map<String, Object> bindings) {
+        for (Map.Entry<String, Object> binding : bindings.entrySet()) {
+            spec = spec.bind(binding.getKey(), binding.getValue());
+        }
+        return spec;
+    }
+
+    private static Product toProduct(Readable row) {
+        String discountType = row.get("active_discount_type", String.class);
+        return Product.builder()
+                .id(row.get("id", Long.class))
+                .name(row.get("name", String.class))
+                .description(row.get("description", String.class))
+                .stock(row.get("stock", Integer.class))
+                .price(row.get("price", BigDecimal.class))
+                .createdAt(row.get("created_at", Instant.class))
+                .updatedAt(row.get("updated_at", Instant.class))
+                .version(row.get("version", Long.class))
+                .finalPrice(row.get("final_price", BigDecimal.class))
+                .activeDiscountType(discountType != null ? CouponType.valueOf(discountType) : null)
+                .activeDiscountValue(row.get("active_discount_value", BigDecimal.class))
+                .activeDiscountAppliedAt(row.get("active_discount_applied_at", Instant.class))
+                .activeCouponCode(row.get("active_coupon_code", String.class))
+                .build();
+    }
+
+    private static Coupon toCoupon(Readable row) {
+        return Coupon.builder()
+                .id(row.get("id", Long.class))
+                .code(row.get("code", String.class))
+                .type(CouponType.valueOf(row.get("coupon_type", String.class)))
+                .value(row.get("discount_value", BigDecimal.class))
+                .oneShot(Boolean.TRUE.equals(row.get("one_shot", Boolean.class)))
+                .maxUses(row.get("max_uses", Integer.class))
+                .redemptionCount(row.get("redemption_count", Integer.class))
+                .validFrom(row.get("valid_from", Instant.class))
+                .validUntil(row.get("valid_until", Instant.class))
+                .createdAt(row.get("created_at", Instant.class))
+                .updatedAt(row.get("updated_at", Instant.class))
+                .build();
+    }
+}
@@ -0,0 +1,29 @@
+package br.com.senai.desafio.tech_challenge.reactive;
+
+import br.com.senai.desafio.tech_challenge.dto.CouponResponseDTO;
+import br.com.senai.desafio.tech_challenge.exception.ResourceNotFoundException;
+import br.com.senai.desafio.tech_challenge.service.CouponServiceImpl;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+// Versão reativa de GET /api/v1/coupons/{code}; o 404 segue o @ResponseStatus da exceção, como na API servlet.
+@Profile("reactive")
+@RestController
+@RequestMapping("/api/v1/coupons")
+@RequiredArgsConstructor
+class ReactiveCouponController {
+
+    private final ReactiveCatalogRepository catalogRepository;
+
+    @GetMapping("/{code}")
+    Mono<CouponResponseDTO> getCouponByCode(@PathVariable String code) {
+        return catalogRepository.findCouponByCode(code.trim().toUpperCase())
+                .map(CouponServiceImpl::mapToCouponResponseDTO)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Cupom com o código '" + code + "' não encontrado.")));
+    }
+}
@@ -0,0 +1,213 @@
+package br.com.senai.desafio.tech_challenge.reactive;
+
+import br.com.senai.desafio.tech_challenge.controller.ETags;
+import br.com.senai.desafio.tech_challenge.dto.CountMode;
+import br.com.senai.desafio.tech_challenge.dto.MetaDTO;
+import br.com.senai.desafio.tech_challenge.exception.UnprocessableEntityException;
+import br.com.senai.desafio.tech_challenge.model.Product;
+import br.com.senai.desafio.tech_challenge.repository.ProductCursor;
+import br.com.senai.desafio.tech_challenge.service.ProductServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Versão reativa de {@code GET /api/v1/products} e {@code GET /api/v1/products/{id}}: mesmos parâmetros,
+ * mesmos ETags e o mesmo JSON da API servlet. A listagem é escrita item a item conforme as linhas chegam do banco.
+ */
+@Profile("reactive")
+@RestController
+@RequestMapping("/api/v1/products")
+@RequiredArgsConstructor
+class ReactiveProductController {
+
+    private final ReactiveCatalogRepository catalogRepository;
+    private final ObjectMapper objectMapper;
+
+    @GetMapping("/{id}")
+    Mono<ResponseEntity<Object>> getProductById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            ServerHttpRequest request) {
+        String path = request.getPath().value();
+        if (ifNoneMatch == null) {
+            return findProduct(id, path);
+        }
+        return catalogRepository.findProductVersion(id)
+                .flatMap(version -> {
+                    String currentETag = ETags.product(id, version);
+                    return ETags.matches(ifNoneMatch, currentETag) ? Mono.just(notModified(currentETag)) : findProduct(id, path);
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> productNotFound(id, path)));
+    }
+
+    @GetMapping
+    Mono<ResponseEntity<Object>> listProducts(
+            @PageableDefault(size = 10, sort = "name") Pageable pageable,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Boolean hasDiscount,
+            @RequestParam(required = false) Boolean onlyOutOfStock,
+            @RequestParam(required = false) Boolean withCouponApplied,
+            @RequestParam(defaultValue = "offset") String pagination,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "exact") String count,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            ServerHttpRequest request,
+            ServerHttpResponse response) {
+        String path = request.getPath().value();
+        ProductFilter filter = new ProductFilter(search, minPrice, maxPrice, hasDiscount, onlyOutOfStock, withCouponApplied);
+        DataBufferFactory buffers = response.bufferFactory();
+        // O carimbo é lido antes da consulta: uma escrita concorrente só pode deixar o ETag mais antigo que o corpo.
+        return catalogRepository.catalogStamp().map(stamp -> {
+            String currentETag = ETags.catalog(stamp);
+            if (ETags.matches(ifNoneMatch, currentETag)) {
+                return notModified(currentETag);
+            }
+            Flux<DataBuffer> body;
+            try {
+                // Tudo que pode falhar por parâmetro inválido é resolvido aqui, antes de o status 200 ser enviado.
+                body = "cursor".equalsIgnoreCase(pagination) || after != null
+                        ? listByCursor(filter, after, pageable.getPageSize(), pageable.getSort(), buffers)
+                        : listByOffset(filter, pageable, CountMode.parse(count), buffers);
+            } catch (UnprocessableEntityException ex) {
+                return buildErrorResponse(HttpStatus.UNPROCESSABLE_ENTITY, "Entidade Não Processável", ex.getMessage(), path);
+            } catch (Exception ex) {
+                String errorMessage = "Ocorreu um erro ao processar a listagem de produtos.";
+                return buildErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Erro Interno", errorMessage, path);
+            }
+            return ResponseEntity.ok()
+                    .eTag(currentETag)
+                    .cacheControl(CacheControl.noCache())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body((Object) body);
+        });
+    }
+
+    // Busca limit + 1 linhas: a excedente só indica hasNext. O total (exact/estimate) corre em paralelo ao conteúdo.
+    private Flux<DataBuffer> listByOffset(ProductFilter filter, Pageable pageable, CountMode countMode, DataBufferFactory buffers) {
+        ProductFilter.Sql sql = filter.toSql();
+        int size = pageable.getPageSize();
+        Flux<Product> rows = catalogRepository.findProducts(sql, pageable.getSort(), filter.search(), pageable.getOffset(), size + 1);
+        Mono<Long> total = countMode == CountMode.NONE ? Mono.empty() : catalogRepository.countProducts(sql).cache();
+        if (countMode != CountMode.NONE) {
+            rows = Flux.merge(total.then(Mono.<Product>empty()), rows);
+        }
+        Mono<Long> totalItems = total;
+        return PaginatedJsonStream.write(objectMapper, buffers, rows, ProductServiceImpl::mapToProductResponseDTO, size,
+                (read, last) -> {
+                    MetaDTO.MetaDTOBuilder meta = MetaDTO.builder()
+                            .countMode(countMode)
+                            .page(pageable.getPageNumber())
+                            .limit(size);
+                    if (countMode == CountMode.NONE) {
+                        return Mono.just(meta.hasNext(read > size).build());
+                    }
+                    return totalItems.map(reported -> {
+                        // Mesmo ajuste de PageImpl: na última página o total é deduzido do conteúdo lido.
+                        int content = Math.min(read, size);
+                        long totalElements = content > 0 && pageable.getOffset() + size > reported
+                                ? pageable.getOffset() + content
+                                : reported;
+                        int totalPages = (int) Math.ceil((double) totalElements / size);
+                        boolean hasNext = countMode == CountMode.EXACT ? pageable.getPageNumber() + 1 < totalPages : read > size;
+                        return meta.totalItems(countMode == CountMode.EXACT ? totalElements : reported)
+                                .totalPages(countMode == CountMode.EXACT ? totalPages : (int) Math.ceil((double) reported / size))
+                                .hasNext(hasNext)
+                                .build();
+                    });
+                });
+    }
+
+    private Flux<DataBuffer> listByCursor(ProductFilter filter, String after, int limit, Sort sort, DataBufferFactory buffers) {
+        Sort.Order order = resolveKeysetOrder(sort);
+        ProductCursor cursor = decodeCursor(after, order);
+        Sort keysetSort = Sort.by(order, new Sort.Order(order.getDirection(), "id"));
+        Flux<Product> rows = catalogRepository.findProducts(filter.toSql(cursor), keysetSort, null, 0, limit + 1);
+        return PaginatedJsonStream.write(objectMapper, buffers, rows, ProductServiceImpl::mapToProductResponseDTO, limit,
+                (read, last) -> {
+                    boolean hasNext = read > limit;
+                    return Mono.just(MetaDTO.builder()
+                            .limit(limit)
+                            .countMode(CountMode.NONE)
+                            .hasNext(hasNext)
+                            .nextCursor(hasNext ? ProductCursor.after(order, last).encode() : null)
+                            .build());
+                });
+    }
+
+    private Mono<ResponseEntity<Object>> findProduct(Long id, String path) {
+        return catalogRepository.findProductById(id)
+                .map(product -> ResponseEntity.ok()
+                        .eTag(ETags.product(id, product.getVersion()))
+                        .cacheControl(CacheControl.noCache())
+                        .body((Object) ProductServiceImpl.mapToProductResponseDTO(product)))
+                .switchIfEmpty(Mono.fromSupplier(() -> productNotFound(id, path)));
+    }
+
+    private static Sort.Order resolveKeysetOrder(Sort sort) {
+        Sort.Order order = sort.stream().findFirst().orElse(Sort.Order.asc("name"));
+        if (!ProductCursor.SORTABLE_PROPERTIES.contains(order.getProperty())) {
+            throw new UnprocessableEntityException("A paginação por cursor suporta apenas ordenação por " + ProductCursor.SORTABLE_PROPERTIES + ".");
+        }
+        return order;
+    }
+
+    private static ProductCursor decodeCursor(String after, Sort.Order order) {
+        if (after == null || after.isBlank()) {
+            return null;
+        }
+        ProductCursor cursor;
+        try {
+            cursor = ProductCursor.decode(after);
+        } catch (IllegalArgumentException ex) {
+            throw new UnprocessableEntityException(ex.getMessage());
+        }
+        if (!cursor.matches(order)) {
+            throw new UnprocessableEntityException("O cursor informado foi gerado para outra ordenação.");
+        }
+        return cursor;
+    }
+
+    private static ResponseEntity<Object> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .build();
+    }
+
+    private static ResponseEntity<Object> productNotFound(Long id, String path) {
+        String message = "Produto com ID " + id + " não encontrado.";
+        return buildErrorResponse(HttpStatus.NOT_FOUND, "Recurso Não Encontrado", message, path);
+    }
+
+    private static ResponseEntity<Object> buildErrorResponse(HttpStatus status, String error, String message, String path) {
+        Map<String, Object> errorBody = new HashMap<>();
+        errorBody.put("timestamp", System.currentTimeMillis());
+        errorBody.put("status", status.value());
+        errorBody.put("error", error);
+        errorBody.put("message", message);
+        errorBody.put("path", path);
+        return new ResponseEntity<>(errorBody, status);
+    }
+}
@@ -0,0 +1,59 @@
+package br.com.senai.desafio.tech_challenge.reactive;
+
+import org.springframework.boot.web.error.ErrorAttributeOptions;
+import org.springframework.boot.web.reactive.error.DefaultErrorAttributes;
+import org.springframework.boot.web.reactive.error.ErrorAttributes;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.web.ReactivePageableHandlerMethodArgumentResolver;
+import org.springframework.data.web.ReactiveSortHandlerMethodArgumentResolver;
+import org.springframework.web.reactive.config.CorsRegistry;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.result.method.annotation.ArgumentResolverConfigurer;
+import org.springframework.web.reactive.function.server.ServerRequest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Mesmo CORS de {@code WebConfig}, resolução de {@code Pageable}/{@code Sort} a partir dos parâmetros
+ * page/size/sort e corpo de erro padrão com os mesmos campos e ordem do Spring MVC.
+ */
+@Profile("reactive")
+@Configuration
+class ReactiveWebConfiguration implements WebFluxConfigurer {
+
+    @Override
+    public void addCorsMappings(CorsRegistry registry) {
+        registry.addMapping("/api/v1/**")
+                .allowedOrigins("http://localhost:3000", "http://localhost:5173")
+                .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS")
+                .allowedHeaders("*")
+                .exposedHeaders("Server-Timing", "ETag")
+                .allowCredentials(true);
+    }
+
+    @Override
+    public void configureArgumentResolvers(ArgumentResolverConfigurer configurer) {
+        configurer.addCustomResolver(new ReactivePageableHandlerMethodArgumentResolver(), new ReactiveSortHandlerMethodArgumentResolver());
+    }
+
+    // O WebFlux acrescenta requestId e põe path antes de status; o MVC devolve timestamp, status, error, path.
+    @Bean
+    ErrorAttributes errorAttributes() {
+        return new DefaultErrorAttributes() {
+            @Override
+            public Map<String, Object> getErrorAttributes(ServerRequest request, ErrorAttributeOptions options) {
+                Map<String, Object> attributes = super.getErrorAttributes(request, options);
+                Map<String, Object> ordered = new LinkedHashMap<>();
+                for (String key : new String[]{"timestamp", "status", "error", "exception", "message", "errors", "trace", "path"}) {
+                    if (attributes.containsKey(key)) {
+                        ordered.put(key, attributes.get(key));
+                    }
+                }
+                return ordered;
+            }
+        };
+    }
+}
@@ -0,0 +1,102 @@
+package br.com.senai.desafio.tech_challenge.cache;
+
+import br.com.senai.desafio.tech_challenge.TechChallengeApplication;
+import br.com.senai.desafio.tech_challenge.dto.CouponRequestDTO;
+import br.com.senai.desafio.tech_challenge.exception.ResourceNotFoundException;
+import br.com.senai.desafio.tech_challenge.model.CouponType;
+import br.com.senai.desafio.tech_challenge.service.CouponService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sobe duas instâncias da aplicação contra o mesmo Postgres local (SPRING_DATASOURCE_URL etc.)
+// para simular duas réplicas atrás do balanceador.
+@EnabledIfEnvironmentVariable(named = "SPRING_DATASOURCE_URL", matches = ".+")
+class CatalogInvalidationBusIntegrationTest {
+
+    private ConfigurableApplicationContext nodeA;
+    private ConfigurableApplicationContext nodeB;
+
+    @BeforeEach
+    void setUp() {
+        nodeA = startNode();
+        nodeB = startNode();
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodeA.close();
+        nodeB.close();
+    }
+
+    @Test
+    @DisplayName("Cupom criado e removido em uma réplica deve ser refletido no cache da outra")
+    void couponWrites_shouldInvalidateCacheOnOtherNode() {
+        CouponService couponServiceA = nodeA.getBean(CouponService.class);
+        CouponService couponServiceB = nodeB.getBean(CouponService.class);
+        String code = "INV" + ThreadLocalRandom.current().nextInt(100_000, 1_000_000);
+
+        // A réplica B passa a ter o "não encontrado" em cache (TTL negativo bem maior que o tempo de espera abaixo).
+        assertThrows(ResourceNotFoundException.class, () -> couponServiceB.getCouponByCode(code));
+
+        couponServiceA.createCoupon(couponRequest(code));
+        assertEventually(() -> found(couponServiceB, code), "réplica B não viu o cupom criado em A");
+
+        couponServiceA.deleteCoupon(code);
+        assertEventually(() -> !found(couponServiceB, code), "réplica B não viu a remoção feita em A");
+    }
+
+    private ConfigurableApplicationContext startNode() {
+        // Argumentos de linha de comando: properties() só define valores padrão, que perdem para o application.properties.
+        return new SpringApplicationBuilder(TechChallengeApplication.class)
+                .run("--server.port=0", "--app.search.engine=memory");
+    }
+
+    private boolean found(CouponService couponService, String code) {
+        try {
+            couponService.getCouponByCode(code);
+            return true;
+        } catch (ResourceNotFoundException ex) {
+            return false;
+        }
+    }
+
+    private void assertEventually(BooleanSupplier condition, String message) {
+        Instant deadline = Instant.now().plus(Duration.ofSeconds(5));
+        while (Instant.now().isBefore(deadline)) {
+            if (condition.getAsBoolean()) {
+                return;
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                fail(message);
+            }
+        }
+        fail(message);
+    }
+
+    private CouponRequestDTO couponRequest(String code) {
+        CouponRequestDTO request = new CouponRequestDTO();
+        request.setCode(code);
+        request.setType(CouponType.PERCENT);
+        request.setValue(new BigDecimal("10"));
+        request.setOneShot(false);
+        request.setValidFrom(Instant.now());
+        request.setValidUntil(Instant.now().plus(Duration.ofDays(1)));
+        return request;
+    }
+}
@@ -0,0 +1,168 @@
+package br.com.senai.desafio.tech_challenge.cache;
+
+import br.com.senai.desafio.tech_challenge.model.Product;
+import br.com.senai.desafio.tech_challenge.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogSnapshotStoreTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private CatalogStamp catalogStamp;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CatalogSnapshotStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new CatalogSnapshotStore(productRepository, jdbcTemplate, catalogStamp, transactionManager, true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.stop();
+    }
+
+    @Test
+    @DisplayName("Não deve servir a foto antes da primeira carga")
+    void caughtUp_shouldBeEmpty_beforeFirstLoad() {
+        assertTrue(store.caughtUp(0L).isEmpty());
+        verifyNoInteractions(catalogStamp);
+    }
+
+    @Test
+    @DisplayName("Deve servir a foto só enquanto ela cobre a versão informada, pedindo uma atualização quando fica atrás")
+    void caughtUp_shouldRequireSnapshotToCoverCurrentVersion() {
+        // Arrange
+        when(catalogStamp.log()).thenReturn(new CatalogStamp.Log(10L, Map.of()));
+        when(productRepository.findAll()).thenReturn(List.of(product(1L, "café")));
+        store.rebuild();
+
+        // Act & Assert
+        assertEquals(1, store.caughtUp(10L).orElseThrow().size());
+
+        // Uma escrita em outra réplica já mudou a versão, mas o evento ainda não chegou (ou se perdeu).
+        assertTrue(store.caughtUp(11L).isEmpty());
+        verify(catalogStamp, timeout(1000).times(2)).log();
+        // A versão vem de quem chama, já lida na transação da listagem: nenhuma consulta extra.
+        verify(catalogStamp, never()).current();
+    }
+
+    @Test
+    @DisplayName("Deve recarregar só os produtos das linhas novas do log, tratando os ausentes como excluídos")
+    void refresh_shouldPatchOnlyProductsOfUnseenChanges() {
+        // Arrange
+        when(catalogStamp.log()).thenReturn(new CatalogStamp.Log(10L, Map.of(1L, CatalogChange.product(1L))));
+        when(productRepository.findAll()).thenReturn(List.of(product(1L, "café"), product(3L, "chá")));
+        store.rebuild();
+        when(catalogStamp.log()).thenReturn(new CatalogStamp.Log(10L, Map.of(
+                1L, CatalogChange.product(1L),
+                2L, CatalogChange.product(2L),
+                3L, CatalogChange.discount(3L),
+                4L, CatalogChange.coupon("NATAL"))));
+        when(productRepository.findAllById(Set.of(2L, 3L))).thenReturn(List.of(product(2L, "novo")));
+
+        // Act
+        store.refresh();
+
+        // Assert
+        CatalogSnapshot snapshot = store.caughtUp(14L).orElseThrow();
+        assertEquals(2, snapshot.size());
+        verify(productRepository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("Deve recarregar tudo quando a compactação apagou linhas que a foto não viu")
+    void refresh_shouldReload_whenUnseenChangesWereCompacted() {
+        // Arrange
+        when(catalogStamp.log()).thenReturn(new CatalogStamp.Log(10L, Map.of()));
+        when(productRepository.findAll()).thenReturn(List.of(product(1L, "café")));
+        store.rebuild();
+        // Duas escritas entraram e saíram do log; só uma terceira ainda está lá.
+        when(catalogStamp.log()).thenReturn(new CatalogStamp.Log(12L, Map.of(7L, CatalogChange.product(1L))));
+
+        // Act
+        store.refresh();
+
+        // Assert
+        verify(productRepository, times(2)).findAll();
+        verify(productRepository, never()).findAllById(any());
+        assertTrue(store.caughtUp(13L).isPresent());
+    }
+
+    @Test
+    @DisplayName("Uma escrita local deve atualizar a foto em segundo plano, lendo no primário")
+    void onCommitted_shouldRefreshInBackgroundOnPrimary() {
+        // Arrange
+        when(catalogStamp.log()).thenReturn(new CatalogStamp.Log(10L, Map.of()));
+        when(productRepository.findAll()).thenReturn(List.of(product(1L, "café")));
+        store.rebuild();
+        when(catalogStamp.log()).thenReturn(new CatalogStamp.Log(10L, Map.of(1L, CatalogChange.product(1L))));
+        when(productRepository.findAllById(Set.of(1L))).thenReturn(List.of());
+
+        // Act
+        store.onCommitted(CatalogChange.product(1L));
+
+        // Assert
+        verify(productRepository, timeout(1000)).findAllById(Set.of(1L));
+        // Transação sem readOnly: o roteamento de réplicas a mantém no primário.
+        verify(transactionManager, atLeastOnce()).getTransaction(argThat(definition -> !definition.isReadOnly()));
+    }
+
+    @Test
+    @DisplayName("Ordenação por nome só fica em memória quando o banco também ordena texto por code point")
+    void supports_shouldLeaveTextSortsToTheDatabase_whenCollationIsLinguistic() {
+        // Arrange: collation linguística (en_US em glibc, por exemplo)
+        when(catalogStamp.log()).thenReturn(new CatalogStamp.Log(10L, Map.of()));
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class))).thenReturn(false);
+        store.rebuild();
+
+        // Act & Assert
+        assertFalse(store.supports(Sort.by("name"), null));
+        assertFalse(store.supports(Sort.by("price", "description"), null));
+        assertFalse(store.supports(Sort.by("relevance"), null));
+        assertTrue(store.supports(Sort.by("finalPrice"), null));
+
+        // Collation C (ou a imagem Alpine do Postgres)
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class))).thenReturn(true);
+        store.rebuild();
+        assertTrue(store.supports(Sort.by("name"), null));
+    }
+
+    private static Product product(Long id, String name) {
+        return Product.builder()
+                .id(id)
+                .name(name)
+                .price(new BigDecimal("10.00"))
+                .stock(5)
+                .createdAt(Instant.now())
+                .updatedAt(Instant.now())
+                .build();
+    }
+}
@@ -0,0 +1,178 @@
+package br.com.senai.desafio.tech_challenge.cache;
+
+import br.com.senai.desafio.tech_challenge.dto.AppliedDiscountDTO;
+import br.com.senai.desafio.tech_challenge.dto.CountMode;
+import br.com.senai.desafio.tech_challenge.dto.PaginatedResponseDTO;
+import br.com.senai.desafio.tech_challenge.dto.ProductResponseDTO;
+import br.com.senai.desafio.tech_challenge.model.CouponType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogSnapshotTest {
+
+    private CatalogSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        snapshot = CatalogSnapshot.of(List.of(
+                product(3L, "café especial", "grãos torrados", 5, "40.00", "30.00", "PROMO10"),
+                product(1L, "açúcar mascavo", null, 0, "12.50", "12.50", null),
+                product(2L, "chá verde", "folhas secas", 8, "20.00", "18.00", null),
+                product(4L, "café solúvel", "pote 200g", 0, "25.00", "25.00", null)));
+    }
+
+    @Test
+    @DisplayName("Deve ordenar pelos índices prontos e paginar com os metadados do modo exact")
+    void listProducts_shouldSortAndPaginate() {
+        PaginatedResponseDTO<ProductResponseDTO> page = snapshot.listProducts(
+                PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "finalPrice")),
+                CountMode.EXACT, null, null, null, null, null, null);
+
+        assertEquals(List.of(3L, 4L, 2L), ids(page));
+        assertEquals(4L, page.getMeta().getTotalItems());
+        assertEquals(2, page.getMeta().getTotalPages());
+        assertTrue(page.getMeta().getHasNext());
+
+        PaginatedResponseDTO<ProductResponseDTO> last = snapshot.listProducts(
+                PageRequest.of(1, 3, Sort.by("name")), CountMode.NONE, null, null, null, null, null, null);
+
+        assertEquals(List.of(2L), ids(last));
+        assertNull(last.getMeta().getTotalItems());
+        assertFalse(last.getMeta().getHasNext());
+    }
+
+    @Test
+    @DisplayName("Deve aplicar os filtros de preço final, desconto, estoque, cupom e busca textual")
+    void listProducts_shouldApplyFilters() {
+        PageRequest pageable = PageRequest.of(0, 10, Sort.by("id"));
+
+        assertEquals(List.of(2L, 4L), ids(snapshot.listProducts(pageable, CountMode.EXACT, null,
+                new BigDecimal("18"), new BigDecimal("25.004"), null, null, null)));
+        assertEquals(List.of(2L, 3L), ids(snapshot.listProducts(pageable, CountMode.EXACT, null,
+                null, null, true, null, null)));
+        assertEquals(List.of(1L, 4L), ids(snapshot.listProducts(pageable, CountMode.EXACT, null,
+                null, null, null, true, null)));
+        assertEquals(List.of(1L, 2L, 4L), ids(snapshot.listProducts(pageable, CountMode.EXACT, null,
+                null, null, null, null, false)));
+        // Substring ("fé es") ou todos os termos como prefixo ("caf sol").
+        assertEquals(List.of(3L), ids(snapshot.listProducts(pageable, CountMode.EXACT, "fé es",
+                null, null, null, null, null)));
+        assertEquals(List.of(4L), ids(snapshot.listProducts(pageable, CountMode.EXACT, "caf sol",
+                null, null, null, null, null)));
+    }
+
+    @Test
+    @DisplayName("Alterações devem gerar uma nova foto sem modificar a anterior")
+    void withAndWithout_shouldCopyOnWrite() {
+        CatalogSnapshot updated = snapshot
+                .with(product(5L, "biscoito", null, 3, "5.00", "5.00", null))
+                .with(product(2L, "chá verde", "folhas secas", 8, "20.00", "9.00", null))
+                .without(1L);
+        PageRequest byPrice = PageRequest.of(0, 10, Sort.by("finalPrice"));
+
+        assertEquals(List.of(5L, 2L, 4L, 3L), ids(updated.listProducts(byPrice, CountMode.EXACT, null, null, null, null, null, null)));
+        assertEquals(List.of(1L, 2L, 4L, 3L), ids(snapshot.listProducts(byPrice, CountMode.EXACT, null, null, null, null, null, null)));
+        assertSame(updated, updated.without(99L));
+    }
+
+    @Test
+    @DisplayName("Inclusões, substituições e remoções aplicadas na foto devem dar o mesmo resultado que reconstruí-la")
+    void withAndWithout_shouldMatchFullRebuild() {
+        Random random = new Random(42);
+        Map<Long, ProductResponseDTO> expected = new TreeMap<>();
+        CatalogSnapshot patched = CatalogSnapshot.EMPTY;
+        for (int step = 0; step < 500; step++) {
+            long id = 1 + random.nextInt(40);
+            if (random.nextInt(4) == 0) {
+                expected.remove(id);
+                patched = patched.without(id);
+            } else {
+                // Poucos nomes e preços distintos, para haver empates desfeitos pelo id.
+                String price = (1 + random.nextInt(5)) + ".00";
+                String finalPrice = random.nextBoolean() ? price : "0.50";
+                ProductResponseDTO product = product(id, "item " + random.nextInt(6), random.nextBoolean() ? "café" : null,
+                        random.nextInt(3), price, finalPrice, random.nextBoolean() ? "PROMO" : null);
+                expected.put(id, product);
+                patched = patched.with(product);
+            }
+        }
+        CatalogSnapshot rebuilt = CatalogSnapshot.of(expected.values());
+
+        assertEquals(rebuilt.size(), patched.size());
+        for (String property : List.of("id", "name", "price", "finalPrice")) {
+            for (Sort.Direction direction : Sort.Direction.values()) {
+                PageRequest page = PageRequest.of(0, 50, Sort.by(direction, property));
+                assertEquals(ids(rebuilt.listProducts(page, CountMode.EXACT, null, null, null, null, null, null)),
+                        ids(patched.listProducts(page, CountMode.EXACT, null, null, null, null, null, null)));
+                assertEquals(ids(rebuilt.listProducts(page, CountMode.EXACT, "caf", null, new BigDecimal("3"), true, true, false)),
+                        ids(patched.listProducts(page, CountMode.EXACT, "caf", null, new BigDecimal("3"), true, true, false)));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Relevância com termos de busca fica com o banco; sem termos vira ordenação por nome")
+    void supports_shouldLeaveRelevanceRankingToTheDatabase() {
+        assertFalse(CatalogSnapshot.supports(Sort.by("relevance"), "café"));
+        assertTrue(CatalogSnapshot.supports(Sort.by("relevance", "price"), "café"));
+        assertTrue(CatalogSnapshot.supports(Sort.by("relevance"), "  "));
+
+        assertEquals(List.of(1L, 3L, 4L, 2L), ids(snapshot.listProducts(PageRequest.of(0, 10, Sort.by("relevance")),
+                CountMode.NONE, null, null, null, null, null, null)));
+    }
+
+    @Test
+    @DisplayName("Nome ordena por code point, como a collation C: maiúsculas antes e acentuadas depois das minúsculas")
+    void listProducts_shouldSortNamesByCodePoint() {
+        CatalogSnapshot names = CatalogSnapshot.of(List.of(
+                product(1L, "água", null, 1, "1.00", "1.00", null),
+                product(2L, "abacate", null, 1, "1.00", "1.00", null),
+                product(3L, "Zimbro", null, 1, "1.00", "1.00", null),
+                product(4L, "banana", null, 1, "1.00", "1.00", null)));
+
+        // Numa collation linguística seria abacate, água, banana, Zimbro: por isso ordersByText.
+        assertEquals(List.of(3L, 2L, 4L, 1L), ids(names.listProducts(PageRequest.of(0, 10, Sort.by("name")),
+                CountMode.NONE, null, null, null, null, null, null)));
+        assertTrue(CatalogSnapshot.ordersByText(Sort.by("relevance")));
+        assertFalse(CatalogSnapshot.ordersByText(Sort.by("relevance", "price")));
+    }
+
+    @Test
+    @DisplayName("Propriedade de ordenação desconhecida deve falhar mesmo com a página vazia")
+    void listProducts_shouldRejectUnknownSortProperty() {
+        assertThrows(IllegalArgumentException.class, () -> snapshot.listProducts(
+                PageRequest.of(50, 10, Sort.by("color")), CountMode.NONE, null, null, null, null, null, null));
+    }
+
+    private static List<Long> ids(PaginatedResponseDTO<ProductResponseDTO> page) {
+        return page.getData().stream().map(ProductResponseDTO::getId).toList();
+    }
+
+    private static ProductResponseDTO product(Long id, String name, String description, int stock,
+                                              String price, String finalPrice, String couponCode) {
+        boolean discounted = !price.equals(finalPrice);
+        return ProductResponseDTO.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .stock(stock)
+                .isOutOfStock(stock == 0)
+                .price(new BigDecimal(price))
+                .finalPrice(new BigDecimal(finalPrice))
+                .discount(discounted ? AppliedDiscountDTO.builder().type(CouponType.FIXED).value(BigDecimal.ONE).build() : null)
+                .hasCouponApplied(couponCode != null)
+                .couponCode(couponCode)
+                .build();
+    }
+}
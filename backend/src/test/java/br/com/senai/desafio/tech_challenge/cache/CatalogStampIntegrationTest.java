@@ -0,0 +1,75 @@
+package br.com.senai.desafio.tech_challenge.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Contra o Postgres local. Retenção zero e compactação manual: o agendador não interfere nas contagens.
+@EnabledIfEnvironmentVariable(named = "SPRING_DATASOURCE_URL", matches = ".+")
+@SpringBootTest(properties = {"app.search.engine=memory", "app.catalog.changes.retention=PT0S",
+        "app.catalog.changes.compact-interval=PT1H"})
+class CatalogStampIntegrationTest {
+
+    @Autowired
+    private CatalogStamp catalogStamp;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Escritas concorrentes não devem esperar uma pela outra, e a versão só avança no commit")
+    void record_shouldNotBlockConcurrentWriters() throws Exception {
+        // Arrange
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        long before = catalogStamp.current();
+        CountDownLatch recorded = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Act: a primeira escrita fica aberta depois de registrar a sua alteração
+        CompletableFuture<Void> open = CompletableFuture.runAsync(() -> transaction.executeWithoutResult(status -> {
+            catalogStamp.record(CatalogChange.product(1L));
+            recorded.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertTrue(recorded.await(5, TimeUnit.SECONDS));
+        CompletableFuture.runAsync(() -> transaction.executeWithoutResult(status ->
+                catalogStamp.record(CatalogChange.product(2L)))).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(before + 1, catalogStamp.current());
+        release.countDown();
+        open.get(5, TimeUnit.SECONDS);
+        assertEquals(before + 2, catalogStamp.current());
+    }
+
+    @Test
+    @DisplayName("A compactação deve esvaziar o log sem mudar a versão")
+    void compact_shouldPreserveVersion() {
+        // Arrange
+        catalogStamp.record(CatalogChange.catalog());
+        long before = catalogStamp.current();
+
+        // Act
+        catalogStamp.compact();
+
+        // Assert
+        CatalogStamp.Log log = catalogStamp.log();
+        assertTrue(log.changes().isEmpty());
+        assertEquals(before, log.version());
+        assertEquals(before, catalogStamp.current());
+    }
+}
@@ -0,0 +1,82 @@
+package br.com.senai.desafio.tech_challenge.cache;
+
+import br.com.senai.desafio.tech_challenge.model.Coupon;
+import br.com.senai.desafio.tech_challenge.model.CouponType;
+import br.com.senai.desafio.tech_challenge.repository.CouponRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CouponCacheTest {
+
+    @Mock
+    private CouponRepository couponRepository;
+
+    private CouponCache couponCache;
+
+    private Coupon coupon;
+
+    @BeforeEach
+    void setUp() {
+        couponCache = new CouponCache(couponRepository, 100, Duration.ofMinutes(10), Duration.ofSeconds(30));
+        coupon = Coupon.builder()
+                .id(1L)
+                .code("NATAL25")
+                .type(CouponType.PERCENT)
+                .value(new BigDecimal("25.00"))
+                .validFrom(Instant.now())
+                .validUntil(Instant.now().plus(Duration.ofDays(30)))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Deve consultar o banco apenas uma vez para o mesmo código")
+    void findByCode_shouldHitRepositoryOnce_forRepeatedLookups() {
+        when(couponRepository.findByCodeAndDeletedAtIsNull("NATAL25")).thenReturn(Optional.of(coupon));
+
+        assertEquals(coupon, couponCache.findByCode("NATAL25").orElseThrow());
+        assertEquals(coupon, couponCache.findByCode("NATAL25").orElseThrow());
+
+        verify(couponRepository, times(1)).findByCodeAndDeletedAtIsNull("NATAL25");
+        assertEquals(1, couponCache.stats().hitCount());
+        assertEquals(1, couponCache.stats().missCount());
+    }
+
+    @Test
+    @DisplayName("Deve cachear códigos inexistentes para que tentativas repetidas não cheguem ao banco")
+    void findByCode_shouldCacheNegativeResults() {
+        when(couponRepository.findByCodeAndDeletedAtIsNull("CHUTE123")).thenReturn(Optional.empty());
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(couponCache.findByCode("CHUTE123").isEmpty());
+        }
+
+        verify(couponRepository, times(1)).findByCodeAndDeletedAtIsNull("CHUTE123");
+    }
+
+    @Test
+    @DisplayName("Deve recarregar o cupom do banco após a invalidação")
+    void invalidate_shouldForceReload() {
+        when(couponRepository.findByCodeAndDeletedAtIsNull("NATAL25"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(coupon));
+
+        assertTrue(couponCache.findByCode("NATAL25").isEmpty());
+        couponCache.invalidate("NATAL25");
+
+        assertTrue(couponCache.findByCode("NATAL25").isPresent());
+        verify(couponRepository, times(2)).findByCodeAndDeletedAtIsNull("NATAL25");
+    }
+}
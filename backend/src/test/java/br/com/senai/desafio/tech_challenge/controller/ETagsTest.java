@@ -0,0 +1,32 @@
+package br.com.senai.desafio.tech_challenge.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ETagsTest {
+
+    @Test
+    @DisplayName("If-None-Match deve usar comparação fraca e aceitar listas e '*'")
+    void matches_shouldUseWeakComparison() {
+        String etag = ETags.catalog(42);
+
+        assertTrue(ETags.matches("W/\"c-42\"", etag));
+        assertTrue(ETags.matches("\"c-42\"", etag));
+        assertTrue(ETags.matches("\"c-1\", W/\"c-42\"", etag));
+        assertTrue(ETags.matches("*", etag));
+        assertFalse(ETags.matches("W/\"c-41\"", etag));
+        assertFalse(ETags.matches(null, etag));
+    }
+
+    @Test
+    @DisplayName("If-Match deve extrair a versão apenas de ETags do próprio produto")
+    void expectedProductVersion_shouldParseOnlyOwnETag() {
+        assertEquals(7L, ETags.expectedProductVersion(ETags.product(5L, 7L), 5L));
+        assertNull(ETags.expectedProductVersion(null, 5L));
+        assertNull(ETags.expectedProductVersion("*", 5L));
+        assertEquals(-1L, ETags.expectedProductVersion(ETags.product(6L, 7L), 5L));
+        assertEquals(-1L, ETags.expectedProductVersion("\"p-5-abc\"", 5L));
+    }
+}
@@ -0,0 +1,89 @@
+package br.com.senai.desafio.tech_challenge.controller;
+
+import br.com.senai.desafio.tech_challenge.dto.ApplyCouponDTO;
+import br.com.senai.desafio.tech_challenge.dto.ApplyPercentageDiscountDTO;
+import br.com.senai.desafio.tech_challenge.model.Product;
+import br.com.senai.desafio.tech_challenge.service.ProductService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductControllerTest {
+
+    @Mock
+    private ProductService productService;
+
+    @InjectMocks
+    private ProductController productController;
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/products/1/discount");
+
+    @Test
+    @DisplayName("Aplicar cupom em produto alterado concorrentemente deve responder 409, não 500")
+    void applyCoupon_shouldReturnConflict_whenProductVersionChanged() {
+        // Arrange
+        when(productService.applyCoupon(eq(1L), any())).thenThrow(staleProduct());
+        ApplyCouponDTO dto = new ApplyCouponDTO();
+        dto.setCode("NATAL25");
+
+        // Act
+        ResponseEntity<?> response = productController.applyCoupon(1L, dto, request);
+
+        // Assert
+        assertConflict(response);
+    }
+
+    @Test
+    @DisplayName("Aplicar desconto percentual em produto alterado concorrentemente deve responder 409, não 500")
+    void applyPercentageDiscount_shouldReturnConflict_whenProductVersionChanged() {
+        // Arrange
+        when(productService.applyPercentageDiscount(eq(1L), any())).thenThrow(staleProduct());
+        ApplyPercentageDiscountDTO dto = new ApplyPercentageDiscountDTO();
+        dto.setPercentage(new BigDecimal("10"));
+
+        // Act
+        ResponseEntity<?> response = productController.applyPercentageDiscount(1L, dto, request);
+
+        // Assert
+        assertConflict(response);
+    }
+
+    @Test
+    @DisplayName("Remover desconto de produto alterado concorrentemente deve responder 409, não 500")
+    void removeDiscount_shouldReturnConflict_whenProductVersionChanged() {
+        // Arrange
+        doThrow(staleProduct()).when(productService).removeDiscount(1L);
+
+        // Act
+        ResponseEntity<?> response = productController.removeDiscount(1L, request);
+
+        // Assert
+        assertConflict(response);
+    }
+
+    private static ObjectOptimisticLockingFailureException staleProduct() {
+        return new ObjectOptimisticLockingFailureException(Product.class, 1L);
+    }
+
+    private static void assertConflict(ResponseEntity<?> response) {
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        Map<?, ?> body = (Map<?, ?>) response.getBody();
+        assertEquals(409, body.get("status"));
+        assertTrue(((String) body.get("message")).contains("alterado por outra requisição"));
+    }
+}
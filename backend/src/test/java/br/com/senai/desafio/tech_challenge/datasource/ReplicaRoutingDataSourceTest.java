@@ -0,0 +1,149 @@
+package br.com.senai.desafio.tech_challenge.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+// DataSources simulados no lugar do primário e de duas réplicas: o roteamento depende apenas do estado da
+// transação corrente e da saúde das réplicas.
+class ReplicaRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replicaA;
+    private DataSource replicaB;
+    private Connection primaryConnection;
+    private Connection replicaAConnection;
+    private Connection replicaBConnection;
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = mock(DataSource.class);
+        replicaA = mock(DataSource.class);
+        replicaB = mock(DataSource.class);
+        primaryConnection = mock(Connection.class);
+        replicaAConnection = mock(Connection.class);
+        replicaBConnection = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replicaA.getConnection()).thenReturn(replicaAConnection);
+        when(replicaB.getConnection()).thenReturn(replicaBConnection);
+        routing = new ReplicaRoutingDataSource(primary, List.of(replicaA, replicaB));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        ReadYourWrites.clear();
+    }
+
+    @Test
+    @DisplayName("Transações somente leitura devem alternar entre as réplicas; escritas e acesso sem transação ficam no primário")
+    void shouldRouteReadOnlyTransactionsToReplicasInRoundRobin() throws SQLException {
+        assertSame(primaryConnection, routing.getConnection());
+
+        inTransaction(true);
+        assertSame(replicaAConnection, routing.getConnection());
+        assertSame(replicaBConnection, routing.getConnection());
+        assertSame(replicaAConnection, routing.getConnection());
+
+        inTransaction(false);
+        assertSame(primaryConnection, routing.getConnection());
+    }
+
+    @Test
+    @DisplayName("Depois de uma escrita, as leituras da mesma requisição devem ir para o primário")
+    void shouldReadOwnWritesWithinRequest() throws SQLException {
+        ReadYourWrites.start();
+        inTransaction(true);
+        assertSame(replicaAConnection, routing.getConnection());
+
+        inTransaction(false);
+        routing.getConnection();
+
+        inTransaction(true);
+        assertSame(primaryConnection, routing.getConnection());
+
+        // Nova requisição: volta a ler das réplicas.
+        ReadYourWrites.start();
+        assertNotSame(primaryConnection, routing.getConnection());
+    }
+
+    @Test
+    @DisplayName("Réplica que falha ao entregar conexão deve cair para o primário e sair do rodízio")
+    void shouldFallBackToPrimaryWhenReplicaFails() throws SQLException {
+        when(replicaA.getConnection()).thenThrow(new SQLException("connection refused"));
+        inTransaction(true);
+
+        assertSame(primaryConnection, routing.getConnection());
+        assertEquals(1, routing.healthyReplicas());
+        assertSame(replicaBConnection, routing.getConnection());
+        assertSame(replicaBConnection, routing.getConnection());
+    }
+
+    @Test
+    @DisplayName("A verificação periódica deve retirar réplicas atrasadas e devolver as que se recuperam")
+    void healthCheck_shouldTrackReplicationLag() throws SQLException {
+        ResultSet laggingA = lagResult(30);
+        ResultSet healthyB = lagResult(0);
+        stubLagQuery(replicaAConnection, laggingA);
+        stubLagQuery(replicaBConnection, healthyB);
+
+        routing.checkHealth(Duration.ofSeconds(5));
+
+        assertEquals(1, routing.healthyReplicas());
+        inTransaction(true);
+        assertSame(replicaBConnection, routing.getConnection());
+        assertSame(replicaBConnection, routing.getConnection());
+
+        ResultSet recoveredA = lagResult(0);
+        ResultSet stillHealthyB = lagResult(0);
+        stubLagQuery(replicaAConnection, recoveredA);
+        stubLagQuery(replicaBConnection, stillHealthyB);
+        routing.checkHealth(Duration.ofSeconds(5));
+        assertEquals(2, routing.healthyReplicas());
+    }
+
+    @Test
+    @DisplayName("Sem réplicas saudáveis, as leituras devem ir para o primário")
+    void shouldUsePrimaryWhenNoReplicaIsHealthy() throws SQLException {
+        when(replicaAConnection.createStatement()).thenThrow(new SQLException("timeout"));
+        when(replicaBConnection.createStatement()).thenThrow(new SQLException("timeout"));
+        routing.checkHealth(Duration.ofSeconds(5));
+
+        inTransaction(true);
+        assertSame(primaryConnection, routing.getConnection());
+    }
+
+    private static void inTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private static ResultSet lagResult(double lagSeconds) throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getDouble(1)).thenReturn(lagSeconds);
+        return resultSet;
+    }
+
+    private static void stubLagQuery(Connection connection, ResultSet resultSet) throws SQLException {
+        Statement statement = mock(Statement.class);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+    }
+}
@@ -0,0 +1,115 @@
+package br.com.senai.desafio.tech_challenge.pricing;
+
+import br.com.senai.desafio.tech_challenge.model.CouponType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PricingEngineTest {
+
+    // Semente fixa: uma falha é reproduzível com o mesmo caso.
+    private static final long SEED = 20240601L;
+    private static final int CASES = 200_000;
+
+    @Test
+    @DisplayName("Ponto fixo deve coincidir com a conta em BigDecimal em casos aleatórios de FIXED e PERCENT")
+    void finalPrice_shouldMatchBigDecimalReference_forRandomInputs() {
+        Random random = new Random(SEED);
+        for (int i = 0; i < CASES; i++) {
+            BigDecimal price = BigDecimal.valueOf(randomCents(random), 2);
+            CouponType type = random.nextBoolean() ? CouponType.PERCENT : CouponType.FIXED;
+            BigDecimal value = type == CouponType.PERCENT
+                    ? percent(random)
+                    : BigDecimal.valueOf(random.nextLong(price.movePointRight(2).longValue() * 2 + 1), 2);
+
+            BigDecimal expected = PricingEngine.referenceFinalPrice(price, type, value);
+            BigDecimal actual = PricingEngine.finalPrice(price, type, value);
+
+            String input = "preço=" + price + " tipo=" + type + " valor=" + value;
+            assertEquals(0, expected.compareTo(actual), input);
+            assertEquals(2, actual.scale(), input);
+            assertEquals(expected, actual, input);
+        }
+    }
+
+    @ParameterizedTest(name = "{0} com {1} {2} = {3}")
+    @DisplayName("Empates de arredondamento devem ir para longe do zero (HALF_UP), inclusive abaixo de zero")
+    @CsvSource({
+            "0.05, PERCENT, 50, 0.03",
+            "0.01, PERCENT, 50, 0.01",
+            "0.03, PERCENT, 150, -0.02",
+            "19.99, PERCENT, 12.5, 17.49",
+            "1234.56, PERCENT, 15, 1049.38",
+            "100.00, FIXED, 100.01, -0.01",
+            "10, FIXED, 2.5, 7.50"
+    })
+    void finalPrice_shouldRoundHalfUp(String price, CouponType type, String value, String expected) {
+        BigDecimal actual = PricingEngine.finalPrice(new BigDecimal(price), type, new BigDecimal(value));
+
+        assertEquals(new BigDecimal(expected), actual);
+        assertEquals(0, PricingEngine.referenceFinalPrice(new BigDecimal(price), type, new BigDecimal(value)).compareTo(actual));
+    }
+
+    @Test
+    @DisplayName("Valores fora do ponto fixo (mais casas ou overflow) devem cair na conta de referência")
+    void finalPrice_shouldFallBackToReference_outsideFixedPointRange() {
+        BigDecimal percent = new BigDecimal("12.345");
+        BigDecimal huge = new BigDecimal("9223372036854775.00");
+
+        assertEquals(PricingEngine.referenceFinalPrice(new BigDecimal("99.99"), CouponType.PERCENT, percent),
+                PricingEngine.finalPrice(new BigDecimal("99.99"), CouponType.PERCENT, percent));
+        assertEquals(PricingEngine.referenceFinalPrice(huge, CouponType.PERCENT, BigDecimal.TEN),
+                PricingEngine.finalPrice(huge, CouponType.PERCENT, BigDecimal.TEN));
+        assertThrows(ArithmeticException.class,
+                () -> PricingEngine.finalPriceCents(Long.MAX_VALUE / 2, CouponType.PERCENT, 10_00));
+    }
+
+    @Test
+    @DisplayName("O lote deve produzir o mesmo preço que o cálculo item a item")
+    void finalPricesCents_shouldMatchSingleItemPricing() {
+        Random random = new Random(SEED);
+        int count = 1_000;
+        long[] prices = new long[count];
+        CouponType[] types = new CouponType[count];
+        long[] values = new long[count];
+        for (int i = 0; i < count; i++) {
+            prices[i] = randomCents(random);
+            types[i] = switch (random.nextInt(3)) {
+                case 0 -> null;
+                case 1 -> CouponType.FIXED;
+                default -> CouponType.PERCENT;
+            };
+            values[i] = types[i] == CouponType.PERCENT ? random.nextInt(80_01) : random.nextLong(prices[i] + 1);
+        }
+
+        long[] finalCents = new long[count];
+        PricingEngine.finalPricesCents(prices, types, values, finalCents);
+
+        for (int i = 0; i < count; i++) {
+            BigDecimal value = types[i] == null ? null : BigDecimal.valueOf(values[i], 2);
+            BigDecimal expected = types[i] == null
+                    ? BigDecimal.valueOf(prices[i], 2)
+                    : PricingEngine.referenceFinalPrice(BigDecimal.valueOf(prices[i], 2), types[i], value);
+            assertEquals(expected, PricingEngine.fromCents(finalCents[i]));
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> PricingEngine.finalPricesCents(prices, types, new long[count - 1], finalCents));
+    }
+
+    // 0 a 120% com até duas casas, às vezes sem os zeros à direita (escalas 0, 1, 2 ou negativa, como em 1E+2).
+    private static BigDecimal percent(Random random) {
+        BigDecimal value = BigDecimal.valueOf(random.nextInt(120_01), 2);
+        return random.nextBoolean() ? value.stripTrailingZeros() : value;
+    }
+
+    // Mistura preços pequenos (onde o arredondamento pesa) com preços no limite de @Digits(integer = 8).
+    private static long randomCents(Random random) {
+        return random.nextBoolean() ? 1 + random.nextInt(10_000) : 1 + random.nextLong(99_999_999_99L);
+    }
+}
@@ -0,0 +1,223 @@
+package br.com.senai.desafio.tech_challenge.repository;
+
+import br.com.senai.desafio.tech_challenge.dto.CountMode;
+import br.com.senai.desafio.tech_challenge.service.ProductService;
+import br.com.senai.desafio.tech_challenge.trace.SqlTrace;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Contra o Postgres local, com o esquema das migrações do Flyway e a busca do Postgres (a de produção): cada
+// consulta dos repositórios é executada de verdade, o SQL gerado pelo Hibernate é capturado pelo SqlTrace e o
+// plano dele, com os mesmos parâmetros e as configurações padrão do planejador, precisa usar um índice. Com
+// poucas linhas o Seq Scan é de fato mais barato que qualquer índice: a classe carrega um volume próprio (da
+// ordem de uma base real) e roda ANALYZE.
+@EnabledIfEnvironmentVariable(named = "SPRING_DATASOURCE_URL", matches = ".+")
+// Configuração padrão (busca do Postgres, listagem sem a foto em memória): compartilha o contexto já em cache.
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SchemaIndexIntegrationTest {
+
+    private static final int PRODUCTS = 20_000;
+    private static final int COUPONS = 1_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductDiscountRepository productDiscountRepository;
+
+    @Autowired
+    private CouponRepository couponRepository;
+
+    @Autowired
+    private CouponRedemptionRepository couponRedemptionRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final String prefix = "indice " + Long.toString(System.nanoTime(), 36) + " ";
+    private final String couponCode = ("IDX" + Long.toString(System.nanoTime(), 36)).toUpperCase();
+    private long productId;
+    private long deletedProductId;
+    private long couponId;
+
+    // Distribuição parecida com a de produção: poucos produtos removidos, com desconto ou com cupom, um histórico
+    // de descontos encerrados maior que o de descontos ativos e os resgates espalhados entre os cupons.
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("""
+                INSERT INTO coupons (code, coupon_type, discount_value, one_shot, valid_from, valid_until, created_at, updated_at)
+                SELECT ? || CASE WHEN i = 0 THEN '' ELSE 'X' || i END, 'FIXED', 5, false, now(), now() + interval '1 day', now(), now()
+                FROM generate_series(0, ?) AS i
+                """, couponCode, COUPONS - 1);
+        jdbcTemplate.update("""
+                INSERT INTO products (name, description, stock, price, final_price, active_discount_type, active_discount_value,
+                                      active_discount_applied_at, active_coupon_code, created_at, updated_at, deleted_at)
+                SELECT ? || i, 'descrição do produto ' || i, i % 50, 10 + i % 490, 10 + i % 490,
+                       CASE WHEN i % 50 = 0 THEN 'PERCENT' END, CASE WHEN i % 50 = 0 THEN 10 END,
+                       CASE WHEN i % 50 = 0 THEN now() END, CASE WHEN i % 100 = 0 THEN ? END,
+                       now(), now(), CASE WHEN i % 20 = 0 THEN now() END
+                FROM generate_series(1, ?) AS i
+                """, prefix, couponCode, PRODUCTS);
+        jdbcTemplate.update("""
+                INSERT INTO product_discounts (product_id, discount_type, discount_value, applied_at, removed_at)
+                SELECT p.id, 'PERCENT', 10, now(), CASE WHEN h.n = 0 AND p.active_discount_type IS NOT NULL THEN NULL ELSE now() END
+                FROM products p CROSS JOIN generate_series(0, 2) AS h(n)
+                WHERE p.name LIKE ?
+                """, prefix + "%");
+        jdbcTemplate.update("""
+                INSERT INTO coupon_redemptions (coupon_id, product_id, redeemed_at)
+                SELECT c.id, p.id, now()
+                FROM (SELECT id, row_number() OVER (ORDER BY id) % ? AS n FROM products WHERE name LIKE ?) p
+                JOIN coupons c ON c.code = ? || CASE WHEN p.n = 0 THEN '' ELSE 'X' || p.n END
+                """, COUPONS, prefix + "%", couponCode);
+        productId = jdbcTemplate.queryForObject("SELECT min(id) FROM products WHERE name LIKE ? AND deleted_at IS NULL", Long.class, prefix + "%");
+        deletedProductId = jdbcTemplate.queryForObject("SELECT min(id) FROM products WHERE name LIKE ? AND deleted_at IS NOT NULL", Long.class, prefix + "%");
+        couponId = jdbcTemplate.queryForObject("SELECT id FROM coupons WHERE code = ?", Long.class, couponCode);
+        analyze();
+    }
+
+    // Exclusão física, como nos demais testes de integração.
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM coupon_redemptions WHERE coupon_id IN (SELECT id FROM coupons WHERE code LIKE ?)", couponCode + "%");
+        jdbcTemplate.update("DELETE FROM product_discounts WHERE product_id IN (SELECT id FROM products WHERE name LIKE ?)", prefix + "%");
+        jdbcTemplate.update("DELETE FROM products WHERE name LIKE ?", prefix + "%");
+        jdbcTemplate.update("DELETE FROM coupons WHERE code LIKE ?", couponCode + "%");
+        analyze();
+    }
+
+    private void analyze() {
+        jdbcTemplate.execute("ANALYZE products, product_discounts, coupons, coupon_redemptions");
+    }
+
+    // Cada caso executa uma chamada real; o plano conferido é o da primeira instrução que contém o trecho dado.
+    Stream<Arguments> repositoryQueries() {
+        return Stream.of(
+                Arguments.of("ProductRepository.findById",
+                        call(() -> productRepository.findById(productId)), "from products",
+                        List.of("products_pkey")),
+                Arguments.of("ProductRepository.findVersionById",
+                        call(() -> productRepository.findVersionById(productId)), "from products",
+                        List.of("products_pkey")),
+                Arguments.of("ProductRepository.findInactiveById",
+                        call(() -> productRepository.findInactiveById(deletedProductId)), "FROM products",
+                        List.of("products_pkey")),
+                Arguments.of("ProductRepository.findByName",
+                        call(() -> productRepository.findByName(prefix + 1)), "from products",
+                        List.of("uq_products_name", "idx_products_active_name")),
+                Arguments.of("Listagem ordenada por nome",
+                        call(() -> listProducts(Sort.by("name"), null, null, null, null)), "order by",
+                        List.of("idx_products_active_name", "uq_products_name")),
+                Arguments.of("Listagem ordenada por preço",
+                        call(() -> listProducts(Sort.by("price"), null, null, null, null)), "order by",
+                        List.of("idx_products_active_price")),
+                Arguments.of("Listagem filtrada por preço final",
+                        call(() -> listProducts(Sort.by("finalPrice"), null, new BigDecimal("10"), null, null)), "order by",
+                        List.of("idx_products_final_price")),
+                // Filtros pouco seletivos com ORDER BY ... LIMIT: percorrer o índice da ordenação filtrando também vale.
+                Arguments.of("Listagem com desconto",
+                        call(() -> listProducts(Sort.by("name"), null, null, true, null)), "order by",
+                        List.of("idx_products_active_discount", "idx_products_active_name", "uq_products_name")),
+                Arguments.of("Listagem com cupom aplicado",
+                        call(() -> listProducts(Sort.by("name"), null, null, null, true)), "order by",
+                        List.of("idx_products_active_coupon", "idx_products_active_name", "uq_products_name")),
+                Arguments.of("Busca textual (substring e prefixo)",
+                        call(() -> listProducts(Sort.by("name"), "produto 4321", null, null, null)), "order by",
+                        List.of("idx_products_name_trgm", "idx_products_search_tsv")),
+                Arguments.of("CouponRepository.findByCodeAndDeletedAtIsNull",
+                        call(() -> couponRepository.findByCodeAndDeletedAtIsNull(couponCode)), "from coupons",
+                        List.of("uq_coupons_code")),
+                Arguments.of("CouponRepository.findActiveRedemptionCountById",
+                        call(() -> couponRepository.findActiveRedemptionCountById(couponId)), "from coupons",
+                        List.of("coupons_pkey")),
+                Arguments.of("CouponRepository.redeem",
+                        call(() -> couponRepository.redeem(couponId)), "update coupons",
+                        List.of("coupons_pkey")),
+                Arguments.of("ProductDiscountRepository.findActiveDiscountWithCouponByProductId",
+                        call(() -> productDiscountRepository.findActiveDiscountWithCouponByProductId(productId)), "from product_discounts",
+                        List.of("uq_product_discounts_active_product", "idx_product_discounts_product")),
+                Arguments.of("ProductDiscountRepository.findActiveByProductIds",
+                        call(() -> productDiscountRepository.findActiveByProductIds(List.of(productId, productId + 1))), "from product_discounts",
+                        List.of("uq_product_discounts_active_product", "idx_product_discounts_product")),
+                Arguments.of("Product.discounts (histórico)",
+                        call(() -> productRepository.findById(productId).orElseThrow().getDiscounts().size()), "from product_discounts",
+                        List.of("idx_product_discounts_product")),
+                Arguments.of("CouponRedemptionRepository.countByCouponId",
+                        call(() -> couponRedemptionRepository.countByCouponId(couponId)), "from coupon_redemptions",
+                        List.of("idx_coupon_redemptions_coupon")));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryQueries")
+    @DisplayName("Cada consulta dos repositórios deve ser atendida por um índice")
+    void repositoryQuery_shouldUseIndex(String description, Runnable call, String fragment, List<String> expectedIndexes) {
+        SqlTrace.StatementTrace statement = capture(call, fragment);
+        String plan = explain(statement);
+
+        assertTrue(expectedIndexes.stream().anyMatch(plan::contains),
+                description + " deveria usar um de " + expectedIndexes + ", SQL:\n" + statement.sql() + "\nplano:\n" + plan);
+    }
+
+    // Numa transação desfeita ao final: as escritas (redeem) não alteram os dados da classe.
+    private Runnable call(Supplier<?> repositoryCall) {
+        return () -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            repositoryCall.get();
+            status.setRollbackOnly();
+        });
+    }
+
+    private Object listProducts(Sort sort, String search, BigDecimal minPrice, Boolean hasDiscount, Boolean withCouponApplied) {
+        return productService.listProducts(PageRequest.of(0, 10, sort), CountMode.NONE, search,
+                minPrice, minPrice != null ? minPrice.add(new BigDecimal("40")) : null, hasDiscount, null, withCouponApplied);
+    }
+
+    private SqlTrace.StatementTrace capture(Runnable call, String fragment) {
+        SqlTrace trace = SqlTrace.start(100);
+        try {
+            call.run();
+        } finally {
+            SqlTrace.clear();
+        }
+        return trace.statements().stream()
+                .filter(statement -> statement.sql().contains(fragment))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("Nenhuma instrução com '" + fragment + "': " + trace.statements()));
+    }
+
+    // Plano com os mesmos valores da execução (o plano "custom" que o Postgres monta para eles).
+    private String explain(SqlTrace.StatementTrace statement) {
+        return String.join("\n", jdbcTemplate.query("EXPLAIN " + statement.sql(), ps -> {
+            List<Object> parameters = statement.parameters();
+            for (int i = 0; i < parameters.size(); i++) {
+                ps.setObject(i + 1, parameters.get(i));
+            }
+        }, (rs, rowNum) -> rs.getString(1)));
+    }
+}
@@ -0,0 +1,71 @@
+package br.com.senai.desafio.tech_challenge.search;
+
+import br.com.senai.desafio.tech_challenge.model.Product;
+import br.com.senai.desafio.tech_challenge.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryProductSearchEngineTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private InMemoryProductSearchEngine searchEngine;
+
+    @BeforeEach
+    void setUp() {
+        when(productRepository.findAll()).thenReturn(List.of(
+                product(1L, "café especial", "Um café de alta qualidade"),
+                product(2L, "café comum", "Torra média"),
+                product(3L, "chá verde", "Folhas selecionadas, sem café")));
+        searchEngine.rebuild();
+    }
+
+    @Test
+    @DisplayName("Deve casar termos por prefixo e ranquear correspondências exatas primeiro")
+    void search_shouldMatchByPrefix_andRankExactTermsFirst() {
+        assertEquals(List.of(1L, 2L, 3L), List.copyOf(searchEngine.search("café").keySet()));
+        assertEquals(List.of(1L), List.copyOf(searchEngine.search("esp").keySet()));
+    }
+
+    @Test
+    @DisplayName("Deve exigir todos os termos da busca")
+    void search_shouldRequireAllTerms() {
+        assertEquals(List.of(3L), List.copyOf(searchEngine.search("chá café").keySet()));
+        assertTrue(searchEngine.search("café inexistente").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve refletir reindexação e remoção de produtos")
+    void index_shouldReplacePreviousTerms_andRemoveShouldDropProduct() {
+        searchEngine.index(product(2L, "café gourmet", null));
+        searchEngine.remove(3L);
+
+        assertTrue(searchEngine.search("comum").isEmpty());
+        assertEquals(List.of(2L), List.copyOf(searchEngine.search("gourmet").keySet()));
+        assertFalse(searchEngine.search("chá").containsKey(3L));
+    }
+
+    private Product product(Long id, String name, String description) {
+        return Product.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .price(new BigDecimal("10.00"))
+                .stock(1)
+                .build();
+    }
+}
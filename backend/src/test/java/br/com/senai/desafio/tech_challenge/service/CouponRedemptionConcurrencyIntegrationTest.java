@@ -0,0 +1,150 @@
+package br.com.senai.desafio.tech_challenge.service;
+
+import br.com.senai.desafio.tech_challenge.cache.CouponCache;
+import br.com.senai.desafio.tech_challenge.dto.ApplyCouponDTO;
+import br.com.senai.desafio.tech_challenge.exception.UnprocessableEntityException;
+import br.com.senai.desafio.tech_challenge.model.Coupon;
+import br.com.senai.desafio.tech_challenge.model.CouponType;
+import br.com.senai.desafio.tech_challenge.model.Product;
+import br.com.senai.desafio.tech_challenge.repository.CouponRedemptionRepository;
+import br.com.senai.desafio.tech_challenge.repository.CouponRepository;
+import br.com.senai.desafio.tech_challenge.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Teste de carga contra o Postgres local: milhares de aplicações simultâneas do mesmo cupom,
+// cada uma em um produto diferente, disputando um limite de usos bem menor que o número de tentativas.
+// A vazão medida vai para o log e é comparada com um piso.
+@Slf4j
+@EnabledIfEnvironmentVariable(named = "SPRING_DATASOURCE_URL", matches = ".+")
+@SpringBootTest(properties = "app.search.engine=memory")
+class CouponRedemptionConcurrencyIntegrationTest {
+
+    private static final int ATTEMPTS = 2_000;
+    private static final int MAX_USES = 500;
+    private static final int THREADS = 64;
+    // Piso conservador para acusar regressões grosseiras sem deixar o teste instável: com a aplicação e o Postgres
+    // dividindo um único núcleo foram medidas ~120 tentativas/s (~30 resgates/s, serializados na linha do cupom).
+    private static final int MIN_ATTEMPTS_PER_SECOND = 50;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CouponRepository couponRepository;
+
+    @Autowired
+    private CouponRedemptionRepository couponRedemptionRepository;
+
+    @Autowired
+    private CouponService couponService;
+
+    @Autowired
+    private CouponCache couponCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String runId = Long.toString(System.nanoTime(), 36).toUpperCase();
+    private List<Product> products = List.of();
+    private Coupon coupon;
+
+    // Exclusão física: deleteAll do repositório faria só o soft delete (e falharia com a versão já alterada).
+    @AfterEach
+    void tearDown() {
+        if (coupon != null) {
+            jdbcTemplate.update("DELETE FROM coupon_redemptions WHERE coupon_id = ?", coupon.getId());
+            jdbcTemplate.update("DELETE FROM product_discounts WHERE coupon_id = ?", coupon.getId());
+            jdbcTemplate.update("DELETE FROM coupons WHERE id = ?", coupon.getId());
+        }
+        jdbcTemplate.update("DELETE FROM products WHERE name LIKE ?", "resgate " + runId.toLowerCase() + " %");
+    }
+
+    @Test
+    @DisplayName("Aplicações simultâneas do mesmo cupom nunca devem ultrapassar o limite de usos")
+    void concurrentApplications_shouldNeverExceedMaxUses() throws Exception {
+        // Arrange
+        products = productRepository.saveAll(IntStream.range(0, ATTEMPTS)
+                .mapToObj(i -> Product.builder()
+                        .name("resgate " + runId.toLowerCase() + " " + i)
+                        .price(new BigDecimal("100.00"))
+                        .finalPrice(new BigDecimal("100.00"))
+                        .stock(1)
+                        .build())
+                .toList());
+        coupon = couponRepository.save(Coupon.builder()
+                .code(("RD" + runId).substring(0, Math.min(20, runId.length() + 2)))
+                .type(CouponType.FIXED)
+                .value(BigDecimal.ONE)
+                .oneShot(false)
+                .maxUses(MAX_USES)
+                .validFrom(Instant.now().minus(Duration.ofHours(1)))
+                .validUntil(Instant.now().plus(Duration.ofDays(1)))
+                .build());
+
+        AtomicInteger applied = new AtomicInteger();
+        AtomicInteger exhausted = new AtomicInteger();
+        List<Throwable> unexpected = new CopyOnWriteArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (Product product : products) {
+            futures.add(executor.submit(() -> {
+                ApplyCouponDTO dto = new ApplyCouponDTO();
+                dto.setCode(coupon.getCode());
+                start.await();
+                try {
+                    productService.applyCoupon(product.getId(), dto);
+                    applied.incrementAndGet();
+                } catch (UnprocessableEntityException ex) {
+                    exhausted.incrementAndGet();
+                } catch (Throwable ex) {
+                    unexpected.add(ex);
+                }
+                return null;
+            }));
+        }
+
+        // Act
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+        executor.shutdown();
+        double attemptsPerSecond = ATTEMPTS / seconds;
+        log.info("{} tentativas em {} s: {} tentativas/s, {} resgates/s", ATTEMPTS, String.format("%.2f", seconds),
+                Math.round(attemptsPerSecond), Math.round(MAX_USES / seconds));
+
+        // Assert
+        assertTrue(unexpected.isEmpty(), () -> "Falhas inesperadas: " + unexpected);
+        assertEquals(MAX_USES, applied.get());
+        assertEquals(ATTEMPTS - MAX_USES, exhausted.get());
+        assertEquals(MAX_USES, couponRepository.findById(coupon.getId()).orElseThrow().getRedemptionCount());
+        assertEquals(MAX_USES, couponRedemptionRepository.countByCouponId(coupon.getId()));
+        assertEquals(MAX_USES, couponService.getCouponByCode(coupon.getCode()).getRedemptionCount());
+        assertTrue(attemptsPerSecond >= MIN_ATTEMPTS_PER_SECOND,
+                () -> "Vazão de " + Math.round(attemptsPerSecond) + " tentativas/s, abaixo do piso de " + MIN_ATTEMPTS_PER_SECOND);
+    }
+}
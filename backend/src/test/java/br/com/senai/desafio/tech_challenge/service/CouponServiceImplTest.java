@@ -1,9 +1,13 @@
 package br.com.senai.desafio.tech_challenge.service;
 
+import br.com.senai.desafio.tech_challenge.cache.CatalogInvalidationBus;
+import br.com.senai.desafio.tech_challenge.cache.CouponCache;
 import br.com.senai.desafio.tech_challenge.dto.CouponRequestDTO;
 import br.com.senai.desafio.tech_challenge.dto.CouponResponseDTO;
+import br.com.senai.desafio.tech_challenge.dto.CouponUpdateDTO;
 import br.com.senai.desafio.tech_challenge.exception.ResourceConflictException;
 import br.com.senai.desafio.tech_challenge.exception.ResourceNotFoundException; // Adicionado para o teste de delete
+import br.com.senai.desafio.tech_challenge.exception.UnprocessableEntityException;
 import br.com.senai.desafio.tech_challenge.model.Coupon;
 import br.com.senai.desafio.tech_challenge.model.CouponType;
 import br.com.senai.desafio.tech_challenge.repository.CouponRepository;
@@ -31,6 +35,12 @@ class CouponServiceImplTest {
     @Mock
     private CouponRepository couponRepository;
 
+    @Mock
+    private CouponCache couponCache;
+
+    @Mock
+    private CatalogInvalidationBus invalidationBus;
+
     @InjectMocks
     private CouponServiceImpl couponService;
 
@@ -139,4 +149,69 @@ class CouponServiceImplTest {
 
         verify(couponRepository, never()).save(any());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Deve resolver o cupom pelo cache e ler do repositório só o número de usos atualizado")
+    void getCouponByCode_shouldUseCacheAndReadFreshRedemptionCount() {
+        // Arrange
+        coupon.setRedemptionCount(2);
+        when(couponCache.findByCode("NATAL25")).thenReturn(Optional.of(coupon));
+        when(couponRepository.findActiveRedemptionCountById(1L)).thenReturn(Optional.of(7));
+
+        // Act
+        CouponResponseDTO result = couponService.getCouponByCode(" natal25 ");
+
+        // Assert
+        assertEquals(7, result.getRedemptionCount());
+        assertEquals(2, coupon.getRedemptionCount()); // a instância cacheada não é alterada
+        verify(couponRepository, never()).findByCodeAndDeletedAtIsNull(any());
+    }
+
+    @Test
+    @DisplayName("Cupom ausente no cache (inclusive o \"não encontrado\" cacheado) não deve consultar o repositório")
+    void getCouponByCode_shouldThrowNotFound_whenCacheMisses() {
+        // Arrange
+        when(couponCache.findByCode("NAOEXISTE")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> couponService.getCouponByCode("naoexiste"));
+        verifyNoInteractions(couponRepository);
+    }
+
+    @Test
+    @DisplayName("Desativar oneShot sem informar maxUses deve falhar, em vez de manter o limite de 1 uso")
+    void updateCoupon_shouldRequireMaxUses_whenTurningOneShotOff() {
+        // Arrange
+        coupon.setOneShot(true);
+        coupon.setMaxUses(1);
+        when(couponRepository.findByCodeAndDeletedAtIsNull("NATAL25")).thenReturn(Optional.of(coupon));
+        CouponUpdateDTO update = new CouponUpdateDTO();
+        update.setOneShot(false);
+
+        // Act & Assert
+        assertThrows(UnprocessableEntityException.class, () -> couponService.updateCoupon("NATAL25", update));
+        verify(couponRepository, never()).save(any());
+        assertTrue(coupon.isOneShot());
+    }
+
+    @Test
+    @DisplayName("Desativar oneShot informando maxUses deve aplicar o novo limite")
+    void updateCoupon_shouldApplyMaxUses_whenTurningOneShotOff() {
+        // Arrange
+        coupon.setOneShot(true);
+        coupon.setMaxUses(1);
+        when(couponRepository.findByCodeAndDeletedAtIsNull("NATAL25")).thenReturn(Optional.of(coupon));
+        when(couponRepository.save(any(Coupon.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        CouponUpdateDTO update = new CouponUpdateDTO();
+        update.setOneShot(false);
+        update.setMaxUses(50);
+
+        // Act
+        CouponResponseDTO result = couponService.updateCoupon("NATAL25", update);
+
+        // Assert
+        assertFalse(result.isOneShot());
+        assertEquals(50, result.getMaxUses());
+        verify(couponCache).invalidate("NATAL25");
+    }
+}
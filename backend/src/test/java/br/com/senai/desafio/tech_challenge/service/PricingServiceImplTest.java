@@ -0,0 +1,213 @@
+package br.com.senai.desafio.tech_challenge.service;
+
+import br.com.senai.desafio.tech_challenge.cache.CouponCache;
+import br.com.senai.desafio.tech_challenge.dto.PriceQuoteLineDTO;
+import br.com.senai.desafio.tech_challenge.dto.PriceQuoteRequestDTO;
+import br.com.senai.desafio.tech_challenge.dto.PriceQuoteResponseDTO;
+import br.com.senai.desafio.tech_challenge.exception.UnprocessableEntityException;
+import br.com.senai.desafio.tech_challenge.model.Coupon;
+import br.com.senai.desafio.tech_challenge.model.CouponType;
+import br.com.senai.desafio.tech_challenge.model.Product;
+import br.com.senai.desafio.tech_challenge.model.ProductDiscount;
+import br.com.senai.desafio.tech_challenge.repository.CouponRepository;
+import br.com.senai.desafio.tech_challenge.repository.ProductDiscountRepository;
+import br.com.senai.desafio.tech_challenge.repository.ProductRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PricingServiceImplTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductDiscountRepository productDiscountRepository;
+
+    @Mock
+    private CouponCache couponCache;
+
+    @Mock
+    private CouponRepository couponRepository;
+
+    @InjectMocks
+    private PricingServiceImpl pricingService;
+
+    @Test
+    @DisplayName("Deve cotar o carrinho com duas consultas, mantendo IDs repetidos e listando os inexistentes")
+    void quote_shouldPriceCartWithBatchedQueries() {
+        // Arrange
+        Product discounted = product(1L, "café especial", "59.90");
+        Product plain = product(2L, "chá verde", "10.00");
+        when(productRepository.findAllById(any())).thenReturn(List.of(discounted, plain));
+        when(productDiscountRepository.findActiveByProductIds(any()))
+                .thenReturn(List.of(discount(discounted, CouponType.PERCENT, "10")));
+
+        // Act
+        PriceQuoteResponseDTO result = pricingService.quote(request(null, 1L, 2L, 99L, 2L));
+
+        // Assert
+        assertEquals(List.of(1L, 2L, 2L), result.getLines().stream().map(PriceQuoteLineDTO::getProductId).toList());
+        assertEquals(new BigDecimal("53.91"), result.getLines().get(0).getFinalPrice());
+        assertEquals(CouponType.PERCENT, result.getLines().get(0).getDiscount().getType());
+        assertEquals(new BigDecimal("10.00"), result.getLines().get(1).getFinalPrice());
+        assertNull(result.getLines().get(1).getDiscount());
+        assertNull(result.getLines().get(1).getCouponApplied());
+        assertEquals(new BigDecimal("79.90"), result.getTotalPrice());
+        assertEquals(new BigDecimal("73.91"), result.getTotalFinalPrice());
+        assertEquals(List.of(99L), result.getMissingProductIds());
+        verify(productRepository, times(1)).findAllById(any());
+        verify(productDiscountRepository, times(1)).findActiveByProductIds(any());
+        verifyNoMoreInteractions(productRepository, productDiscountRepository);
+        verifyNoInteractions(couponCache);
+    }
+
+    @Test
+    @DisplayName("Deve simular o cupom sem aplicar em produtos com desconto ativo ou que ficariam abaixo de R$ 0,01")
+    void quote_shouldPreviewCouponPerLine() {
+        // Arrange
+        Product discounted = product(1L, "café especial", "59.90");
+        Product cheap = product(2L, "chá verde", "10.00");
+        Product eligible = product(3L, "açúcar mascavo", "20.00");
+        when(couponCache.findByCode("DESC15")).thenReturn(Optional.of(coupon("DESC15", Instant.now().plusSeconds(3600))));
+        when(productRepository.findAllById(any())).thenReturn(List.of(discounted, cheap, eligible));
+        when(productDiscountRepository.findActiveByProductIds(any()))
+                .thenReturn(List.of(discount(discounted, CouponType.PERCENT, "10")));
+
+        // Act
+        PriceQuoteResponseDTO result = pricingService.quote(request(" desc15 ", 1L, 2L, 3L));
+
+        // Assert
+        PriceQuoteLineDTO keepsDiscount = result.getLines().get(0);
+        assertFalse(keepsDiscount.getCouponApplied());
+        assertEquals("Este produto já possui um desconto ativo.", keepsDiscount.getCouponRejectionReason());
+        assertEquals(new BigDecimal("53.91"), keepsDiscount.getFinalPrice());
+
+        PriceQuoteLineDTO belowMinimum = result.getLines().get(1);
+        assertFalse(belowMinimum.getCouponApplied());
+        assertNotNull(belowMinimum.getCouponRejectionReason());
+        assertEquals(new BigDecimal("10.00"), belowMinimum.getFinalPrice());
+
+        PriceQuoteLineDTO applied = result.getLines().get(2);
+        assertTrue(applied.getCouponApplied());
+        assertEquals(CouponType.FIXED, applied.getDiscount().getType());
+        assertEquals(new BigDecimal("5.00"), applied.getFinalPrice());
+
+        assertEquals("DESC15", result.getCouponCode());
+        assertEquals(new BigDecimal("89.90"), result.getTotalPrice());
+        assertEquals(new BigDecimal("68.91"), result.getTotalFinalPrice());
+        assertNull(result.getMissingProductIds());
+        // Cupom sem limite de usos não precisa consultar o contador.
+        verifyNoInteractions(couponRepository);
+    }
+
+    @Test
+    @DisplayName("Cupom que já atingiu o limite de usos deve ser recusado em todas as linhas, mesmo com o cache atrasado")
+    void quote_shouldRejectCouponAtMaxUses_usingCurrentRedemptionCount() {
+        // Arrange
+        Coupon cached = coupon("DESC15", Instant.now().plusSeconds(3600));
+        cached.setMaxUses(3);
+        cached.setRedemptionCount(2);
+        Coupon current = coupon("DESC15", Instant.now().plusSeconds(3600));
+        current.setMaxUses(3);
+        current.setRedemptionCount(3);
+        when(couponCache.findByCode("DESC15")).thenReturn(Optional.of(cached));
+        when(couponRepository.findByCodeAndDeletedAtIsNull("DESC15")).thenReturn(Optional.of(current));
+        when(productRepository.findAllById(any())).thenReturn(List.of(product(3L, "açúcar mascavo", "20.00")));
+        when(productDiscountRepository.findActiveByProductIds(any())).thenReturn(List.of());
+
+        // Act
+        PriceQuoteResponseDTO result = pricingService.quote(request("DESC15", 3L));
+
+        // Assert
+        PriceQuoteLineDTO line = result.getLines().get(0);
+        assertFalse(line.getCouponApplied());
+        assertEquals("Este cupom já atingiu o limite de usos.", line.getCouponRejectionReason());
+        assertNull(line.getDiscount());
+        assertEquals(new BigDecimal("20.00"), line.getFinalPrice());
+        assertEquals(new BigDecimal("20.00"), result.getTotalFinalPrice());
+    }
+
+    @Test
+    @DisplayName("Cupom com usos restantes deve ser aplicado conforme o contador lido do banco")
+    void quote_shouldApplyLimitedCoupon_whenUsesRemain() {
+        // Arrange
+        Coupon cached = coupon("DESC15", Instant.now().plusSeconds(3600));
+        cached.setMaxUses(3);
+        cached.setRedemptionCount(3);
+        Coupon current = coupon("DESC15", Instant.now().plusSeconds(3600));
+        current.setMaxUses(3);
+        current.setRedemptionCount(1);
+        when(couponCache.findByCode("DESC15")).thenReturn(Optional.of(cached));
+        when(couponRepository.findByCodeAndDeletedAtIsNull("DESC15")).thenReturn(Optional.of(current));
+        when(productRepository.findAllById(any())).thenReturn(List.of(product(3L, "açúcar mascavo", "20.00")));
+        when(productDiscountRepository.findActiveByProductIds(any())).thenReturn(List.of());
+
+        // Act
+        PriceQuoteResponseDTO result = pricingService.quote(request("DESC15", 3L));
+
+        // Assert
+        assertTrue(result.getLines().get(0).getCouponApplied());
+        assertEquals(new BigDecimal("5.00"), result.getTotalFinalPrice());
+    }
+
+    @Test
+    @DisplayName("Cupom fora da validade deve falhar antes de consultar os produtos")
+    void quote_shouldRejectExpiredCouponBeforeLoadingProducts() {
+        // Arrange
+        when(couponCache.findByCode("DESC15")).thenReturn(Optional.of(coupon("DESC15", Instant.now().minusSeconds(60))));
+
+        // Act & Assert
+        assertThrows(UnprocessableEntityException.class, () -> pricingService.quote(request("DESC15", 1L)));
+        verifyNoInteractions(productRepository, productDiscountRepository);
+    }
+
+    private static PriceQuoteRequestDTO request(String couponCode, Long... productIds) {
+        PriceQuoteRequestDTO dto = new PriceQuoteRequestDTO();
+        dto.setProductIds(List.of(productIds));
+        dto.setCouponCode(couponCode);
+        return dto;
+    }
+
+    private static Product product(Long id, String name, String price) {
+        return Product.builder()
+                .id(id)
+                .name(name)
+                .price(new BigDecimal(price))
+                .stock(10)
+                .build();
+    }
+
+    private static ProductDiscount discount(Product product, CouponType type, String value) {
+        return ProductDiscount.builder()
+                .product(product)
+                .type(type)
+                .value(new BigDecimal(value))
+                .appliedAt(Instant.now())
+                .build();
+    }
+
+    private static Coupon coupon(String code, Instant validUntil) {
+        return Coupon.builder()
+                .id(7L)
+                .code(code)
+                .type(CouponType.FIXED)
+                .value(new BigDecimal("15.00"))
+                .validFrom(Instant.now().minusSeconds(86400))
+                .validUntil(validUntil)
+                .build();
+    }
+}
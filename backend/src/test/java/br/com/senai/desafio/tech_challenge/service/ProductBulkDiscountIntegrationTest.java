@@ -0,0 +1,143 @@
+package br.com.senai.desafio.tech_challenge.service;
+
+import br.com.senai.desafio.tech_challenge.cache.CatalogStamp;
+import br.com.senai.desafio.tech_challenge.dto.BulkDiscountRequestDTO;
+import br.com.senai.desafio.tech_challenge.dto.BulkDiscountResultDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Contra o Postgres local: produtos criados direto no banco, 1% deles com preço que ficaria
+// abaixo de R$ 0,01 após o desconto. O tempo da aplicação nos 100 mil produtos vai para o log e é comparado com um limite.
+@Slf4j
+@EnabledIfEnvironmentVariable(named = "SPRING_DATASOURCE_URL", matches = ".+")
+@SpringBootTest
+class ProductBulkDiscountIntegrationTest {
+
+    private static final int PRODUCTS = 100_000;
+    private static final int COUPON_PRODUCTS = 1_000;
+    // Limite folgado para 100 mil produtos, para acusar regressões grosseiras sem deixar o teste instável: com a
+    // aplicação e o Postgres dividindo um único núcleo foram medidos ~12 s (um join quadrático no UPDATE levava 100 s).
+    private static final int MAX_SECONDS = 60;
+
+    @Value("${app.bulk-discount.chunk-size:5000}")
+    private int chunkSize;
+
+    @Autowired
+    private CatalogStamp catalogStamp;
+
+    @Autowired
+    private ProductBulkDiscountService productBulkDiscountService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String prefix = "promo " + Long.toString(System.nanoTime(), 36);
+    private final String couponPrefix = "B" + Long.toString(System.nanoTime(), 36).toUpperCase();
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM coupon_redemptions WHERE coupon_id IN (SELECT id FROM coupons WHERE code LIKE ?)", couponPrefix + "%");
+        jdbcTemplate.update("DELETE FROM product_discounts WHERE product_id IN (SELECT id FROM products WHERE name LIKE ?)", prefix + "%");
+        jdbcTemplate.update("DELETE FROM products WHERE name LIKE ?", prefix + "%");
+        jdbcTemplate.update("DELETE FROM coupons WHERE code LIKE ?", couponPrefix + "%");
+    }
+
+    @Test
+    @DisplayName("Deve aplicar o desconto em massa respeitando o preço mínimo e ignorar produtos já com desconto")
+    void applyDiscount_shouldApplyToFilteredProductsInBulk() {
+        // Arrange
+        insertProducts(PRODUCTS);
+        BulkDiscountRequestDTO request = new BulkDiscountRequestDTO();
+        request.setSearch(prefix);
+        request.setPercentage(new BigDecimal("80"));
+
+        long versionBefore = catalogStamp.current();
+
+        // Act
+        long startedAt = System.nanoTime();
+        BulkDiscountResultDTO result = productBulkDiscountService.applyDiscount(request);
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+        long versionAfter = catalogStamp.current();
+        BulkDiscountResultDTO secondRun = productBulkDiscountService.applyDiscount(request);
+
+        // Assert
+        assertEquals(PRODUCTS, result.getMatched());
+        assertEquals(PRODUCTS - PRODUCTS / 100, result.getApplied());
+        assertEquals(PRODUCTS / 100, result.getSkipped());
+        assertEquals(0, secondRun.getApplied());
+        BigDecimal finalPrice = jdbcTemplate.queryForObject(
+                "SELECT final_price FROM products WHERE name = ?", BigDecimal.class, prefix + " 1");
+        assertEquals(0, new BigDecimal("20.00").compareTo(finalPrice));
+        // Uma mudança de catálogo por bloco, registrada no commit de cada um
+        assertEquals((PRODUCTS + chunkSize - 1) / chunkSize, versionAfter - versionBefore);
+        log.info("{} produtos com desconto em massa em {} s", PRODUCTS, String.format("%.2f", seconds));
+        assertTrue(seconds <= MAX_SECONDS, () -> PRODUCTS + " produtos em " + String.format("%.2f", seconds)
+                + " s, acima do limite de " + MAX_SECONDS + " s");
+    }
+
+    @Test
+    @DisplayName("Cupom com limite deve consumir só os usos restantes; sem limite deve alcançar todos os produtos")
+    void applyDiscount_shouldRespectCouponUsageLimit() {
+        // Arrange (50% mantém até os produtos de R$ 0,01 no preço mínimo: todos são elegíveis)
+        insertProducts(COUPON_PRODUCTS);
+        String limited = insertCoupon("L", 300);
+        String unlimited = insertCoupon("U", null);
+
+        // Act
+        BulkDiscountResultDTO limitedRun = productBulkDiscountService.applyDiscount(couponRequest(limited));
+        jdbcTemplate.update("UPDATE products SET final_price = price, active_discount_type = NULL, active_discount_value = NULL, "
+                + "active_discount_applied_at = NULL, active_coupon_code = NULL WHERE name LIKE ?", prefix + "%");
+        jdbcTemplate.update("DELETE FROM product_discounts WHERE product_id IN (SELECT id FROM products WHERE name LIKE ?)", prefix + "%");
+        BulkDiscountResultDTO unlimitedRun = productBulkDiscountService.applyDiscount(couponRequest(unlimited));
+
+        // Assert
+        assertEquals(300, limitedRun.getApplied());
+        assertEquals(300, redemptionCount(limited));
+        assertEquals(COUPON_PRODUCTS, unlimitedRun.getApplied());
+        assertEquals(COUPON_PRODUCTS, redemptionCount(unlimited));
+        assertEquals(0, productBulkDiscountService.applyDiscount(couponRequest(limited)).getApplied());
+    }
+
+    private void insertProducts(int count) {
+        jdbcTemplate.update("""
+                INSERT INTO products (name, description, stock, price, final_price, created_at, updated_at)
+                SELECT ? || ' ' || g, 'produto em promoção', 10,
+                       CASE WHEN g % 100 = 0 THEN 0.01 ELSE 100.00 END,
+                       CASE WHEN g % 100 = 0 THEN 0.01 ELSE 100.00 END,
+                       now(), now()
+                FROM generate_series(1, ?) g
+                """, prefix, count);
+    }
+
+    private String insertCoupon(String suffix, Integer maxUses) {
+        String code = couponPrefix + suffix;
+        jdbcTemplate.update("""
+                INSERT INTO coupons (code, coupon_type, discount_value, one_shot, max_uses, redemption_count,
+                                     valid_from, valid_until, created_at, updated_at)
+                VALUES (?, 'PERCENT', 50.00, false, ?, 0, now() - interval '1 day', now() + interval '1 day', now(), now())
+                """, code, maxUses);
+        return code;
+    }
+
+    private BulkDiscountRequestDTO couponRequest(String couponCode) {
+        BulkDiscountRequestDTO request = new BulkDiscountRequestDTO();
+        request.setSearch(prefix);
+        request.setCouponCode(couponCode);
+        return request;
+    }
+
+    private int redemptionCount(String code) {
+        return jdbcTemplate.queryForObject("SELECT redemption_count FROM coupons WHERE code = ?", Integer.class, code);
+    }
+}
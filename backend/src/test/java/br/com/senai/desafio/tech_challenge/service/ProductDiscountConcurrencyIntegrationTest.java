@@ -0,0 +1,149 @@
+package br.com.senai.desafio.tech_challenge.service;
+
+import br.com.senai.desafio.tech_challenge.dto.ApplyPercentageDiscountDTO;
+import br.com.senai.desafio.tech_challenge.exception.ResourceConflictException;
+import br.com.senai.desafio.tech_challenge.model.Product;
+import br.com.senai.desafio.tech_challenge.repository.ProductDiscountRepository;
+import br.com.senai.desafio.tech_challenge.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Contra o Postgres local: a invariante "um desconto ativo por produto" vem do índice único parcial,
+// então nem requisições simultâneas no mesmo produto conseguem criar dois descontos ativos. A vazão das aplicações
+// em produtos distintos vai para o log e é comparada com um piso.
+@Slf4j
+@EnabledIfEnvironmentVariable(named = "SPRING_DATASOURCE_URL", matches = ".+")
+@SpringBootTest(properties = "app.search.engine=memory")
+class ProductDiscountConcurrencyIntegrationTest {
+
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS_PER_PRODUCT = 64;
+    private static final int DISTINCT_PRODUCTS = 2_000;
+    // Piso conservador para acusar regressões grosseiras sem deixar o teste instável: com a aplicação e o Postgres
+    // dividindo um único núcleo foram medidas ~140 aplicações/s em produtos distintos.
+    private static final int MIN_APPLIES_PER_SECOND = 50;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductDiscountRepository productDiscountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String prefix = "desconto " + Long.toString(System.nanoTime(), 36) + " ";
+    private int created;
+
+    // Exclusão física: deleteAll do repositório faria só o soft delete, deixando as linhas no banco.
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM product_discounts WHERE product_id IN (SELECT id FROM products WHERE name LIKE ?)", prefix + "%");
+        jdbcTemplate.update("DELETE FROM products WHERE name LIKE ?", prefix + "%");
+    }
+
+    @Test
+    @DisplayName("Aplicações simultâneas no mesmo produto devem resultar em exatamente um desconto ativo")
+    void concurrentApplications_shouldKeepSingleActiveDiscount() throws Exception {
+        // Arrange
+        Product product = createProducts(1).get(0);
+        AtomicInteger applied = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+
+        // Act
+        runConcurrently(IntStream.range(0, ATTEMPTS_PER_PRODUCT).mapToObj(i -> product).toList(), applied, conflicts);
+
+        // Assert
+        assertEquals(1, applied.get());
+        assertEquals(ATTEMPTS_PER_PRODUCT - 1, conflicts.get());
+        Integer active = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM product_discounts WHERE product_id = ? AND removed_at IS NULL", Integer.class, product.getId());
+        assertEquals(1, active);
+        assertTrue(productDiscountRepository.findByProductIdAndRemovedAtIsNull(product.getId()).isPresent());
+    }
+
+    @Test
+    @DisplayName("Aplicações simultâneas em produtos distintos não devem conflitar entre si")
+    void concurrentApplications_onDistinctProducts_shouldAllSucceed() throws Exception {
+        // Arrange
+        List<Product> targets = createProducts(DISTINCT_PRODUCTS);
+        AtomicInteger applied = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+
+        // Act
+        double seconds = runConcurrently(targets, applied, conflicts);
+
+        // Assert
+        assertEquals(DISTINCT_PRODUCTS, applied.get());
+        assertEquals(0, conflicts.get());
+        double appliesPerSecond = DISTINCT_PRODUCTS / seconds;
+        log.info("{} descontos aplicados em {} s: {} aplicações/s", DISTINCT_PRODUCTS, String.format("%.2f", seconds),
+                Math.round(appliesPerSecond));
+        assertTrue(appliesPerSecond >= MIN_APPLIES_PER_SECOND,
+                () -> "Vazão de " + Math.round(appliesPerSecond) + " aplicações/s, abaixo do piso de " + MIN_APPLIES_PER_SECOND);
+    }
+
+    private List<Product> createProducts(int count) {
+        int first = created;
+        created += count;
+        return productRepository.saveAll(IntStream.range(first, first + count)
+                .mapToObj(i -> Product.builder()
+                        .name(prefix + i)
+                        .price(new BigDecimal("100.00"))
+                        .finalPrice(new BigDecimal("100.00"))
+                        .stock(1)
+                        .build())
+                .toList());
+    }
+
+    // Retorna o tempo, em segundos, entre a liberação das threads e a última aplicação.
+    private double runConcurrently(List<Product> targets, AtomicInteger applied, AtomicInteger conflicts) throws Exception {
+        List<Throwable> unexpected = new CopyOnWriteArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (Product target : targets) {
+            futures.add(executor.submit(() -> {
+                ApplyPercentageDiscountDTO dto = new ApplyPercentageDiscountDTO();
+                dto.setPercentage(new BigDecimal("10"));
+                start.await();
+                try {
+                    productService.applyPercentageDiscount(target.getId(), dto);
+                    applied.incrementAndGet();
+                } catch (ResourceConflictException ex) {
+                    conflicts.incrementAndGet();
+                } catch (Throwable ex) {
+                    unexpected.add(ex);
+                }
+                return null;
+            }));
+        }
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+        executor.shutdown();
+        assertTrue(unexpected.isEmpty(), () -> "Falhas inesperadas: " + unexpected);
+        return seconds;
+    }
+}
@@ -0,0 +1,150 @@
+package br.com.senai.desafio.tech_challenge.service;
+
+import br.com.senai.desafio.tech_challenge.model.CouponType;
+import br.com.senai.desafio.tech_challenge.model.Product;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.query.SelectionQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductExportServiceImplTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private ScrollableResults<Product> rows;
+
+    private ProductExportServiceImpl exportService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        exportService = new ProductExportServiceImpl(entityManager, transactionManager, objectMapper, 1000, 1);
+        SelectionQuery<Product> query = mock(SelectionQuery.class, RETURNS_SELF);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(session.createSelectionQuery(anyString(), eq(Product.class))).thenReturn(query);
+        when(query.scroll(ScrollMode.FORWARD_ONLY)).thenReturn(rows);
+    }
+
+    @Test
+    @DisplayName("NDJSON: um objeto por linha, com quebra de linha no fim, limpando o contexto a cada bloco")
+    void exportProducts_shouldWriteOneJsonObjectPerLine() throws IOException {
+        // Arrange
+        catalog(product(1L, "café especial", "grãos\ntorrados"), product(2L, "chá verde", null));
+
+        // Act
+        String body = export(ProductExportService.Format.NDJSON);
+
+        // Assert
+        assertTrue(body.endsWith("}\n"));
+        List<String> lines = body.lines().toList();
+        assertEquals(2, lines.size());
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertEquals("café especial", first.get("name").asText());
+        assertEquals("grãos\ntorrados", first.get("description").asText());
+        assertEquals(2L, objectMapper.readTree(lines.get(1)).get("id").asLong());
+        verify(session, times(2)).clear();
+    }
+
+    @Test
+    @DisplayName("NDJSON: catálogo vazio gera um corpo vazio, sem linha em branco")
+    void exportProducts_shouldWriteNothing_whenCatalogIsEmptyInNdjson() throws IOException {
+        catalog();
+
+        assertEquals("", export(ProductExportService.Format.NDJSON));
+    }
+
+    @Test
+    @DisplayName("CSV: cabeçalho fixo e campos com vírgula, aspas ou quebra de linha entre aspas")
+    void exportProducts_shouldEscapeCsvFields() throws IOException {
+        // Arrange
+        Product discounted = product(1L, "café, especial", "o \"melhor\"\r\nda casa");
+        discounted.setActiveDiscountType(CouponType.PERCENT);
+        discounted.setActiveDiscountValue(new BigDecimal("10"));
+        discounted.setFinalPrice(new BigDecimal("9.00"));
+        catalog(discounted, product(2L, "chá verde", null));
+
+        // Act
+        String body = export(ProductExportService.Format.CSV);
+
+        // Assert
+        List<String> lines = Arrays.asList(body.split("\n", -1));
+        assertEquals("id,name,description,stock,price,final_price,discount_type,discount_value,coupon_code,created_at,updated_at",
+                lines.get(0));
+        assertEquals("1,\"café, especial\",\"o \"\"melhor\"\"\r", lines.get(1));
+        assertEquals("da casa\",5,10.00,9.00,PERCENT,10,,2024-01-02T03:04:05Z,2024-01-02T03:04:05Z", lines.get(2));
+        assertEquals("2,chá verde,,5,10.00,10.00,,,,2024-01-02T03:04:05Z,2024-01-02T03:04:05Z", lines.get(3));
+        assertEquals("", lines.get(4));
+        assertEquals(5, lines.size());
+    }
+
+    @Test
+    @DisplayName("CSV: catálogo vazio gera apenas o cabeçalho")
+    void exportProducts_shouldWriteOnlyHeader_whenCatalogIsEmptyInCsv() throws IOException {
+        catalog();
+
+        assertEquals("id,name,description,stock,price,final_price,discount_type,discount_value,coupon_code,created_at,updated_at\n",
+                export(ProductExportService.Format.CSV));
+    }
+
+    private String export(ProductExportService.Format format) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        exportService.exportProducts(format, output);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    private void catalog(Product... products) {
+        Boolean[] hasNext = new Boolean[products.length + 1];
+        Arrays.fill(hasNext, Boolean.TRUE);
+        hasNext[products.length] = Boolean.FALSE;
+        when(rows.next()).thenReturn(hasNext[0], Arrays.copyOfRange(hasNext, 1, hasNext.length));
+        if (products.length > 0) {
+            when(rows.get()).thenReturn(products[0], Arrays.copyOfRange(products, 1, products.length));
+        }
+    }
+
+    private static Product product(Long id, String name, String description) {
+        Instant at = Instant.parse("2024-01-02T03:04:05Z");
+        return Product.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .stock(5)
+                .price(new BigDecimal("10.00"))
+                .finalPrice(new BigDecimal("10.00"))
+                .createdAt(at)
+                .updatedAt(at)
+                .build();
+    }
+}
@@ -0,0 +1,208 @@
+package br.com.senai.desafio.tech_challenge.service;
+
+import br.com.senai.desafio.tech_challenge.cache.CatalogChange;
+import br.com.senai.desafio.tech_challenge.cache.CatalogInvalidationBus;
+import br.com.senai.desafio.tech_challenge.model.Product;
+import br.com.senai.desafio.tech_challenge.search.ProductSearchEngine;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductImportServiceImplTest {
+
+    private static final ValidatorFactory VALIDATOR_FACTORY = Validation.buildDefaultValidatorFactory();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ProductSearchEngine productSearchEngine;
+
+    @Mock
+    private CatalogInvalidationBus invalidationBus;
+
+    private ProductImportServiceImpl importService;
+
+    @AfterAll
+    static void closeValidator() {
+        VALIDATOR_FACTORY.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        importService = new ProductImportServiceImpl(jdbcTemplate, transactionTemplate, objectMapper,
+                VALIDATOR_FACTORY.getValidator(), productSearchEngine, invalidationBus, 1000);
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    @DisplayName("CSV: colunas em qualquer ordem, campos entre aspas com vírgulas e aspas escapadas")
+    void importProducts_shouldParseQuotedCsvInHeaderOrder() throws IOException {
+        // Arrange
+        existingNames();
+        reserveIds(2);
+        String csv = """
+                price,stock,description,name
+                10.50,3,"Grãos torrados, moídos na hora",café especial
+                "7.00",1,"Chá ""premium""\",chá verde
+                """;
+
+        // Act
+        JsonNode report = importCsv(csv);
+
+        // Assert
+        assertEquals(2, report.get("created").asLong());
+        List<Product> inserted = insertedProducts();
+        assertEquals("café especial", inserted.get(0).getName());
+        assertEquals("Grãos torrados, moídos na hora", inserted.get(0).getDescription());
+        assertEquals(new BigDecimal("10.50"), inserted.get(0).getPrice());
+        assertEquals(3, inserted.get(0).getStock());
+        assertEquals("Chá \"premium\"", inserted.get(1).getDescription());
+        // A linha 1 é o cabeçalho.
+        assertEquals(2, report.get("rows").get(0).get("line").asLong());
+        verify(invalidationBus).publish(any(CatalogChange.class));
+    }
+
+    @Test
+    @DisplayName("Linhas mal formadas, nulas ou inválidas devem ser rejeitadas sem interromper a importação")
+    void importProducts_shouldRejectMalformedRows() throws IOException {
+        // Arrange
+        existingNames();
+        reserveIds(1);
+        String ndjson = """
+                null
+                {"name": "ok", "stock": 1
+                {"name": "x", "stock": -1, "price": 1}
+                {"name": "café especial", "stock": 1, "price": 9.90}
+                """;
+
+        // Act
+        JsonNode report = importNdjson(ndjson);
+
+        // Assert
+        assertEquals(List.of("INVALID", "INVALID", "INVALID", "CREATED"), statuses(report));
+        assertEquals(3, report.get("invalid").asLong());
+        assertEquals(1, report.get("created").asLong());
+    }
+
+    @Test
+    @DisplayName("Nomes repetidos no arquivo ou já existentes no banco devem ser marcados como duplicados")
+    void importProducts_shouldFlagInBatchAndExistingDuplicates() throws IOException {
+        // Arrange
+        existingNames("chá verde");
+        reserveIds(1);
+        String ndjson = """
+                {"name": "Café  Especial", "stock": 1, "price": 9.90}
+                {"name": "café especial", "stock": 2, "price": 8.90}
+                {"name": "Chá Verde", "stock": 1, "price": 5.00}
+                """;
+
+        // Act
+        JsonNode report = importNdjson(ndjson);
+
+        // Assert
+        assertEquals(List.of("CREATED", "DUPLICATE", "DUPLICATE"), statuses(report));
+        assertEquals(1, report.get("created").asLong());
+        assertEquals(2, report.get("duplicate").asLong());
+        assertEquals(1, insertedProducts().size());
+    }
+
+    @Test
+    @DisplayName("Falha de banco no lote deve marcar as linhas como FAILED e ainda fechar o relatório com os totais")
+    void importProducts_shouldReportFailedRowsWhenBatchFails() throws IOException {
+        // Arrange
+        existingNames();
+        reserveIds(2);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DataAccessResourceFailureException("conexão perdida"));
+        String ndjson = """
+                {"name": "café especial", "stock": 1, "price": 9.90}
+                {"name": "chá verde", "stock": 1, "price": 5.00}
+                ["não é um objeto"]
+                """;
+
+        // Act
+        JsonNode report = importNdjson(ndjson);
+
+        // Assert
+        assertEquals(List.of("INVALID", "FAILED", "FAILED"), statuses(report));
+        assertEquals(0, report.get("created").asLong());
+        assertEquals(0, report.get("duplicate").asLong());
+        assertEquals(1, report.get("invalid").asLong());
+        assertEquals(2, report.get("failed").asLong());
+        verifyNoInteractions(productSearchEngine, invalidationBus);
+    }
+
+    private JsonNode importNdjson(String body) throws IOException {
+        return run(body, ProductImportService.Format.NDJSON);
+    }
+
+    private JsonNode importCsv(String body) throws IOException {
+        return run(body, ProductImportService.Format.CSV);
+    }
+
+    private JsonNode run(String body, ProductImportService.Format format) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        importService.importProducts(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), format, output);
+        return objectMapper.readTree(output.toByteArray());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void existingNames(String... names) {
+        when(jdbcTemplate.query(any(PreparedStatementCreator.class), any(RowMapper.class))).thenReturn(List.of(names));
+    }
+
+    private void reserveIds(int count) {
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(count)))
+                .thenReturn(LongStream.rangeClosed(1, count).boxed().toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Product> insertedProducts() {
+        ArgumentCaptor<List<Product>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), captor.capture(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        return captor.getValue();
+    }
+
+    private static List<String> statuses(JsonNode report) {
+        List<String> statuses = new ArrayList<>();
+        report.get("rows").forEach(row -> statuses.add(row.get("status").asText()));
+        return statuses;
+    }
+}
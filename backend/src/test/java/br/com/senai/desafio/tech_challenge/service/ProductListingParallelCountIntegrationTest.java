@@ -0,0 +1,106 @@
+package br.com.senai.desafio.tech_challenge.service;
+
+import br.com.senai.desafio.tech_challenge.dto.CountMode;
+import br.com.senai.desafio.tech_challenge.dto.PaginatedResponseDTO;
+import br.com.senai.desafio.tech_challenge.dto.ProductResponseDTO;
+import br.com.senai.desafio.tech_challenge.model.Product;
+import br.com.senai.desafio.tech_challenge.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Contra o Postgres local. Mais listagens simultâneas que conexões no pool, todas com o COUNT(*) em paralelo:
+// se a requisição esperasse a contagem segurando a própria conexão, as contagens nunca conseguiriam uma e as
+// listagens falhariam pelo connection-timeout (curto aqui, para o teste não demorar).
+@EnabledIfEnvironmentVariable(named = "SPRING_DATASOURCE_URL", matches = ".+")
+@SpringBootTest(properties = {"app.search.engine=memory", "app.catalog.snapshot.enabled=false",
+        "app.listing.parallel-count.enabled=true", "spring.datasource.hikari.connection-timeout=3000"})
+class ProductListingParallelCountIntegrationTest {
+
+    private static final int PRODUCTS = 25;
+    // Preço que só os produtos deste teste usam, para a contagem não depender do resto da base.
+    private static final BigDecimal PRICE = new BigDecimal("4321.09");
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size}")
+    private int poolSize;
+
+    private final String prefix = "contagem " + Long.toString(System.nanoTime(), 36) + " ";
+
+    @BeforeEach
+    void setUp() {
+        productRepository.saveAll(IntStream.range(0, PRODUCTS)
+                .mapToObj(i -> Product.builder()
+                        .name(prefix + i)
+                        .price(PRICE)
+                        .finalPrice(PRICE)
+                        .stock(i)
+                        .build())
+                .toList());
+    }
+
+    // Exclusão física: deleteAll do repositório faria só o soft delete, deixando as linhas no banco.
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM products WHERE name LIKE ?", prefix + "%");
+    }
+
+    @Test
+    @DisplayName("Listagens simultâneas acima do tamanho do pool não devem travar esperando o COUNT(*) paralelo")
+    void listProducts_shouldNotExhaustPool_whenCountRunsInParallel() throws Exception {
+        // Arrange
+        int listings = poolSize * 2;
+        ExecutorService requests = Executors.newFixedThreadPool(listings);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<PaginatedResponseDTO<ProductResponseDTO>>> results = new ArrayList<>();
+
+        // Act
+        try {
+            for (int i = 0; i < listings; i++) {
+                results.add(requests.submit(() -> {
+                    start.await();
+                    return productService.listProducts(PageRequest.of(0, 5, Sort.by("name")), CountMode.EXACT, null,
+                            PRICE, PRICE, null, null, null).page();
+                }));
+            }
+            start.countDown();
+
+            // Assert
+            for (Future<PaginatedResponseDTO<ProductResponseDTO>> result : results) {
+                PaginatedResponseDTO<ProductResponseDTO> page = result.get(30, TimeUnit.SECONDS);
+                assertEquals(PRODUCTS, page.getMeta().getTotalItems());
+                assertEquals(5, page.getData().size());
+            }
+        } finally {
+            requests.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package br.com.senai.desafio.tech_challenge.service;
+
+import br.com.senai.desafio.tech_challenge.dto.ApplyPercentageDiscountDTO;
+import br.com.senai.desafio.tech_challenge.dto.CountMode;
+import br.com.senai.desafio.tech_challenge.dto.PaginatedResponseDTO;
+import br.com.senai.desafio.tech_challenge.dto.ProductResponseDTO;
+import br.com.senai.desafio.tech_challenge.model.Product;
+import br.com.senai.desafio.tech_challenge.repository.ProductRepository;
+import br.com.senai.desafio.tech_challenge.trace.SqlTrace;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Contra o Postgres local, contando as instruções que chegam de fato ao banco pelo TracingDataSource: um acesso
+// preguiçoso por linha (N+1) faria o total crescer com o tamanho da página.
+@EnabledIfEnvironmentVariable(named = "SPRING_DATASOURCE_URL", matches = ".+")
+@SpringBootTest(properties = {"app.search.engine=memory", "app.trace.enabled=true", "app.catalog.snapshot.enabled=false"})
+class ProductListingQueryCountIntegrationTest {
+
+    private static final int PRODUCTS = 30;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String prefix = "consulta " + Long.toString(System.nanoTime(), 36) + " ";
+
+    @BeforeEach
+    void setUp() {
+        List<Product> products = productRepository.saveAll(IntStream.range(0, PRODUCTS)
+                .mapToObj(i -> Product.builder()
+                        .name(prefix + i)
+                        .price(new BigDecimal("100.00"))
+                        .finalPrice(new BigDecimal("100.00"))
+                        .stock(i % 3)
+                        .build())
+                .toList());
+        // Metade com desconto ativo, para que a página misture linhas com e sem desconto.
+        ApplyPercentageDiscountDTO dto = new ApplyPercentageDiscountDTO();
+        dto.setPercentage(new BigDecimal("10"));
+        products.stream().filter(product -> product.getId() % 2 == 0)
+                .forEach(product -> productService.applyPercentageDiscount(product.getId(), dto));
+    }
+
+    // Exclusão física: deleteAll do repositório faria só o soft delete, deixando as linhas no banco.
+    @AfterEach
+    void tearDown() {
+        SqlTrace.clear();
+        jdbcTemplate.update("DELETE FROM product_discounts WHERE product_id IN (SELECT id FROM products WHERE name LIKE ?)", prefix + "%");
+        jdbcTemplate.update("DELETE FROM products WHERE name LIKE ?", prefix + "%");
+    }
+
+    @Test
+    @DisplayName("A listagem deve executar o mesmo número de instruções SQL, independente do tamanho da página")
+    void listProducts_shouldIssueConstantNumberOfStatements_regardlessOfPageSize() {
+        // Act
+        Map<Integer, Integer> statementsByPageSize = new LinkedHashMap<>();
+        for (int pageSize : new int[]{1, 10, PRODUCTS}) {
+            SqlTrace trace = SqlTrace.start(100);
+            PaginatedResponseDTO<ProductResponseDTO> result = productService.listProducts(
+                    PageRequest.of(0, pageSize, Sort.by("name")), CountMode.EXACT, null,
+                    null, null, null, null, null).page();
+            SqlTrace.clear();
+
+            assertEquals(pageSize, result.getData().size());
+            statementsByPageSize.put(pageSize, trace.statementCount());
+        }
+
+        // Assert: só a versão do catálogo (ETag), a consulta da página e o COUNT(*)
+        assertTrue(statementsByPageSize.get(PRODUCTS) <= 3, () -> "Instruções por tamanho de página: " + statementsByPageSize);
+        assertEquals(1, Set.copyOf(statementsByPageSize.values()).size(),
+                () -> "Instruções por tamanho de página: " + statementsByPageSize);
+    }
+}
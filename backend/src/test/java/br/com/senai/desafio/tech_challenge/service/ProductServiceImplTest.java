@@ -1,22 +1,58 @@
 package br.com.senai.desafio.tech_challenge.service;
+import br.com.senai.desafio.tech_challenge.cache.CatalogInvalidationBus;
+import br.com.senai.desafio.tech_challenge.cache.CatalogSnapshotStore;
+import br.com.senai.desafio.tech_challenge.cache.CatalogStamp;
+import br.com.senai.desafio.tech_challenge.cache.CouponCache;
+import br.com.senai.desafio.tech_challenge.cache.ListingCountCache;
+import br.com.senai.desafio.tech_challenge.dto.ApplyCouponDTO;
+import br.com.senai.desafio.tech_challenge.dto.ApplyPercentageDiscountDTO;
+import br.com.senai.desafio.tech_challenge.dto.CountMode;
+import br.com.senai.desafio.tech_challenge.dto.PaginatedResponseDTO;
 import br.com.senai.desafio.tech_challenge.dto.ProductRequestDTO;
 import br.com.senai.desafio.tech_challenge.dto.ProductResponseDTO;
+import br.com.senai.desafio.tech_challenge.dto.ProductUpdateDTO;
+import br.com.senai.desafio.tech_challenge.exception.PreconditionFailedException;
 import br.com.senai.desafio.tech_challenge.exception.ResourceConflictException;
 import br.com.senai.desafio.tech_challenge.exception.ResourceNotFoundException;
+import br.com.senai.desafio.tech_challenge.exception.UnprocessableEntityException;
+import br.com.senai.desafio.tech_challenge.metrics.CatalogMetrics;
+import br.com.senai.desafio.tech_challenge.model.Coupon;
+import br.com.senai.desafio.tech_challenge.model.CouponType;
 import br.com.senai.desafio.tech_challenge.model.Product;
+import br.com.senai.desafio.tech_challenge.model.ProductDiscount;
+import br.com.senai.desafio.tech_challenge.repository.CouponRedemptionRepository;
+import br.com.senai.desafio.tech_challenge.repository.CouponRepository;
 import br.com.senai.desafio.tech_challenge.repository.ProductDiscountRepository;
 import br.com.senai.desafio.tech_challenge.repository.ProductRepository;
+import br.com.senai.desafio.tech_challenge.search.ProductSearchEngine;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -35,6 +71,36 @@ class ProductServiceImplTest {
     @Mock
     private ProductDiscountRepository productDiscountRepository; // Precisamos de mockar todas as dependências do serviço.
 
+    @Mock
+    private ProductSearchEngine productSearchEngine;
+
+    @Mock
+    private CouponCache couponCache;
+
+    @Mock
+    private CouponRepository couponRepository;
+
+    @Mock
+    private CouponRedemptionRepository couponRedemptionRepository;
+
+    @Mock
+    private CatalogInvalidationBus invalidationBus;
+
+    @Mock
+    private CatalogMetrics catalogMetrics;
+
+    @Mock
+    private ListingCountCache listingCountCache;
+
+    @Mock
+    private ParallelQueryExecutor parallelQueryExecutor;
+
+    @Mock
+    private CatalogSnapshotStore catalogSnapshots;
+
+    @Mock
+    private CatalogStamp catalogStamp;
+
     // @InjectMocks: Cria uma instância real do nosso serviço (o "cérebro" que queremos testar)
     // e injeta os mocks (os "atores") dentro dele automaticamente.
     @InjectMocks
@@ -76,9 +142,6 @@ class ProductServiceImplTest {
         // retorne o nosso objeto 'product' de exemplo."
         when(productRepository.save(any(Product.class))).thenReturn(product);
 
-        // Dizemos ao mock do desconto para retornar vazio, pois é um produto novo.
-        when(productDiscountRepository.findActiveDiscountWithCouponByProductId(any())).thenReturn(Optional.empty());
-
         // Act (Agir / Executar o método a ser testado)
         ProductResponseDTO result = productService.createProduct(productRequestDTO);
 
@@ -108,7 +171,6 @@ class ProductServiceImplTest {
     void getProductById_shouldReturnProduct_whenIdExists() {
         // Arrange
         when(productRepository.findById(1L)).thenReturn(Optional.of(product));
-        when(productDiscountRepository.findActiveDiscountWithCouponByProductId(1L)).thenReturn(Optional.empty());
 
         // Act
         ProductResponseDTO result = productService.getProductById(1L);
@@ -129,4 +191,212 @@ class ProductServiceImplTest {
             productService.getProductById(99L);
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Deve recusar a atualização quando a versão do If-Match não é a atual")
+    void updateProduct_shouldThrowPreconditionFailed_whenVersionIsStale() {
+        // Arrange
+        product.setVersion(3L);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        ProductUpdateDTO updateDTO = new ProductUpdateDTO();
+        updateDTO.setStock(5);
+
+        // Act & Assert
+        assertThrows(PreconditionFailedException.class, () -> productService.updateProduct(1L, updateDTO, 2L));
+        verify(productRepository, never()).saveAndFlush(any(Product.class));
+        verify(invalidationBus, never()).publish(any());
+    }
+
+    // A contagem real de instruções SQL por página fica em ProductListingQueryCountIntegrationTest.
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 100})
+    @DisplayName("A listagem deve montar o desconto a partir da própria linha do produto, sem consultar os descontos")
+    void listProducts_shouldMapDenormalizedDiscount_withoutQueryingDiscounts(int pageSize) {
+        // Arrange
+        List<Product> products = LongStream.rangeClosed(1, pageSize)
+                .mapToObj(id -> Product.builder()
+                        .id(id)
+                        .name("produto " + id)
+                        .price(new BigDecimal("100.00"))
+                        .finalPrice(new BigDecimal("100.00"))
+                        .stock(10)
+                        .build())
+                .collect(Collectors.toList());
+        // O desconto ativo vem desnormalizado na própria linha do produto (modelo de leitura).
+        products.get(0).setActiveDiscountType(CouponType.PERCENT);
+        products.get(0).setActiveDiscountValue(new BigDecimal("10"));
+        products.get(0).setFinalPrice(new BigDecimal("90.00"));
+
+        Pageable pageable = PageRequest.of(0, pageSize);
+        stubCatalogStamp();
+        when(productRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(products, pageable, pageSize));
+        when(productSearchEngine.matching(any())).thenReturn(Specification.allOf());
+
+        // Act
+        PaginatedResponseDTO<ProductResponseDTO> result = productService.listProducts(
+                pageable, CountMode.EXACT, null, null, null, null, null, null).page();
+
+        // Assert
+        assertEquals(pageSize, result.getData().size());
+        assertEquals(new BigDecimal("90.00"), result.getData().get(0).getFinalPrice());
+        assertEquals(CouponType.PERCENT, result.getData().get(0).getDiscount().getType());
+        verify(productRepository, times(1)).findAll(any(Specification.class), any(Pageable.class));
+        verifyNoInteractions(productDiscountRepository);
+    }
+
+    @Test
+    @DisplayName("Relevância combinada com outra ordenação deve ser rejeitada, pois a outra chave substituiria o ranking")
+    void listProducts_shouldRejectRelevanceCombinedWithOtherSort() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("relevance", "price"));
+
+        assertThrows(UnprocessableEntityException.class, () -> productService.listProducts(
+                pageable, CountMode.EXACT, "café", null, null, null, null, null));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    @DisplayName("Relevância sozinha deve consultar sem ordenação no Pageable, deixando o ranking da busca valer")
+    void listProducts_shouldLeaveOrderingToRanking_whenSortingByRelevance() {
+        // Arrange
+        stubCatalogStamp();
+        when(productSearchEngine.matching(any())).thenReturn(Specification.allOf());
+        when(productSearchEngine.rankedByRelevance("café")).thenReturn(Specification.allOf());
+        when(productRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(product)));
+
+        // Act
+        productService.listProducts(PageRequest.of(0, 10, Sort.by("relevance")), CountMode.EXACT, "café", null, null, null, null, null);
+
+        // Assert
+        verify(productRepository).findAll(any(Specification.class), argThat((Pageable p) -> p.getSort().isUnsorted()));
+    }
+
+    @Test
+    @DisplayName("Remover o desconto deve limpar o desconto ativo do modelo de leitura, tirando o produto do filtro hasDiscount")
+    void removeDiscount_shouldClearActiveDiscountFromReadModel() {
+        // Arrange
+        product.setActiveDiscountType(CouponType.PERCENT);
+        product.setActiveDiscountValue(new BigDecimal("10"));
+        product.setActiveCouponCode("NATAL25");
+        product.setFinalPrice(new BigDecimal("53.91"));
+        ProductDiscount activeDiscount = ProductDiscount.builder()
+                .product(product)
+                .type(CouponType.PERCENT)
+                .value(new BigDecimal("10"))
+                .build();
+        when(productDiscountRepository.findByProductIdAndRemovedAtIsNull(1L)).thenReturn(Optional.of(activeDiscount));
+
+        // Act
+        productService.removeDiscount(1L);
+
+        // Assert
+        assertNotNull(activeDiscount.getRemovedAt());
+        assertNull(product.getActiveDiscountType());
+        assertNull(product.getActiveCouponCode());
+        assertEquals(product.getPrice(), product.getFinalPrice());
+    }
+
+    @Test
+    @DisplayName("Aplicar desconto em produto que já possui desconto ativo deve lançar conflito e contabilizá-lo nas métricas")
+    void applyPercentageDiscount_shouldThrowConflict_whenActiveDiscountIndexIsViolated() {
+        // Arrange
+        ApplyPercentageDiscountDTO dto = new ApplyPercentageDiscountDTO();
+        dto.setPercentage(new BigDecimal("10"));
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        // O índice único parcial rejeita o segundo desconto ativo; não há mais consulta prévia.
+        when(productDiscountRepository.saveAndFlush(any(ProductDiscount.class))).thenThrow(new DataIntegrityViolationException("duplicate key",
+                new ConstraintViolationException("duplicate key", new SQLException("duplicate key", "23505"), "uq_product_discounts_active_product")));
+
+        // Act & Assert
+        assertThrows(ResourceConflictException.class, () -> productService.applyPercentageDiscount(1L, dto));
+        verify(catalogMetrics).percentageDiscountConflict();
+        verify(productDiscountRepository, never()).findByProductIdAndRemovedAtIsNull(any());
+        verifyNoInteractions(invalidationBus);
+    }
+
+    @Test
+    @DisplayName("Aplicar cupom que já atingiu o limite de usos deve lançar UnprocessableEntityException sem registrar o uso")
+    void applyCoupon_shouldThrowException_whenCouponIsExhausted() {
+        // Arrange
+        Coupon coupon = Coupon.builder()
+                .id(5L)
+                .code("UNICO10")
+                .type(CouponType.FIXED)
+                .value(BigDecimal.TEN)
+                .oneShot(true)
+                .maxUses(1)
+                .validFrom(Instant.now().minusSeconds(3600))
+                .validUntil(Instant.now().plusSeconds(3600))
+                .build();
+        ApplyCouponDTO dto = new ApplyCouponDTO();
+        dto.setCode(" unico10 ");
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(couponCache.findByCode("UNICO10")).thenReturn(Optional.of(coupon));
+        when(couponRepository.redeem(5L)).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(UnprocessableEntityException.class, () -> productService.applyCoupon(1L, dto));
+        verify(couponRedemptionRepository, never()).save(any());
+        verify(catalogMetrics, never()).couponApplied();
+    }
+
+    @Test
+    @DisplayName("Listar com count=none não deve executar COUNT(*), apenas informar se há próxima página")
+    void listProducts_shouldSkipCountQuery_whenCountModeIsNone() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 1);
+        stubCatalogStamp();
+        when(productSearchEngine.matching(any())).thenReturn(Specification.allOf());
+        when(productRepository.findSlice(any(Specification.class), eq(pageable)))
+                .thenReturn(new SliceImpl<>(List.of(product), pageable, true));
+
+        // Act
+        PaginatedResponseDTO<ProductResponseDTO> result = productService.listProducts(
+                pageable, CountMode.NONE, null, null, null, null, null, null).page();
+
+        // Assert
+        assertEquals(1, result.getData().size());
+        assertEquals(CountMode.NONE, result.getMeta().getCountMode());
+        assertTrue(result.getMeta().getHasNext());
+        assertNull(result.getMeta().getTotalItems());
+        verify(productRepository, never()).count(any(Specification.class));
+        verify(productRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+        verifyNoInteractions(listingCountCache);
+    }
+
+    @Test
+    @DisplayName("Com a contagem em paralelo habilitada, a listagem exata deve combinar o conteúdo e o COUNT(*) executado no executor")
+    @SuppressWarnings("unchecked")
+    void listProducts_shouldRunCountOnExecutor_whenParallelCountIsEnabled() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 1);
+        stubCatalogStamp();
+        when(productSearchEngine.matching(any())).thenReturn(Specification.allOf());
+        when(parallelQueryExecutor.isEnabled()).thenReturn(true);
+        when(parallelQueryExecutor.submit(any())).thenAnswer(invocation ->
+                CompletableFuture.completedFuture(((Supplier<Long>) invocation.getArgument(0)).get()));
+        when(productRepository.count(any(Specification.class))).thenReturn(42L);
+        when(productRepository.findSlice(any(Specification.class), eq(pageable)))
+                .thenReturn(new SliceImpl<>(List.of(product), pageable, true));
+
+        // Act
+        ProductService.Listing listing = productService.listProducts(
+                pageable, CountMode.EXACT, null, null, null, null, null, null);
+
+        // Assert
+        PaginatedResponseDTO<ProductResponseDTO> result = listing.page();
+        assertEquals(7L, listing.catalogStamp());
+        assertEquals(42L, result.getMeta().getTotalItems());
+        assertEquals(42, result.getMeta().getTotalPages());
+        assertTrue(result.getMeta().getHasNext());
+        verify(productRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    // A listagem roda dentro da leitura consistente da versão do catálogo; aqui, sem transação, com a versão 7.
+    @SuppressWarnings("unchecked")
+    private void stubCatalogStamp() {
+        when(catalogStamp.readConsistently(any())).thenAnswer(invocation ->
+                ((LongFunction<Object>) invocation.getArgument(0)).apply(7L));
+    }
+}
@@ -0,0 +1,57 @@
+package br.com.senai.desafio.tech_challenge.trace;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlTraceFilterTest {
+
+    private final SqlTraceFilter filter = new SqlTraceFilter(Duration.ofMinutes(1), 10);
+
+    @Test
+    @DisplayName("Deve escrever o Server-Timing depois da serialização de uma resposta normal")
+    void shouldWriteServerTimingAfterChain() throws Exception {
+        // Arrange
+        MockHttpServletResponse response = new ContainerLikeResponse();
+
+        // Act
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/products"), response, (req, res) -> {
+            res.getWriter().write("{}");
+        });
+
+        // Assert
+        assertTrue(response.getHeader("Server-Timing").startsWith("db;dur="));
+        assertEquals("{}", response.getContentAsString());
+    }
+
+    @Test
+    @DisplayName("Deve escrever o Server-Timing antes de um sendError comprometer a resposta")
+    void shouldWriteServerTimingBeforeSendError() throws Exception {
+        // Arrange
+        MockHttpServletResponse response = new ContainerLikeResponse();
+
+        // Act
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/products/abc"), response, (req, res) ->
+                ((HttpServletResponse) res).sendError(HttpServletResponse.SC_NOT_FOUND));
+
+        // Assert
+        assertEquals(HttpServletResponse.SC_NOT_FOUND, response.getStatus());
+        assertTrue(response.getHeader("Server-Timing").contains("db-statements;desc=\"0\""));
+    }
+
+    // Como o Tomcat, ignora headers escritos depois que a resposta foi comprometida.
+    private static final class ContainerLikeResponse extends MockHttpServletResponse {
+        @Override
+        public void setHeader(String name, String value) {
+            if (!isCommitted()) {
+                super.setHeader(name, value);
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package br.com.senai.desafio.tech_challenge.trace;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TracingDataSourceTest {
+
+    @AfterEach
+    void tearDown() {
+        SqlTrace.clear();
+    }
+
+    @Test
+    @DisplayName("Deve registrar cada instrução com as linhas lidas ou afetadas no trace da requisição")
+    void shouldRecordStatementsAndRowCounts() throws Exception {
+        // Arrange
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        PreparedStatement select = mock(PreparedStatement.class);
+        PreparedStatement update = mock(PreparedStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement("select * from products")).thenReturn(select);
+        when(connection.prepareStatement("update products set stock = 0")).thenReturn(update);
+        when(select.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true, true, true, false);
+        when(update.executeUpdate()).thenReturn(7);
+
+        SqlTrace trace = SqlTrace.start(10);
+        TracingDataSource dataSource = new TracingDataSource(target);
+
+        // Act
+        try (Connection traced = dataSource.getConnection()) {
+            try (ResultSet rows = traced.prepareStatement("select * from products").executeQuery()) {
+                while (rows.next()) {
+                    // consome o result set
+                }
+            }
+            traced.prepareStatement("update products set stock = 0").executeUpdate();
+        }
+
+        // Assert
+        assertEquals(2, trace.statementCount());
+        assertEquals("select * from products", trace.statements().get(0).sql());
+        assertEquals(3, trace.statements().get(0).rows());
+        assertEquals(7, trace.statements().get(1).rows());
+        verify(connection).close();
+    }
+
+    @Test
+    @DisplayName("Sem trace ativo, o proxy apenas delega ao DataSource original")
+    void shouldOnlyDelegate_whenNoTraceIsActive() throws Exception {
+        // Arrange
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement("delete from coupons")).thenReturn(statement);
+        when(statement.executeUpdate()).thenReturn(1);
+
+        // Act
+        int affected = new TracingDataSource(target).getConnection().prepareStatement("delete from coupons").executeUpdate();
+
+        // Assert
+        assertEquals(1, affected);
+        assertNull(SqlTrace.current());
+    }
+}
@@ -8,7 +8,12 @@ interface PaginationProps {
 }
 
 export default function Pagination({ meta, onPageChange }: PaginationProps) {
-    if (!meta || meta.totalPages <= 1) {
+    // Sem contagem (countMode 'none'), só hasNext diz se existe uma próxima página.
+    const hasNext = meta
+        ? meta.hasNext ?? (meta.totalPages !== undefined && meta.page < meta.totalPages - 1)
+        : false;
+
+    if (!meta || (meta.page === 0 && !hasNext)) {
         return null; // Não mostra a paginação se não houver ou se for apenas uma página
     }
 
@@ -19,7 +24,7 @@ export default function Pagination({ meta, onPageChange }: PaginationProps) {
     };
 
     const handleNext = () => {
-        if (meta.page < meta.totalPages - 1) {
+        if (hasNext) {
             onPageChange(meta.page + 1);
         }
     };
@@ -27,7 +32,10 @@ export default function Pagination({ meta, onPageChange }: PaginationProps) {
     return (
         <div className="mt-6 flex items-center justify-between">
             <p className="text-sm text-slate-600">
-                Página {meta.page + 1} de {meta.totalPages} (Total: {meta.totalItems} produtos)
+                Página {meta.page + 1}
+                {meta.totalPages !== undefined && ` de ${meta.totalPages}`}
+                {meta.totalItems !== undefined &&
+                    ` (Total: ${meta.countMode === 'estimate' ? 'cerca de ' : ''}${meta.totalItems} produtos)`}
             </p>
             <div className="flex space-x-2">
                 <button 
@@ -39,7 +47,7 @@ export default function Pagination({ meta, onPageChange }: PaginationProps) {
                 </button>
                 <button 
                     onClick={handleNext}
-                    disabled={meta.page >= meta.totalPages - 1}
+                    disabled={!hasNext}
                     className="px-4 py-2 text-sm font-medium text-slate-700 bg-white border border-slate-300 rounded-md hover:bg-slate-50 disabled:opacity-50 disabled:cursor-not-allowed"
                 >
                     Próximo
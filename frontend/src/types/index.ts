@@ -22,8 +22,12 @@ enum couponType{
 export interface Meta {
   page: number;
   limit: number;
-  totalItems: number;
-  totalPages: number;
+  // Ausentes quando a listagem é pedida sem contagem (countMode 'none') ou por cursor.
+  totalItems?: number;
+  totalPages?: number;
+  nextCursor?: string;
+  countMode?: 'exact' | 'none' | 'estimate';
+  hasNext?: boolean;
 }
 
 export interface Coupons {
@@ -32,6 +36,8 @@ export interface Coupons {
     type: string;
     value: number;
     one_shot: boolean;
+    max_uses: number | null;
+    redemption_count: number;
     valid_from: Date;
     valid_until: Date;
     created_at: Date;